@@ -0,0 +1,24 @@
+#!/bin/bash
+# Builds the services and the benchmark jar, runs JMH and writes the results to
+# benchmarks/results/<commit>.json. Arguments go to JMH, e.g.
+#   benchmarks/run.sh Jwt -f 1 -wi 2 -i 3
+# Compare two runs (exits 1 on a regression over 10%):
+#   java -cp benchmarks/target/benchmarks.jar com.devopservice.benchmarks.CompareResults \
+#     benchmarks/results/<old>.json benchmarks/results/<new>.json
+
+set -euo pipefail
+
+BENCHMARKS="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(dirname "$BENCHMARKS")"
+
+(cd "$PROJECT_ROOT/shared" && mvn -q -DskipTests install)
+(cd "$PROJECT_ROOT/services/user-service/devops_mirco_project" && mvn -q -DskipTests install)
+(cd "$PROJECT_ROOT/services/item-service/devops_mirco_project" && mvn -q -DskipTests install)
+(cd "$BENCHMARKS" && mvn -q package)
+
+REVISION="$(git -C "$PROJECT_ROOT" rev-parse --short HEAD)"
+git -C "$PROJECT_ROOT" diff --quiet HEAD || REVISION="$REVISION-dirty"
+mkdir -p "$BENCHMARKS/results"
+
+java -jar "$BENCHMARKS/target/benchmarks.jar" -rf json -rff "$BENCHMARKS/results/$REVISION.json" "$@"
+echo "Results in benchmarks/results/$REVISION.json"
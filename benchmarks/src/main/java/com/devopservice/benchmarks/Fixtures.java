@@ -0,0 +1,105 @@
+package com.devopservice.benchmarks;
+
+import com.devopservice.controller.ShiftAssignmentController;
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.ShiftAssignment;
+import com.devopservice.entities.Worker;
+import com.devopservice.hours.HoursLedger;
+import com.devopservice.repositories.ShiftAssignmentRepository;
+import com.devopservice.repositories.ShiftRepository;
+import com.devopservice.repositories.WorkerRepository;
+import com.devopservice.slots.ShiftAssigner;
+import com.devopservice.slots.ShiftSlots;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Deterministic test data, in-memory stand-ins for the Spring Data
+ * repositories, and controllers wired to them so the controllers' own code is
+ * what gets measured.
+ */
+final class Fixtures {
+
+    private static final String[] ROLES = {"floor", "kitchen", "bar", "manager"};
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 6);
+
+    private Fixtures() {
+    }
+
+    static List<Shift> shifts(int count, Random random) {
+        List<Shift> shifts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = DAY.plusDays(i / 20);
+            LocalDateTime start = date.atTime(6 + random.nextInt(12), 0);
+            shifts.add(Shift.builder()
+                .id(new UUID(random.nextLong(), random.nextLong()))
+                .date(date)
+                .requiredRole(ROLES[random.nextInt(ROLES.length)])
+                .startTime(start)
+                .endTime(start.plusHours(8))
+                .capacity(1 + random.nextInt(3))
+                .build());
+        }
+        return shifts;
+    }
+
+    static List<Worker> workers(int count, Random random) {
+        List<Worker> workers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            workers.add(Worker.builder()
+                .id(new UUID(random.nextLong(), random.nextLong()))
+                .name("Worker " + i)
+                .role(ROLES[random.nextInt(ROLES.length)])
+                .userId(new UUID(random.nextLong(), random.nextLong()))
+                .build());
+        }
+        return workers;
+    }
+
+    static ShiftAssignment assignment(Shift shift, UUID workerId, Random random) {
+        return ShiftAssignment.builder()
+            .id(new UUID(random.nextLong(), random.nextLong()))
+            .shiftId(shift.getId())
+            .shiftDate(shift.getDate())
+            .workerId(workerId)
+            .assignedAt(shift.getStartTime().minusDays(3))
+            .build();
+    }
+
+    /**
+     * The assignment controller over the given repositories. Its other
+     * collaborators are real but sit on a database and an event publisher that
+     * fail loudly, so a benchmark that strays onto the write path stops rather
+     * than measuring a no-op.
+     */
+    static ShiftAssignmentController assignmentController(ShiftAssignmentRepository assignments, ShiftRepository shifts) {
+        DataSource noDatabase = stub(DataSource.class, Map.of());
+        ApplicationEventPublisher noEvents = stub(ApplicationEventPublisher.class, Map.of());
+        HoursLedger hoursLedger = new HoursLedger(noDatabase, 48);
+        ShiftAssigner assigner = new ShiftAssigner(shifts, stub(WorkerRepository.class, Map.of()), assignments,
+            new ShiftSlots(noDatabase), hoursLedger, noEvents);
+        return new ShiftAssignmentController(assignments, shifts, noEvents, assigner, hoursLedger);
+    }
+
+    /** An interface, typically a repository, whose listed methods answer from memory; anything else fails loudly. */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = methods.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(args);
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package com.devopservice.benchmarks;
+
+import com.devopservice.dto.ShiftAssignmentDTO;
+import com.devopservice.entities.Shift;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialisation cost per wire format for a month of shifts (about 20 a day)
+ * and a worker's assignment list: JSON without and with Blackbird, and the
+ * CBOR and Smile formats the scheduler serves on request,
+ * each also gzipped as the gateway would. Payload sizes, raw and gzipped,
+ * are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormatBenchmark {
+
+    @Param({"json", "json-blackbird", "cbor", "smile"})
+    public String format;
+
+    @Param({"600", "6000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Shift> shifts;
+    private List<ShiftAssignmentDTO> assignments;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "json-blackbird" -> Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule());
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> throw new IllegalArgumentException(format);
+        };
+        // Spring Boot's date settings apply to every format the service serves
+        objectMapper = builder
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .build();
+
+        Random random = new Random(42);
+        shifts = Fixtures.shifts(size, random);
+        UUID workerId = new UUID(random.nextLong(), random.nextLong());
+        assignments = new ArrayList<>(size);
+        for (Shift shift : shifts) {
+            assignments.add(new ShiftAssignmentDTO(new UUID(random.nextLong(), random.nextLong()), shift.getId(),
+                workerId, shift.getStartTime().minusDays(3), shift.getRequiredRole(), shift.getStartTime(),
+                shift.getEndTime(), shift.getDate()));
+        }
+        System.out.printf("%n%s, %d shifts: %d bytes (%d gzipped); %d assignments: %d bytes (%d gzipped)%n",
+            format, size, serializeShifts().length, gzipShifts().length,
+            size, serializeAssignments().length, gzip(serializeAssignments()).length);
+    }
+
+    @Benchmark
+    public byte[] serializeShifts() throws IOException {
+        return objectMapper.writeValueAsBytes(shifts);
+    }
+
+    @Benchmark
+    public byte[] serializeAssignments() throws IOException {
+        return objectMapper.writeValueAsBytes(assignments);
+    }
+
+    @Benchmark
+    public byte[] gzipShifts() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(shifts));
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
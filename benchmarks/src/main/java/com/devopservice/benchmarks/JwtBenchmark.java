@@ -0,0 +1,55 @@
+package com.devopservice.benchmarks;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.devopservice.auth.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and check as done on login (user-service) and on every routed
+ * request (gateway).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-of-realistic-length-0123456789";
+
+    private JwtService jwtService;
+    private String subject;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 30);
+        subject = UUID.randomUUID().toString();
+        token = jwtService.generate(subject);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generate(subject);
+    }
+
+    @Benchmark
+    public String verify() {
+        return jwtService.verify(token).getSubject();
+    }
+
+    /** What the gateway's JwtAuthenticationFilter does per request: a new algorithm and verifier each time. */
+    @Benchmark
+    public String gatewayFilterVerify() {
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        return JWT.require(algorithm).build().verify(token).getSubject();
+    }
+}
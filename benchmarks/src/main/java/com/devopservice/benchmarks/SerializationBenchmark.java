@@ -0,0 +1,96 @@
+package com.devopservice.benchmarks;
+
+import com.devopservice.controller.ShiftAssignmentController;
+import com.devopservice.dto.ShiftAssignmentDTO;
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.ShiftAssignment;
+import com.devopservice.entities.Worker;
+import com.devopservice.repositories.ShiftAssignmentRepository;
+import com.devopservice.repositories.ShiftRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Response building for the list endpoints: the per-worker assignment DTO
+ * mapping, and Jackson writing shift and worker lists with the mapper
+ * configured the way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ShiftAssignmentController assignmentController;
+    private UUID workerId;
+    private List<Shift> shifts;
+    private List<Worker> workers;
+    private List<ShiftAssignmentDTO> assignmentDtos;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        // Spring Boot's defaults on top of the builder's: ISO dates rather than arrays
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .build();
+        shifts = Fixtures.shifts(size, random);
+        workers = Fixtures.workers(size, random);
+        workerId = workers.get(0).getId();
+
+        List<ShiftAssignment> assignments = new ArrayList<>(size);
+        for (Shift shift : shifts) {
+            assignments.add(Fixtures.assignment(shift, workerId, random));
+        }
+        Map<UUID, Shift> shiftsById = shifts.stream().collect(Collectors.toMap(Shift::getId, Function.identity()));
+        ShiftAssignmentRepository assignmentRepository = Fixtures.stub(ShiftAssignmentRepository.class,
+            Map.of("findByWorkerId", args -> assignments));
+        ShiftRepository shiftRepository = Fixtures.stub(ShiftRepository.class,
+            Map.of("findById", args -> Optional.ofNullable(shiftsById.get((UUID) args[0]))));
+        assignmentController = Fixtures.assignmentController(assignmentRepository, shiftRepository);
+        assignmentDtos = assignmentController.getAssignmentsByWorker(workerId);
+    }
+
+    @Benchmark
+    public List<ShiftAssignmentDTO> mapAssignmentDtos() {
+        return assignmentController.getAssignmentsByWorker(workerId);
+    }
+
+    @Benchmark
+    public byte[] serializeAssignmentDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(assignmentDtos);
+    }
+
+    @Benchmark
+    public byte[] serializeShifts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(shifts);
+    }
+
+    @Benchmark
+    public byte[] serializeWorkers() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(workers);
+    }
+}
@@ -35,13 +35,14 @@ function Schedule() {
   const { token, user_id } = location.state || {};
   const [theme, setTheme] = useState('light');
   const [worker, setWorker] = useState(null);
-  const [shifts, setShifts] = useState([]);
   const [unassignedShifts, setUnassignedShifts] = useState([]);
   const [loading, setLoading] = useState(true);
   const [workerForm, setWorkerForm] = useState({ name: '', role: '' });
   const [creatingWorker, setCreatingWorker] = useState(false);
   const [assignPopup, setAssignPopup] = useState({ open: false, shift: null });
   const [assignedShifts, setAssignedShifts] = useState([]);
+  // Bumped by the server-sent change feed so lists refresh only when something changed
+  const [changeVersion, setChangeVersion] = useState(0);
 
   // Add state for selected month/year
   const now = new Date();
@@ -102,33 +103,6 @@ function Schedule() {
     });
     if (response.ok) {
       setAssignPopup({ open: false, shift: null });
-      setLoading(true);
-      const shiftsRes = await fetch('http://localhost:8080/api/shifts', {
-        headers: {
-          'Authorization': `Bearer ${token}`,
-          'Content-Type': 'application/json',
-          'X-User-Id': user_id
-        }
-      });
-      const shiftsData = await shiftsRes.json();
-      setShifts(Array.isArray(shiftsData) ? shiftsData : []);
-      const assignedRes = await fetch(`http://localhost:8080/api/shift-assignments/worker/${worker.id}`, {
-        headers: {
-          'Authorization': `Bearer ${token}`,
-          'Content-Type': 'application/json'
-        }
-      });
-      const assignedData = await assignedRes.json();
-      setAssignedShifts(Array.isArray(assignedData) ? assignedData : []);
-      const unassignedRes = await fetch('http://localhost:8080/api/shifts/unassigned', {
-        headers: {
-          'Authorization': `Bearer ${token}`,
-          'Content-Type': 'application/json'
-        }
-      });
-      const unassignedData = await unassignedRes.json();
-      setUnassignedShifts(Array.isArray(unassignedData) ? unassignedData : []);
-      setLoading(false);
     } else {
       const errorText = await response.text();
   console.error('Assign shift failed:', response.status, errorText);
@@ -139,6 +113,14 @@ function Schedule() {
   }
 };
 
+  useEffect(() => {
+    const source = new EventSource('http://localhost:8080/api/shifts/stream');
+    const onChange = () => setChangeVersion(version => version + 1);
+    ['shift_created', 'shift_removed', 'shift_assigned', 'shift_unassigned', 'resync']
+      .forEach(type => source.addEventListener(type, onChange));
+    return () => source.close();
+  }, []);
+
   useEffect(() => {
     async function fetchWorker() {
       const workerResponse = await fetch(`http://localhost:8080/api/scheduler/me`, {
@@ -175,7 +157,7 @@ function Schedule() {
       setLoading(false);
     }
     fetchAssignedShifts();
-  }, [worker, token]);
+  }, [worker, token, changeVersion]);
 
   useEffect(() => {
     async function fetchUnassignedShifts() {
@@ -195,7 +177,7 @@ function Schedule() {
       setLoading(false);
     }
     fetchUnassignedShifts();
-  }, [token]);
+  }, [token, changeVersion]);
 
   const handleWorkerFormChange = e => {
     setWorkerForm({ ...workerForm, [e.target.name]: e.target.value });
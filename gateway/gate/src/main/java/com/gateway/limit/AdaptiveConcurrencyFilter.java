@@ -0,0 +1,104 @@
+package com.gateway.limit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the requests in flight per route under an {@link AdaptiveLimiter},
+ * so a slow service is sent a bounded number of requests instead of a
+ * growing queue. A request over its priority's share is answered 503 with
+ * {@code Retry-After} straight away. The round trip is taken up to the start
+ * of the response, so streamed exports count their time to first byte;
+ * routes whose requests stay open (the shift stream) are not limited.
+ */
+@Component
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered {
+
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double normalShare;
+    private final double lowShare;
+    private final Duration baselineWindow;
+    private final Set<String> exemptRoutes;
+
+    public AdaptiveConcurrencyFilter(
+        @Value("${app.limits.enabled:true}") boolean enabled,
+        @Value("${app.limits.initial-limit:50}") int initialLimit,
+        @Value("${app.limits.min-limit:8}") int minLimit,
+        @Value("${app.limits.max-limit:200}") int maxLimit,
+        @Value("${app.limits.rtt-tolerance:2.0}") double tolerance,
+        @Value("${app.limits.normal-share:0.9}") double normalShare,
+        @Value("${app.limits.low-share:0.6}") double lowShare,
+        @Value("${app.limits.baseline-window:5m}") Duration baselineWindow,
+        @Value("${app.limits.exempt-routes:shift-stream}") Set<String> exemptRoutes) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.normalShare = normalShare;
+        this.lowShare = lowShare;
+        this.baselineWindow = baselineWindow;
+        this.exemptRoutes = Set.copyOf(exemptRoutes);
+    }
+
+    @Override
+    public int getOrder() {
+        // Inside the response write filter, so the chain completes once the service's response headers are in
+        return Ordered.LOWEST_PRECEDENCE - 20;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null || exemptRoutes.contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+        AdaptiveLimiter limiter = limiters.computeIfAbsent(route.getId(), id -> new AdaptiveLimiter(
+            initialLimit, minLimit, maxLimit, tolerance, normalShare, lowShare, baselineWindow));
+        ServerHttpResponse response = exchange.getResponse();
+        if (!limiter.tryAcquire(Priority.of(exchange.getRequest()))) {
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return response.setComplete();
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            HttpStatusCode status = response.getStatusCode();
+            // Refused or timed out upstream, or not reached at all
+            boolean dropped = signal == SignalType.ON_ERROR
+                || status != null && (status.value() == 503 || status.value() == 504);
+            limiter.release(signal == SignalType.CANCEL ? -1 : System.nanoTime() - start, dropped);
+        });
+    }
+
+    /** Limit, requests in flight, RTT averages and shed counts per route. */
+    public Map<String, AdaptiveLimiter.Snapshot> snapshot() {
+        Map<String, AdaptiveLimiter.Snapshot> snapshot = new TreeMap<>();
+        limiters.forEach((route, limiter) -> snapshot.put(route, limiter.snapshot()));
+        return snapshot;
+    }
+}
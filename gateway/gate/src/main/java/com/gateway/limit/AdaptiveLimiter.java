@@ -0,0 +1,132 @@
+package com.gateway.limit;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit for one route, adjusted from the round trips it sees
+ * (the gradient scheme of Netflix's concurrency-limits). A short average of
+ * the RTT is compared with a long one, over about {@code baselineWindow},
+ * that stands for the service's usual latency. While the short one stays
+ * within {@code tolerance} times the long one the limit grows by about its
+ * square root per sample; once a slowdown shows up it shrinks in
+ * proportion, by at most half. A slowdown that lasts well past the window
+ * becomes the new usual. Timeouts and 503s from the service back the limit
+ * off by a tenth.
+ *
+ * <p>Requests above their class's share of the limit are refused outright
+ * rather than queued (see {@link Priority}).
+ */
+public class AdaptiveLimiter {
+
+    private static final int WARMUP_SAMPLES = 100;
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+
+    public record Snapshot(int limit, int inFlight, double rttMs, double baselineRttMs, Map<Priority, Long> shed) {}
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long baselineWindowNanos;
+    private final LongSupplier clock;
+    private final Map<Priority, Double> shares;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Priority, AtomicLong> shed = new EnumMap<>(Priority.class);
+
+    private volatile double limit;
+    private double shortRtt;
+    private long samples;
+    private double longRtt;
+    private long lastSample;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                           double normalShare, double lowShare, Duration baselineWindow) {
+        this(initialLimit, minLimit, maxLimit, tolerance, normalShare, lowShare, baselineWindow, System::nanoTime);
+    }
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double normalShare,
+                    double lowShare, Duration baselineWindow, LongSupplier clock) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.baselineWindowNanos = baselineWindow.toNanos();
+        this.clock = clock;
+        this.shares = Map.of(Priority.HIGH, 1.0, Priority.NORMAL, normalShare, Priority.LOW, lowShare);
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, new AtomicLong());
+        }
+    }
+
+    /** Takes a slot if the class is under its share of the limit; the caller must {@link #release} it. */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * shares.get(priority)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                shed.get(priority).incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Gives the slot back, with the round trip to learn from, or a negative one for none. */
+    public void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        if (dropped) {
+            backOff();
+        } else if (rttNanos > 0) {
+            sample(rttNanos, current);
+        }
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public synchronized Snapshot snapshot() {
+        Map<Priority, Long> shedCounts = new EnumMap<>(Priority.class);
+        shed.forEach((priority, count) -> shedCounts.put(priority, count.get()));
+        return new Snapshot((int) limit, inFlight.get(), shortRtt / 1e6, longRtt / 1e6, shedCounts);
+    }
+
+    private synchronized void backOff() {
+        limit = Math.max(minLimit, limit * BACKOFF);
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtSample) {
+        double rtt = rttNanos;
+        long now = clock.getAsLong();
+        samples++;
+        shortRtt = samples == 1 ? rtt : shortRtt + (rtt - shortRtt) * SHORT_ALPHA;
+        if (samples <= WARMUP_SAMPLES) {
+            // The baseline starts as a plain mean; the limit stays put until it means something
+            longRtt += (rtt - longRtt) / samples;
+            lastSample = now;
+            return;
+        }
+        // Weighted by the time since the last sample, so the window means the same at any request rate
+        longRtt += (rtt - longRtt) * -Math.expm1(-(double) (now - lastSample) / baselineWindowNanos);
+        lastSample = now;
+        if (longRtt > 2 * shortRtt) {
+            // Faster for good (a slowdown is over, or a deploy helped): let the baseline follow quickly
+            longRtt *= 0.95;
+        }
+        if (inFlightAtSample < limit / 2) {
+            // Not using the limit, so the RTT says nothing about whether it is too high
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double next = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + next * SMOOTHING));
+    }
+}
@@ -0,0 +1,21 @@
+package com.gateway.limit;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class ConcurrencyLimitController {
+
+    private final AdaptiveConcurrencyFilter filter;
+
+    public ConcurrencyLimitController(AdaptiveConcurrencyFilter filter) {
+        this.filter = filter;
+    }
+
+    @GetMapping("/gateway/limits")
+    public Map<String, AdaptiveLimiter.Snapshot> limits() {
+        return filter.snapshot();
+    }
+}
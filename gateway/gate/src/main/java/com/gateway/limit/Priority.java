@@ -0,0 +1,43 @@
+package com.gateway.limit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * How much of a route's concurrency limit a request may use. Logins and
+ * shift assignments can fill all of it, bulk list reads only part, so under
+ * pressure the lists are shed first and the actions people wait on get through.
+ */
+public enum Priority {
+    HIGH, NORMAL, LOW;
+
+    private static final Set<String> ASSIGNMENT_WRITES = Set.of(
+        "/api/shift-assignments", "/api/shift-assignments/assign", "/api/shift-assignments/claim");
+
+    private static final Set<String> BULK_LISTS = Set.of(
+        "/api/shifts", "/api/shifts/unassigned", "/api/scheduler", "/api/shift-assignments", "/api/swaps");
+
+    private static final List<String> BULK_PREFIXES = List.of(
+        "/api/roster/", "/api/exports/", "/api/analytics/", "/api/changes", "/api/shifts/archive",
+        "/api/shifts/date/", "/api/shifts/role/", "/api/scheduler/role/");
+
+    public static Priority of(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        HttpMethod method = request.getMethod();
+        if (path.startsWith("/api/auth/")) {
+            return HIGH;
+        }
+        if (HttpMethod.POST.equals(method)
+            && (ASSIGNMENT_WRITES.contains(path) || path.startsWith("/api/swaps/") && path.endsWith("/accept"))) {
+            return HIGH;
+        }
+        if (HttpMethod.GET.equals(method)
+            && (BULK_LISTS.contains(path) || BULK_PREFIXES.stream().anyMatch(path::startsWith))) {
+            return LOW;
+        }
+        return NORMAL;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gateway.tracing;
+
+import com.devopservice.shared.RequestIds;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Gives every request an ID (the caller's {@code X-Request-Id} if it is a
+ * plain short token, else a new one), forwards it to the services and returns
+ * it to the caller. The services' {@code Server-Timing} header is extended
+ * with the gateway's own entries: {@code gw} for its filters before routing,
+ * {@code upstream} until the service's response arrived and {@code edge} for
+ * the whole exchange so far. Slow exchanges go to the {@link SlowRequestLog}.
+ */
+@Component
+public class RequestTracingFilter implements WebFilter, Ordered {
+
+    public static final String REQUEST_ID_HEADER = RequestIds.HEADER;
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+    static final String TIMINGS_ATTR = RequestTracingFilter.class.getName() + ".timings";
+
+    private final SlowRequestLog slowRequests;
+
+    public RequestTracingFilter(SlowRequestLog slowRequests) {
+        this.slowRequests = slowRequests;
+    }
+
+    @Override
+    public int getOrder() {
+        // Ahead of CORS and routing, so the timings cover them
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Timings timings = new Timings(System.nanoTime(), RequestIds.accept(exchange.getRequest().getHeaders()
+            .getFirst(REQUEST_ID_HEADER)));
+        ServerWebExchange traced = exchange.mutate()
+            .request(request -> request.headers(headers -> headers.set(REQUEST_ID_HEADER, timings.requestId)))
+            .build();
+        traced.getAttributes().put(TIMINGS_ATTR, timings);
+        ServerHttpResponse response = traced.getResponse();
+        response.getHeaders().set(REQUEST_ID_HEADER, timings.requestId);
+        response.beforeCommit(() -> {
+            // Upstream headers have been copied over by now
+            timings.committed = System.nanoTime();
+            response.getHeaders().set(SERVER_TIMING_HEADER,
+                serverTiming(response.getHeaders().get(SERVER_TIMING_HEADER), timings, traced));
+            return Mono.empty();
+        });
+        return chain.filter(traced)
+            .doFinally(signal -> slowRequests.record(traced, timings, System.nanoTime()));
+    }
+
+    static String serverTiming(List<String> upstream, Timings timings, ServerWebExchange exchange) {
+        StringBuilder header = new StringBuilder();
+        if (upstream != null) {
+            upstream.forEach(value -> header.append(value).append(", "));
+        }
+        if (timings.upstreamStart != 0) {
+            header.append(entry("gw", "gateway filters", timings.upstreamStart - timings.start)).append(", ");
+            long upstreamNanos = timings.committed - timings.upstreamStart;
+            header.append(entry("upstream", SlowRequestLog.routeId(exchange), upstreamNanos)).append(", ");
+        }
+        return header.append(entry("edge", "gateway total", timings.committed - timings.start)).toString();
+    }
+
+    private static String entry(String name, String description, long nanos) {
+        return String.format(Locale.ROOT, "%s;desc=\"%s\";dur=%.1f", name, description, nanos / 1e6);
+    }
+
+    /** Per-exchange marks, in {@link System#nanoTime()}; 0 until reached. */
+    static final class Timings {
+        final long start;
+        final String requestId;
+        volatile long upstreamStart;
+        volatile long committed;
+
+        Timings(long start, String requestId) {
+            this.start = start;
+            this.requestId = requestId;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.gateway.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends exchanges slower than the threshold to a local JSON-lines trace
+ * file (request ID, route, status, gateway/upstream/total time and the merged
+ * {@code Server-Timing}), for offline inspection next to the services' logs.
+ * At most {@code max-per-second} are kept, written off the event loop, and the
+ * file is rolled over to {@code .1} once it reaches {@code max-file-bytes}.
+ */
+@Component
+public class SlowRequestLog implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestLog.class);
+
+    private final long thresholdNanos;
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxPerSecond;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1024), runnable -> {
+            Thread thread = new Thread(runnable, "slow-request-log");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger recordedThisSecond = new AtomicInteger();
+
+    public SlowRequestLog(
+        @Value("${app.tracing.slow-request-ms:1000}") long thresholdMs,
+        @Value("${app.tracing.slow-request-file:logs/slow-requests.jsonl}") Path file,
+        @Value("${app.tracing.max-file-bytes:52428800}") long maxFileBytes,
+        @Value("${app.tracing.max-per-second:20}") int maxPerSecond) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.file = file.toAbsolutePath();
+        this.maxFileBytes = maxFileBytes;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    void record(ServerWebExchange exchange, RequestTracingFilter.Timings timings, long endNanos) {
+        long totalNanos = endNanos - timings.start;
+        if (thresholdNanos <= 0 || totalNanos < thresholdNanos || isEventStream(exchange) || !admit()) {
+            return;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("time", Instant.now().toString());
+        entry.put("requestId", timings.requestId);
+        entry.put("method", exchange.getRequest().getMethod().name());
+        entry.put("path", exchange.getRequest().getURI().getRawPath());
+        entry.put("route", routeId(exchange));
+        entry.put("status", status == null ? null : status.value());
+        entry.put("totalMs", millis(totalNanos));
+        if (timings.upstreamStart != 0) {
+            entry.put("gatewayMs", millis(timings.upstreamStart - timings.start));
+            entry.put("upstreamMs", timings.committed == 0 ? null : millis(timings.committed - timings.upstreamStart));
+        }
+        entry.put("serverTiming",
+            exchange.getResponse().getHeaders().getFirst(RequestTracingFilter.SERVER_TIMING_HEADER));
+        log.warn("Slow request {} {} {} took {} ms", timings.requestId, entry.get("method"), entry.get("path"),
+            entry.get("totalMs"));
+        writer.execute(() -> append(entry));
+    }
+
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route == null ? "none" : route.getId();
+    }
+
+    private static boolean isEventStream(ServerWebExchange exchange) {
+        MediaType contentType = exchange.getResponse().getHeaders().getContentType();
+        return contentType != null && MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType);
+    }
+
+    private boolean admit() {
+        long second = System.currentTimeMillis() / 1000;
+        long previous = currentSecond.get();
+        if (previous != second && currentSecond.compareAndSet(previous, second)) {
+            recordedThisSecond.set(0);
+        }
+        return recordedThisSecond.incrementAndGet() <= maxPerSecond;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e5) / 10.0;
+    }
+
+    private void append(Map<String, Object> entry) {
+        try {
+            byte[] line = (mapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+            Files.createDirectories(file.getParent());
+            if (Files.exists(file) && Files.size(file) + line.length > maxFileBytes) {
+                Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.write(file, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not serialise slow request {}", entry.get("requestId"), ex);
+        } catch (IOException ex) {
+            log.warn("Could not write slow request trace to {}: {}", file, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,29 @@
+package com.gateway.tracing;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/** Marks where the gateway's own filters end and the call to the service begins. */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public int getOrder() {
+        // Just before the routing filters, which run at the lowest precedence
+        return Ordered.LOWEST_PRECEDENCE - 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RequestTracingFilter.Timings timings = exchange.getAttribute(RequestTracingFilter.TIMINGS_ATTR);
+        if (timings != null) {
+            timings.upstreamStart = System.nanoTime();
+        }
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,123 @@
+package com.gateway.upstream;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The gateway's HttpClient with a bounded pool per service instead of the
+ * default elastic one. Size, acquire timeout, idle and life times and the
+ * eviction interval come from {@code spring.cloud.gateway.httpclient.pool};
+ * the pending-acquire queue, per-route sizes and h2c from
+ * {@link UpstreamPoolProperties}. With h2c, requests are multiplexed over a
+ * few HTTP/2 connections per service rather than one connection each.
+ */
+public class UpstreamHttpClientFactory extends HttpClientFactory {
+
+    private final UpstreamPoolProperties upstream;
+    private final List<RouteDefinition> routes;
+    private final UpstreamPoolMetrics metrics;
+
+    public UpstreamHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                     HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                                     UpstreamPoolProperties upstream, List<RouteDefinition> routes,
+                                     UpstreamPoolMetrics metrics) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.upstream = upstream;
+        this.routes = routes;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected HttpClient createInstance() {
+        HttpClient client = super.createInstance();
+        // Prior knowledge: no upgrade round trip, and request bodies work from the first request on
+        return upstream.isH2c() ? client.protocol(HttpProtocol.H2C) : client;
+    }
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+        HttpClientProperties.Pool pool = properties.getPool();
+        if (pool.getType() == HttpClientProperties.Pool.PoolType.DISABLED) {
+            return super.buildConnectionProvider(properties);
+        }
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(pool.getName());
+        configure(builder, pool, pool.getMaxConnections(), upstream.getPendingAcquireMaxCount());
+        overrides(pool).forEach((address, route) -> builder.forRemoteHost(address,
+            spec -> configure(spec, pool, route.getMaxConnections(), route.getPendingAcquireMaxCount())));
+        return builder.build();
+    }
+
+    private <S extends ConnectionProvider.ConnectionPoolSpec<S>> void configure(
+        S spec, HttpClientProperties.Pool pool, int maxConnections, int pendingAcquireMaxCount) {
+        spec.maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(Duration.ofMillis(pool.getAcquireTimeout()))
+            .evictInBackground(pool.getEvictionInterval())
+            // The most recently used connection goes out first, so spare ones reach the idle time and close
+            .lifo()
+            .metrics(true, () -> metrics);
+        if (pool.getMaxIdleTime() != null) {
+            spec.maxIdleTime(pool.getMaxIdleTime());
+        }
+        if (pool.getMaxLifeTime() != null) {
+            spec.maxLifeTime(pool.getMaxLifeTime());
+        }
+        if (upstream.isH2c()) {
+            spec.allocationStrategy(Http2AllocationStrategy.builder()
+                .maxConnections(maxConnections)
+                .maxConcurrentStreams(upstream.getMaxConcurrentStreams())
+                .minConnections(1)
+                .build());
+        }
+    }
+
+    /** Per-route overrides by upstream address; of routes sharing an address, the larger limits win. */
+    private Map<SocketAddress, UpstreamPoolProperties.RoutePool> overrides(HttpClientProperties.Pool pool) {
+        Map<SocketAddress, UpstreamPoolProperties.RoutePool> overrides = new LinkedHashMap<>();
+        for (RouteDefinition route : routes) {
+            UpstreamPoolProperties.RoutePool configured = upstream.getRoutes().get(route.getId());
+            if (configured == null) {
+                continue;
+            }
+            overrides.merge(address(route.getUri()), resolved(configured, pool), (a, b) -> {
+                UpstreamPoolProperties.RoutePool merged = new UpstreamPoolProperties.RoutePool();
+                merged.setMaxConnections(Math.max(a.getMaxConnections(), b.getMaxConnections()));
+                merged.setPendingAcquireMaxCount(Math.max(a.getPendingAcquireMaxCount(), b.getPendingAcquireMaxCount()));
+                return merged;
+            });
+        }
+        return overrides;
+    }
+
+    private UpstreamPoolProperties.RoutePool resolved(UpstreamPoolProperties.RoutePool configured,
+                                                      HttpClientProperties.Pool pool) {
+        UpstreamPoolProperties.RoutePool resolved = new UpstreamPoolProperties.RoutePool();
+        resolved.setMaxConnections(configured.getMaxConnections() != null
+            ? configured.getMaxConnections() : pool.getMaxConnections());
+        resolved.setPendingAcquireMaxCount(configured.getPendingAcquireMaxCount() != null
+            ? configured.getPendingAcquireMaxCount() : upstream.getPendingAcquireMaxCount());
+        return resolved;
+    }
+
+    private static SocketAddress address(URI uri) {
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equals(uri.getScheme()) ? 443 : 80;
+        // Reactor-netty keys its pools by the unresolved address of the request URI
+        return InetSocketAddress.createUnresolved(uri.getHost(), port);
+    }
+}
@@ -0,0 +1,34 @@
+package com.gateway.upstream;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/** Replaces the gateway's own HttpClient factory, which backs off when one is defined. */
+@Configuration
+@EnableConfigurationProperties(UpstreamPoolProperties.class)
+public class UpstreamPoolConfig {
+
+    @Bean
+    public UpstreamPoolMetrics upstreamPoolMetrics() {
+        return new UpstreamPoolMetrics();
+    }
+
+    @Bean
+    public HttpClientFactory upstreamHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                                       HttpClientSslConfigurer sslConfigurer,
+                                                       List<HttpClientCustomizer> customizers,
+                                                       UpstreamPoolProperties upstream, GatewayProperties gateway,
+                                                       UpstreamPoolMetrics metrics) {
+        return new UpstreamHttpClientFactory(properties, serverProperties, sslConfigurer, customizers, upstream,
+            gateway.getRoutes(), metrics);
+    }
+}
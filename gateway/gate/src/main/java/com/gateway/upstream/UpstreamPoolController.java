@@ -0,0 +1,22 @@
+package com.gateway.upstream;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class UpstreamPoolController {
+
+    private final UpstreamPoolMetrics metrics;
+
+    public UpstreamPoolController(UpstreamPoolMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** Connections in use, idle and waited for, per service the gateway has talked to. */
+    @GetMapping("/gateway/upstream-pools")
+    public Map<String, UpstreamPoolMetrics.Snapshot> pools() {
+        return metrics.snapshot();
+    }
+}
@@ -0,0 +1,44 @@
+package com.gateway.upstream;
+
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps hold of the pool gauges reactor-netty hands out for each upstream
+ * address, so they can be read without Micrometer on the classpath.
+ */
+public class UpstreamPoolMetrics implements ConnectionProvider.MeterRegistrar {
+
+    public record Snapshot(int active, int idle, int pendingAcquires, int connections,
+                           int maxConnections, int maxPendingAcquires) {}
+
+    private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        pools.put(key(poolName, remoteAddress), metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        pools.remove(key(poolName, remoteAddress));
+    }
+
+    /** Current figures per pool, keyed by pool name and upstream address. */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshot = new TreeMap<>();
+        pools.forEach((key, metrics) -> snapshot.put(key, new Snapshot(metrics.acquiredSize(), metrics.idleSize(),
+            metrics.pendingAcquireSize(), metrics.allocatedSize(), metrics.maxAllocatedSize(),
+            metrics.maxPendingAcquireSize())));
+        return snapshot;
+    }
+
+    private static String key(String poolName, SocketAddress remoteAddress) {
+        return poolName + " " + remoteAddress;
+    }
+}
@@ -0,0 +1,81 @@
+package com.gateway.upstream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What {@code spring.cloud.gateway.httpclient.pool} does not cover: the
+ * pending-acquire queue, per-route pool sizes, and h2c to the services.
+ */
+@ConfigurationProperties("app.upstream")
+public class UpstreamPoolProperties {
+
+    /** Talk HTTP/2 with prior knowledge to every service; they must run with {@code server.http2.enabled}. */
+    private boolean h2c;
+
+    /** Requests allowed to queue for a connection per service before they fail fast; -1 is unbounded. */
+    private int pendingAcquireMaxCount = 1000;
+
+    /** With h2c, streams per connection before another connection is opened. */
+    private long maxConcurrentStreams = 100;
+
+    /** Overrides by route id; routes that reach the same host and port share one pool. */
+    private Map<String, RoutePool> routes = new LinkedHashMap<>();
+
+    public boolean isH2c() {
+        return h2c;
+    }
+
+    public void setH2c(boolean h2c) {
+        this.h2c = h2c;
+    }
+
+    public int getPendingAcquireMaxCount() {
+        return pendingAcquireMaxCount;
+    }
+
+    public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+    }
+
+    public long getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    public void setMaxConcurrentStreams(long maxConcurrentStreams) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    public Map<String, RoutePool> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, RoutePool> routes) {
+        this.routes = routes;
+    }
+
+    public static class RoutePool {
+
+        private Integer maxConnections;
+
+        private Integer pendingAcquireMaxCount;
+
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Integer getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(Integer pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.gateway.limit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyFilterTest {
+
+    private static final Route SCHEDULER = route("scheduler-service");
+
+    @Test
+    void testRefusesOverTheLimitWithoutCallingTheChain() {
+        AdaptiveConcurrencyFilter filter = filter(1);
+        Sinks.Empty<Void> upstream = Sinks.empty();
+        AtomicInteger calls = new AtomicInteger();
+        GatewayFilterChain chain = exchange -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        };
+
+        ServerWebExchange first = exchange(SCHEDULER);
+        filter.filter(first, chain).subscribe();
+        assertEquals(1, calls.get());
+
+        ServerWebExchange second = exchange(SCHEDULER);
+        filter.filter(second, chain).block(Duration.ofSeconds(5));
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, second.getResponse().getStatusCode());
+        assertEquals("1", second.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1L, filter.snapshot().get("scheduler-service").shed().get(Priority.LOW));
+
+        upstream.tryEmitEmpty();
+        assertEquals(0, filter.snapshot().get("scheduler-service").inFlight());
+    }
+
+    @Test
+    void testServiceUnavailableAndErrorsBackOff() {
+        AdaptiveConcurrencyFilter filter = filter(50);
+        filter.filter(exchange(SCHEDULER), exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return Mono.empty();
+        }).block(Duration.ofSeconds(5));
+        assertEquals(45, filter.snapshot().get("scheduler-service").limit());
+
+        Mono<Void> failed = filter.filter(exchange(SCHEDULER), exchange -> Mono.error(new IllegalStateException()));
+        assertThrows(IllegalStateException.class, () -> failed.block(Duration.ofSeconds(5)));
+        assertEquals(40, filter.snapshot().get("scheduler-service").limit());
+
+        filter.filter(exchange(SCHEDULER), exchange -> Mono.empty()).block(Duration.ofSeconds(5));
+        assertEquals(40, filter.snapshot().get("scheduler-service").limit());
+    }
+
+    @Test
+    void testExemptRoutesAreNotLimited() {
+        AdaptiveConcurrencyFilter filter = filter(1);
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            filter.filter(exchange(route("shift-stream")), exchange -> {
+                calls.incrementAndGet();
+                return Mono.never();
+            }).subscribe();
+        }
+        assertEquals(3, calls.get());
+        assertTrue(filter.snapshot().isEmpty());
+    }
+
+    private static AdaptiveConcurrencyFilter filter(int initialLimit) {
+        return new AdaptiveConcurrencyFilter(true, initialLimit, 1, 200, 2.0, 0.9, 0.6, Duration.ofMinutes(5),
+            Set.of("shift-stream"));
+    }
+
+    private static ServerWebExchange exchange(Route route) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/shifts"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private static Route route(String id) {
+        return Route.async().id(id).uri("http://localhost:8081").predicate(exchange -> true).build();
+    }
+}
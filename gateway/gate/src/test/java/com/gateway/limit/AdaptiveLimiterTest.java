@@ -0,0 +1,112 @@
+package com.gateway.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveLimiterTest {
+
+    private static final int MIN_LIMIT = 8;
+    private static final int MAX_LIMIT = 200;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testLimitGrowsWhileTheRoundTripHolds() {
+        AdaptiveLimiter limiter = limiter(20);
+        warmUp(limiter, 10);
+        assertEquals(20, limiter.limit());
+
+        int previous = limiter.limit();
+        for (int i = 0; i < 50; i++) {
+            completeAtFullLoad(limiter, 10);
+            assertTrue(limiter.limit() >= previous, "limit dropped at a steady round trip");
+            previous = limiter.limit();
+        }
+        assertTrue(limiter.limit() > 40, "limit " + limiter.limit());
+        assertTrue(limiter.limit() <= MAX_LIMIT);
+    }
+
+    @Test
+    void testLimitShrinksToTheFloorDuringABrownout() {
+        AdaptiveLimiter limiter = limiter(50);
+        warmUp(limiter, 10);
+
+        for (int i = 0; i < 30; i++) {
+            completeAtFullLoad(limiter, 200);
+            assertTrue(limiter.limit() >= MIN_LIMIT);
+        }
+        assertTrue(limiter.limit() < 30, "limit " + limiter.limit());
+        for (int i = 0; i < 200; i++) {
+            completeAtFullLoad(limiter, 200);
+            assertTrue(limiter.limit() >= MIN_LIMIT);
+        }
+        assertEquals(MIN_LIMIT, limiter.limit());
+    }
+
+    @Test
+    void testShedsLowBeforeNormalBeforeHigh() {
+        // Shares of a limit of 10: LOW 6, NORMAL 9, HIGH 10
+        AdaptiveLimiter limiter = limiter(10);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limiter.tryAcquire(Priority.LOW));
+        }
+        assertFalse(limiter.tryAcquire(Priority.LOW));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        }
+        assertFalse(limiter.tryAcquire(Priority.LOW));
+        assertFalse(limiter.tryAcquire(Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(Priority.HIGH));
+        assertFalse(limiter.tryAcquire(Priority.HIGH));
+
+        AdaptiveLimiter.Snapshot snapshot = limiter.snapshot();
+        assertEquals(10, snapshot.inFlight());
+        assertEquals(2L, snapshot.shed().get(Priority.LOW));
+        assertEquals(1L, snapshot.shed().get(Priority.NORMAL));
+        assertEquals(1L, snapshot.shed().get(Priority.HIGH));
+
+        limiter.release(-1, false);
+        assertTrue(limiter.tryAcquire(Priority.HIGH));
+    }
+
+    @Test
+    void testDroppedRequestsBackOffToTheFloor() {
+        AdaptiveLimiter limiter = limiter(50);
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(5), true);
+        assertEquals(45, limiter.limit());
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire(Priority.NORMAL));
+            limiter.release(-1, true);
+        }
+        assertEquals(MIN_LIMIT, limiter.limit());
+        assertEquals(0, limiter.snapshot().inFlight());
+    }
+
+    private AdaptiveLimiter limiter(int initialLimit) {
+        return new AdaptiveLimiter(initialLimit, MIN_LIMIT, MAX_LIMIT, 2.0, 0.9, 0.6, Duration.ofMinutes(5),
+            clock::get);
+    }
+
+    /** The first hundred samples only set the baseline. */
+    private void warmUp(AdaptiveLimiter limiter, long rttMillis) {
+        for (int i = 0; i < 100; i++) {
+            completeAtFullLoad(limiter, rttMillis);
+        }
+    }
+
+    /** Fills the limit, then finishes one request, so the sample counts against a limit in use. */
+    private void completeAtFullLoad(AdaptiveLimiter limiter, long rttMillis) {
+        while (limiter.tryAcquire(Priority.HIGH)) {
+            // Keep taking slots
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(rttMillis), false);
+    }
+}
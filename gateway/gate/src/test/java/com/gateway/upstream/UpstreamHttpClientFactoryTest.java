@@ -0,0 +1,229 @@
+package com.gateway.upstream;
+
+import com.sun.net.httpserver.HttpServer;
+import io.netty.channel.ChannelOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.core.io.ByteArrayResource;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamHttpClientFactoryTest {
+
+    // Laid out like application.yml; the ports are the two stand-in services
+    private static final String CONFIG = """
+        spring:
+          cloud:
+            gateway:
+              httpclient:
+                connect-timeout: 1500
+                response-timeout: 30s
+                pool:
+                  name: upstream
+                  max-connections: 3
+                  acquire-timeout: 300
+                  max-idle-time: 30s
+                  max-life-time: 10m
+                  eviction-interval: 10s
+              routes:
+                - id: user-service
+                  uri: http://localhost:%1$d
+                - id: shift-stream
+                  uri: http://localhost:%2$d
+                - id: scheduler-service
+                  uri: http://localhost:%2$d
+        app:
+          upstream:
+            h2c: %3$s
+            pending-acquire-max-count: 5
+            max-concurrent-streams: 50
+            routes:
+              user-service:
+                max-connections: 1
+                pending-acquire-max-count: 1
+              shift-stream:
+                max-connections: 4
+              scheduler-service:
+                max-connections: 2
+        """;
+
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<HttpClient> clients = new ArrayList<>();
+    private HttpServer userService;
+    private HttpServer scheduler;
+    private UpstreamPoolMetrics metrics;
+
+    @BeforeEach
+    void startServices() throws IOException {
+        userService = server();
+        scheduler = server();
+    }
+
+    @AfterEach
+    void stopServices() {
+        release.countDown();
+        clients.forEach(client -> client.configuration().connectionProvider().dispose());
+        userService.stop(0);
+        scheduler.stop(0);
+        handlers.shutdownNow();
+    }
+
+    @Test
+    void testPoolsAndTimeoutsFollowTheConfiguration() throws IOException {
+        HttpClient client = client(false);
+
+        ConnectionProvider pool = client.configuration().connectionProvider();
+        assertEquals(3, pool.maxConnections());
+        // Routes sharing an address share a pool, with the larger of their sizes
+        assertEquals(Map.of(address(userService), 1, address(scheduler), 4), pool.maxConnectionsPerHost());
+        assertEquals(1500, client.configuration().options().get(ChannelOption.CONNECT_TIMEOUT_MILLIS));
+        assertArrayEquals(new HttpProtocol[] {HttpProtocol.HTTP11}, client.configuration().protocols());
+    }
+
+    @Test
+    void testH2cWhenConfigured() throws IOException {
+        HttpClient client = client(true);
+
+        assertArrayEquals(new HttpProtocol[] {HttpProtocol.H2C}, client.configuration().protocols());
+        assertEquals(Map.of(address(userService), 1, address(scheduler), 4),
+            client.configuration().connectionProvider().maxConnectionsPerHost());
+    }
+
+    @Test
+    void testPendingAcquiresAreBoundedAndTimeOut() throws Exception {
+        HttpClient client = client(false);
+
+        CompletableFuture<String> holding = get(client, userService, "/slow").toFuture();
+        waitFor(() -> pool(userService) != null && pool(userService).active() == 1);
+        long queued = System.nanoTime();
+        CompletableFuture<String> waiting = get(client, userService, "/slow").toFuture();
+        waitFor(() -> pool(userService).pendingAcquires() == 1);
+
+        // The queue for this service holds one request; the next one fails at once
+        Throwable refused = assertThrows(RuntimeException.class,
+            () -> get(client, userService, "/").block(Duration.ofSeconds(5)));
+        assertEquals("PoolAcquirePendingLimitException", refused.getClass().getSimpleName());
+
+        Throwable timedOut = assertThrows(Exception.class, () -> waiting.get(5, TimeUnit.SECONDS)).getCause();
+        assertEquals("PoolAcquireTimeoutException", timedOut.getClass().getSimpleName());
+        assertTrue(System.nanoTime() - queued >= TimeUnit.MILLISECONDS.toNanos(300));
+
+        UpstreamPoolMetrics.Snapshot user = pool(userService);
+        assertEquals(1, user.maxConnections());
+        assertEquals(1, user.maxPendingAcquires());
+        assertEquals(1, user.connections());
+        assertEquals(0, user.pendingAcquires());
+
+        assertEquals("ok", get(client, scheduler, "/").block(Duration.ofSeconds(5)));
+        // The connection goes back to the pool just after the body is read
+        waitFor(() -> pool(scheduler).idle() == 1);
+        UpstreamPoolMetrics.Snapshot shifts = pool(scheduler);
+        assertEquals(4, shifts.maxConnections());
+        assertEquals(5, shifts.maxPendingAcquires());
+        assertEquals(0, shifts.active());
+
+        release.countDown();
+        assertEquals("ok", holding.get(5, TimeUnit.SECONDS));
+    }
+
+    private HttpClient client(boolean h2c) throws IOException {
+        String yaml = String.format(CONFIG, userService.getAddress().getPort(), scheduler.getAddress().getPort(), h2c);
+        Binder binder = new Binder(ConfigurationPropertySources.from(new YamlPropertySourceLoader()
+            .load("application.yml", new ByteArrayResource(yaml.getBytes(StandardCharsets.UTF_8)))));
+        HttpClientProperties properties = binder.bind("spring.cloud.gateway.httpclient", HttpClientProperties.class)
+            .get();
+        UpstreamPoolProperties upstream = binder.bind("app.upstream", UpstreamPoolProperties.class).get();
+        List<RouteDefinition> routes = binder.bind("spring.cloud.gateway.routes",
+            Bindable.listOf(RouteDefinition.class)).get();
+
+        ServerProperties server = new ServerProperties();
+        metrics = new UpstreamPoolMetrics();
+        UpstreamHttpClientFactory factory = new UpstreamHttpClientFactory(properties, server,
+            new HttpClientSslConfigurer(properties.getSsl(), server), List.of(), upstream, routes, metrics);
+        factory.setSingleton(false);
+        try {
+            HttpClient client = factory.getObject();
+            clients.add(client);
+            return client;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Mono<String> get(HttpClient client, HttpServer server, String path) {
+        return client.get()
+            .uri("http://localhost:" + server.getAddress().getPort() + path)
+            .responseContent()
+            .aggregate()
+            .asString();
+    }
+
+    private UpstreamPoolMetrics.Snapshot pool(HttpServer server) {
+        return metrics.snapshot().entrySet().stream()
+            .filter(entry -> entry.getKey().endsWith(":" + server.getAddress().getPort()))
+            .map(Map.Entry::getValue)
+            .findFirst()
+            .orElse(null);
+    }
+
+    private HttpServer server() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/slow")) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(handlers);
+        server.start();
+        return server;
+    }
+
+    private static SocketAddress address(HttpServer server) {
+        return InetSocketAddress.createUnresolved("localhost", server.getAddress().getPort());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting");
+            Thread.sleep(10);
+        }
+    }
+}
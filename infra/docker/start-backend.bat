@@ -10,8 +10,12 @@ docker-compose up -d
 echo Waiting for databases to start...
 timeout /t 10
 
+echo Installing shared module...
+cd ..\..\..\shared
+call mvn -q -DskipTests install
+
 echo Starting services...
-cd ..\..\user-service\devops_mirco_project
+cd ..\services\user-service\devops_mirco_project
 start "User Service" mvn spring-boot:run
 
 cd ..\..\item-service\devops_mirco_project
@@ -19,6 +19,11 @@ docker-compose up -d
 Write-Host "Waiting for databases to start..." -ForegroundColor Yellow
 Start-Sleep -Seconds 10
 
+# The services and the gateway build against the shared module
+Write-Host "Installing shared module..." -ForegroundColor Yellow
+Set-Location "$projectRoot\shared"
+mvn -q -DskipTests install
+
 # Start services in new windows
 Write-Host "Starting services..." -ForegroundColor Yellow
 
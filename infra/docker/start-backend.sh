@@ -21,6 +21,10 @@ docker compose up -d
 echo -e "\e[33mWaiting for databases to start...\e[0m"
 sleep 10
 
+# The services and the gateway build against the shared module
+echo -e "\e[33mInstalling shared module...\e[0m"
+(cd "$PROJECT_ROOT/shared" && mvn -q -DskipTests install) || exit
+
 # Start services in new terminals
 echo -e "\e[33mStarting services...\e[0m"
 
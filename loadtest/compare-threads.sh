@@ -0,0 +1,82 @@
+#!/bin/bash
+# Runs user-service and scheduler-service twice, on platform and then on
+# virtual threads, and drives GET /api/shifts and POST /api/auth/login with
+# `hey` at the same concurrency. Summaries and the scheduler's pinning report
+# land in loadtest/results/<timestamp>/.
+#
+# Needs JDK 21+, `hey` (https://github.com/rakyll/hey) and both databases up
+# (see infra/docker/start-backend.sh). Tunables: CONCURRENCY, DURATION, DB_POOL_SIZE.
+
+set -euo pipefail
+
+CONCURRENCY="${CONCURRENCY:-400}"
+DURATION="${DURATION:-60s}"
+export DB_POOL_SIZE="${DB_POOL_SIZE:-20}"
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(dirname "$SCRIPT_DIR")"
+RESULTS="$SCRIPT_DIR/results/$(date +%Y%m%d-%H%M%S)"
+USER_SERVICE="$PROJECT_ROOT/services/user-service/devops_mirco_project"
+SCHEDULER_SERVICE="$PROJECT_ROOT/services/item-service/devops_mirco_project"
+
+command -v hey >/dev/null || { echo "hey is not installed" >&2; exit 1; }
+JAVA_MAJOR=$(java -XshowSettings:properties -version 2>&1 | awk -F'= ' '/java.specification.version/ {print $2}')
+[ "${JAVA_MAJOR%%.*}" -ge 21 ] || { echo "JDK 21+ required for virtual threads, found $JAVA_MAJOR" >&2; exit 1; }
+
+mkdir -p "$RESULTS"
+(cd "$PROJECT_ROOT/shared" && mvn -q -DskipTests install)
+(cd "$USER_SERVICE" && mvn -q -DskipTests package)
+(cd "$SCHEDULER_SERVICE" && mvn -q -DskipTests package)
+
+PIDS=()
+stop_services() {
+  for pid in "${PIDS[@]}"; do kill "$pid" 2>/dev/null || true; done
+  for pid in "${PIDS[@]}"; do wait "$pid" 2>/dev/null || true; done
+  PIDS=()
+}
+trap stop_services EXIT
+
+wait_healthy() {
+  for _ in $(seq 1 90); do
+    curl -fs "$1/actuator/health" >/dev/null && return 0
+    sleep 1
+  done
+  echo "$1 did not become healthy" >&2
+  return 1
+}
+
+for virtual in false true; do
+  mode=$([ "$virtual" = true ] && echo virtual || echo platform)
+  echo "== $mode threads (concurrency $CONCURRENCY, $DURATION, pool $DB_POOL_SIZE)"
+
+  VIRTUAL_THREADS=$virtual java -jar "$USER_SERVICE"/target/user-service-0.0.1-SNAPSHOT.jar > "$RESULTS/user-service-$mode.log" 2>&1 &
+  PIDS+=($!)
+  VIRTUAL_THREADS=$virtual java -jar "$SCHEDULER_SERVICE"/target/devops_micro_project-1.0-SNAPSHOT.jar > "$RESULTS/scheduler-service-$mode.log" 2>&1 &
+  PIDS+=($!)
+  wait_healthy http://localhost:8082
+  wait_healthy http://localhost:8081
+
+  credentials="{\"email\":\"loadtest-$mode-$$@example.com\",\"password\":\"loadtest-password\"}"
+  curl -fs -X POST -H 'Content-Type: application/json' -d "$credentials" \
+    http://localhost:8082/api/auth/register >/dev/null
+
+  # Short warm-up so JIT compilation does not count against either mode
+  hey -z 10s -c 50 http://localhost:8081/api/shifts >/dev/null
+
+  hey -z "$DURATION" -c "$CONCURRENCY" \
+    http://localhost:8081/api/shifts > "$RESULTS/shifts-$mode.txt"
+  hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T application/json -d "$credentials" \
+    http://localhost:8082/api/auth/login > "$RESULTS/login-$mode.txt"
+  curl -fs http://localhost:8081/actuator/pinning > "$RESULTS/pinning-$mode.json" || true
+
+  stop_services
+done
+
+for endpoint in shifts login; do
+  for mode in platform virtual; do
+    printf '%-8s %-9s ' "$endpoint" "$mode"
+    grep -E 'Requests/sec|99% in' "$RESULTS/$endpoint-$mode.txt" | tr -s ' ' | tr '\n' ' '
+    echo
+  done
+done
+echo "Full output in $RESULTS"
@@ -0,0 +1,54 @@
+#!/bin/bash
+# Compares the scheduler service's regular jar with the fast-startup build
+# (Spring AOT + CDS archive, see the fast-startup profile in its pom.xml).
+# For each start it records time from launch until GET /api/shifts first
+# answers 200, and the process RSS at that point.
+#
+# Needs the scheduler database up (infra/docker/start-backend.sh). The regular
+# jar runs first so Flyway has migrated before the fast-startup runs, which do
+# not migrate. Tunables: RUNS.
+
+set -euo pipefail
+
+RUNS="${RUNS:-5}"
+URL=http://localhost:8081/api/shifts
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(dirname "$SCRIPT_DIR")"
+SERVICE="$PROJECT_ROOT/services/item-service/devops_mirco_project"
+RESULTS="$SCRIPT_DIR/results/startup-$(date +%Y%m%d-%H%M%S)"
+JAR=devops_micro_project-1.0-SNAPSHOT.jar
+mkdir -p "$RESULTS/baseline"
+
+(cd "$PROJECT_ROOT/shared" && mvn -q -DskipTests install)
+cd "$SERVICE"
+mvn -q -DskipTests package
+cp "target/$JAR" "$RESULTS/baseline/"
+mvn -q -DskipTests -Pfast-startup package
+
+now_ms() { date +%s%3N; }
+
+measure() {
+  local name=$1 dir=$2
+  shift 2
+  for run in $(seq 1 "$RUNS"); do
+    local start pid ready rss
+    start=$(now_ms)
+    (cd "$dir" && exec java "$@" -jar "$JAR") > "$RESULTS/$name-$run.log" 2>&1 &
+    pid=$!
+    until curl -fs -o /dev/null "$URL"; do
+      kill -0 "$pid" 2>/dev/null || { echo "$name run $run exited, see $RESULTS/$name-$run.log" >&2; exit 1; }
+      sleep 0.05
+    done
+    ready=$(( $(now_ms) - start ))
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    printf '%-13s run %d  first request %6d ms  rss %7d KB\n' "$name" "$run" "$ready" "$rss" | tee -a "$RESULTS/summary.txt"
+  done
+}
+
+measure baseline "$RESULTS/baseline"
+measure fast-startup "$SERVICE/target/fast-startup" \
+  -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup
+echo "Full output in $RESULTS"
@@ -0,0 +1,24 @@
+#!/bin/bash
+# Packages the gateway, both services and the harness, then runs the
+# end-to-end load test: embedded Postgres, seeded data, open-model journeys
+# (login -> me -> shifts by date -> unassigned -> claim) through the gateway.
+# Arguments are key=value settings, e.g.
+#   loadtest/run-e2e.sh rate=100 duration=300 workers=5000 shifts=500000
+# Defaults: rate=50 journeys/s, warmup=30 s, duration=120 s, workers=2000,
+# shifts=200000 over days=90, maxInFlight=2000, pgPort=5499.
+# Ports 8080-8082 must be free. The report and the HDR histograms land in
+# loadtest/results/e2e-<timestamp>/ next to each service's log. Variables the
+# services read (VIRTUAL_THREADS, DB_POOL_SIZE, ...) are passed through.
+
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(dirname "$SCRIPT_DIR")"
+
+(cd "$PROJECT_ROOT/shared" && mvn -q -DskipTests install)
+(cd "$PROJECT_ROOT/services/user-service/devops_mirco_project" && mvn -q -DskipTests package)
+(cd "$PROJECT_ROOT/services/item-service/devops_mirco_project" && mvn -q -DskipTests package)
+(cd "$PROJECT_ROOT/gateway/gate" && mvn -q -DskipTests package)
+(cd "$SCRIPT_DIR" && mvn -q package)
+
+java -jar "$SCRIPT_DIR/target/loadtest.jar" projectRoot="$PROJECT_ROOT" "$@"
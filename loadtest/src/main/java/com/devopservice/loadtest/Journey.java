@@ -0,0 +1,146 @@
+package com.devopservice.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One user's visit through the gateway: log in, look up their worker, browse a
+ * day's shifts and the unassigned ones, then claim a shift. Every step is
+ * timed from when it became due, the first one from the arrival the load
+ * generator scheduled, so a backed-up generator shows up as latency instead of
+ * silently lowering the offered load.
+ */
+final class Journey {
+
+    static final String LOGIN = "POST /api/auth/login";
+    static final String ME = "GET /api/scheduler/me";
+    static final String SHIFTS_BY_DATE = "GET /api/shifts/date/{date}";
+    static final String UNASSIGNED = "GET /api/shifts/unassigned";
+    static final String CLAIM = "POST /api/shift-assignments/claim";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final ObjectMapper mapper;
+    private final String baseUrl;
+    private final int users;
+    private final LocalDate firstDay;
+    private final int days;
+
+    Journey(HttpClient client, ObjectMapper mapper, String baseUrl, int users, LocalDate firstDay, int days) {
+        this.client = client;
+        this.mapper = mapper;
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.firstDay = firstDay;
+        this.days = days;
+    }
+
+    CompletableFuture<Void> run(Stats stats, long intendedStartNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int user = 1 + random.nextInt(users);
+        LocalDate day = firstDay.plusDays(random.nextInt(days));
+
+        Session session = new Session();
+        return step(stats, LOGIN, intendedStartNanos, post("/api/auth/login",
+                Map.of("email", Settings.email(user), "password", Settings.PASSWORD), null))
+            .thenCompose(login -> {
+                session.token = login.path("accessToken").asText();
+                session.userId = login.path("userId").asText();
+                return step(stats, ME, System.nanoTime(), get("/api/scheduler/me", session));
+            })
+            .thenCompose(me -> {
+                session.workerId = me.path("id").asText();
+                return step(stats, SHIFTS_BY_DATE, System.nanoTime(), get("/api/shifts/date/" + day, session));
+            })
+            .thenCompose(shifts -> {
+                session.shiftId = shifts.isEmpty() ? null
+                    : shifts.get(ThreadLocalRandom.current().nextInt(shifts.size())).path("id").asText();
+                return step(stats, UNASSIGNED, System.nanoTime(), get("/api/shifts/unassigned", session));
+            })
+            .thenCompose(unassigned -> {
+                if (session.shiftId == null) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                return step(stats, CLAIM, System.nanoTime(), post("/api/shift-assignments/claim",
+                    Map.of("shiftId", session.shiftId, "workerId", session.workerId), session));
+            })
+            .handle((ignored, error) -> {
+                // A failed step has been counted already; the rest of this journey is skipped
+                if (error == null) {
+                    stats.completedJourneys.increment();
+                }
+                return null;
+            });
+    }
+
+    private CompletableFuture<JsonNode> step(Stats stats, String endpoint, long dueNanos, HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .handle((response, error) -> {
+                long latency = System.nanoTime() - dueNanos;
+                if (error != null) {
+                    stats.record(endpoint, latency, Stats.Outcome.ERROR);
+                    throw new CompletionException(error);
+                }
+                int status = response.statusCode();
+                if (status == 409) {
+                    stats.record(endpoint, latency, Stats.Outcome.CONFLICT);
+                    return mapper.nullNode();
+                }
+                if (status >= 300) {
+                    stats.record(endpoint, latency, Stats.Outcome.ERROR);
+                    throw new CompletionException(new IllegalStateException(endpoint + " answered " + status));
+                }
+                stats.record(endpoint, latency, Stats.Outcome.OK);
+                try {
+                    return response.body().length == 0 ? mapper.nullNode() : mapper.readTree(response.body());
+                } catch (IOException ex) {
+                    throw new CompletionException(ex);
+                }
+            });
+    }
+
+    private HttpRequest get(String path, Session session) {
+        return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)), session).GET().build();
+    }
+
+    private HttpRequest post(String path, Map<String, String> body, Session session) {
+        try {
+            return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)), session)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder request, Session session) {
+        request.timeout(REQUEST_TIMEOUT);
+        if (session != null) {
+            // The gateway does not derive X-User-Id from the token yet, so send it as a client would after login
+            request.header("Authorization", "Bearer " + session.token).header("X-User-Id", session.userId);
+        }
+        return request;
+    }
+
+    private static final class Session {
+        String token;
+        String userId;
+        String workerId;
+        String shiftId;
+    }
+}
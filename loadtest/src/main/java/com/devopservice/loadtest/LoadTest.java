@@ -0,0 +1,126 @@
+package com.devopservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test. Starts an embedded Postgres, the user service, the
+ * scheduler service and the gateway from their packaged jars, seeds both
+ * databases, then drives {@link Journey journeys} through the gateway with an
+ * {@link OpenModelLoad open-model} generator and writes a {@link Report}.
+ * Environment variables the services read (VIRTUAL_THREADS, DB_POOL_SIZE,
+ * ...) are passed through. See loadtest/run-e2e.sh.
+ */
+public final class LoadTest {
+
+    private static final String USER_SERVICE = "http://localhost:8082";
+    private static final String SCHEDULER_SERVICE = "http://localhost:8081";
+    private static final String GATEWAY = "http://localhost:8080";
+    private static final String USER_SERVICE_JAR =
+        "services/user-service/devops_mirco_project/target/user-service-0.0.1-SNAPSHOT.jar";
+    private static final String SCHEDULER_SERVICE_JAR =
+        "services/item-service/devops_mirco_project/target/devops_micro_project-1.0-SNAPSHOT.jar";
+    private static final String GATEWAY_JAR = "gateway/gate/target/gate-1.0-SNAPSHOT.jar";
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        Path runDir = settings.resultsDir()
+            .resolve("e2e-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Files.createDirectories(runDir);
+        Path root = settings.projectRoot();
+        LocalDate firstDay = LocalDate.now();
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().setPort(settings.pgPort()).start()) {
+            Deque<ServiceProcess> running = new ArrayDeque<>();
+            try {
+                try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE DATABASE users_db");
+                    statement.execute("CREATE DATABASE scheduler_db");
+                }
+                Path userJar = root.resolve(USER_SERVICE_JAR);
+                Path schedulerJar = root.resolve(SCHEDULER_SERVICE_JAR);
+                Path gatewayJar = root.resolve(GATEWAY_JAR);
+                Map<String, String> usersDb = database(postgres, "users_db");
+                Map<String, String> schedulerDb = database(postgres, "scheduler_db");
+
+                // Both services create their schemas on startup, so seeding waits for the first start
+                ServiceProcess users = ServiceProcess.start("user-service", userJar, usersDb, List.of(), runDir);
+                running.push(users);
+                ServiceProcess scheduler =
+                    ServiceProcess.start("scheduler-service", schedulerJar, schedulerDb, List.of(), runDir);
+                running.push(scheduler);
+                users.awaitUp(client, USER_SERVICE + "/actuator/health", false);
+                scheduler.awaitUp(client, SCHEDULER_SERVICE + "/actuator/health", false);
+
+                Seeder.seedUsers(postgres.getDatabase("postgres", "users_db"), settings.workers());
+                Seeder.seedScheduler(postgres.getDatabase("postgres", "scheduler_db"),
+                    settings.workers(), settings.shifts(), firstDay, settings.days());
+
+                // Restart so the roster and caches the scheduler builds at startup see the seeded data
+                running.remove(scheduler);
+                scheduler.stop();
+                scheduler = ServiceProcess.start("scheduler-service", schedulerJar, schedulerDb, List.of(), runDir);
+                running.push(scheduler);
+                scheduler.awaitUp(client, SCHEDULER_SERVICE + "/actuator/health", false);
+
+                ServiceProcess gateway = ServiceProcess.start("gateway", gatewayJar, Map.of(), List.of(
+                    // Its per-request DEBUG logging would dominate the latencies
+                    "--logging.level.org.springframework.cloud.gateway=INFO",
+                    "--logging.level.org.springframework.web=INFO"), runDir);
+                running.push(gateway);
+                gateway.awaitUp(client, GATEWAY + "/", true);
+
+                Journey journey = new Journey(client, new ObjectMapper(), GATEWAY, settings.workers(), firstDay,
+                    settings.days());
+                OpenModelLoad load = new OpenModelLoad(journey, settings.rate(), settings.maxInFlight());
+
+                System.out.printf("Warming up for %d s%n", settings.warmup().toSeconds());
+                load.run(new Stats(), settings.warmup());
+                load.drain(DRAIN_TIMEOUT);
+
+                System.out.printf("Measuring for %d s at %.1f journeys/s%n", settings.duration().toSeconds(),
+                    settings.rate());
+                Stats stats = new Stats();
+                load.run(stats, settings.duration());
+                load.drain(DRAIN_TIMEOUT);
+                stats.finish();
+                Report.write(stats, settings, runDir);
+            } finally {
+                // Services first, so none is left talking to a stopped database
+                while (!running.isEmpty()) {
+                    running.pop().stop();
+                }
+            }
+        }
+    }
+
+    private static Map<String, String> database(EmbeddedPostgres postgres, String name) {
+        return Map.of(
+            "DB_URL", postgres.getJdbcUrl("postgres", name),
+            "DB_USER", "postgres",
+            "DB_PASS", "postgres");
+    }
+}
@@ -0,0 +1,59 @@
+package com.devopservice.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: journeys start on a Poisson schedule at the target rate
+ * whether or not earlier ones have finished, the way independent users
+ * arrive. A closed loop of N virtual users would instead slow down with the
+ * system and hide its queueing. Arrivals beyond {@code maxInFlight} are
+ * dropped and counted, so an overloaded system cannot exhaust the harness.
+ */
+final class OpenModelLoad {
+
+    private final Journey journey;
+    private final double ratePerSecond;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenModelLoad(Journey journey, double ratePerSecond, int maxInFlight) {
+        this.journey = journey;
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /** Generates arrivals for {@code duration}; journeys still running at the end keep recording into {@code stats}. */
+    void run(Stats stats, Duration duration) {
+        long meanGapNanos = (long) (1e9 / ratePerSecond);
+        long end = System.nanoTime() + duration.toNanos();
+        long next = System.nanoTime();
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            stats.journeys.increment();
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                stats.dropped.increment();
+            } else {
+                CompletableFuture<Void> started = journey.run(stats, next);
+                started.whenComplete((ignored, error) -> inFlight.decrementAndGet());
+            }
+            // Exponential gaps; the schedule advances from the intended time, not from when we woke up
+            next += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+        }
+    }
+
+    /** Waits up to {@code timeout} for in-flight journeys to finish. */
+    void drain(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.devopservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prints throughput and p50/p99/p99.9/max latency per endpoint and writes each
+ * endpoint's full HDR histogram as an {@code .hgrm} file (milliseconds), which
+ * the HdrHistogram plotter at hdrhistogram.github.io can overlay across runs.
+ */
+final class Report {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+    private static final List<String> ORDER = List.of(
+        Journey.LOGIN, Journey.ME, Journey.SHIFTS_BY_DATE, Journey.UNASSIGNED, Journey.CLAIM);
+
+    private Report() {
+    }
+
+    static void write(Stats stats, Settings settings, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(dir.resolve("summary.txt")), true)) {
+            print(stats, settings, summary);
+        }
+        print(stats, settings, System.out);
+        for (Map.Entry<String, Stats.Endpoint> entry : sorted(stats).entrySet()) {
+            Path file = dir.resolve(fileName(entry.getKey()) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().latency.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        System.out.println("Histograms in " + dir);
+    }
+
+    static void print(Stats stats, Settings settings, PrintStream out) {
+        double seconds = stats.elapsedSeconds();
+        out.printf("Offered %.1f journeys/s for %.0f s: %d started, %d completed, %d dropped at %d in flight%n",
+            settings.rate(), seconds, stats.journeys.sum(), stats.completedJourneys.sum(), stats.dropped.sum(),
+            settings.maxInFlight());
+        out.printf("%-36s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "req/s", "errors", "409s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Stats.Endpoint> entry : sorted(stats).entrySet()) {
+            Stats.Endpoint endpoint = entry.getValue();
+            Histogram latency = endpoint.latency;
+            out.printf("%-36s %9d %8.1f %8d %9d %9.1f %9.1f %9.1f %9.1f%n",
+                entry.getKey(), endpoint.count(), endpoint.count() / seconds, endpoint.errors.sum(),
+                endpoint.conflicts.sum(), millis(latency, 50), millis(latency, 99), millis(latency, 99.9),
+                latency.getMaxValue() / MICROS_PER_MILLI);
+        }
+    }
+
+    private static Map<String, Stats.Endpoint> sorted(Stats stats) {
+        Map<String, Stats.Endpoint> sorted = new TreeMap<>(
+            Comparator.comparingInt(Report::rank).thenComparing(Comparator.naturalOrder()));
+        sorted.putAll(stats.endpoints);
+        return sorted;
+    }
+
+    private static int rank(String endpoint) {
+        int rank = ORDER.indexOf(endpoint);
+        return rank < 0 ? ORDER.size() : rank;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    static String fileName(String endpoint) {
+        return endpoint.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+    }
+}
@@ -0,0 +1,122 @@
+package com.devopservice.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Bulk-loads the databases once the services have created their schemas.
+ * Rows are generated in SQL with ids derived from their ordinal
+ * ({@code md5('user-' || i)::uuid}), so user {@code i}, its worker and its
+ * login email line up without round-tripping ids through the harness.
+ */
+final class Seeder {
+
+    private static final String[] ROLES = {"floor", "floor-manager", "administration", "manager"};
+
+    private Seeder() {
+    }
+
+    /** One account per worker, all sharing {@link Settings#PASSWORD}. */
+    static void seedUsers(DataSource users, int count) throws SQLException {
+        // Hashed once: BCrypt at the service's default strength would take minutes for thousands of rows
+        String hash = new BCryptPasswordEncoder().encode(Settings.PASSWORD);
+        try (Connection connection = users.getConnection();
+             PreparedStatement insert = connection.prepareStatement("""
+                 INSERT INTO users (id, email, password_hash, created_at)
+                 SELECT md5('user-' || i)::uuid, 'user-' || i || '@loadtest.local', ?, now()
+                 FROM generate_series(1, ?) i
+                 ON CONFLICT DO NOTHING""")) {
+            insert.setString(1, hash);
+            insert.setInt(2, count);
+            System.out.printf("Seeded %d users%n", insert.executeUpdate());
+            analyze(connection);
+        }
+    }
+
+    /**
+     * Workers spread over the roles, shifts spread over {@code days} days from
+     * {@code firstDay} with one to three seats each, and the first seat of
+     * every third-or-so shift already taken.
+     */
+    static void seedScheduler(DataSource scheduler, int workers, int shifts, LocalDate firstDay, int days)
+        throws SQLException {
+        try (Connection connection = scheduler.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO worker (id, name, role, user_id)
+                SELECT md5('worker-' || i)::uuid, 'Worker ' || i, (?::text[])[1 + i % 4], md5('user-' || i)::uuid
+                FROM generate_series(1, ?) i""")) {
+                insert.setArray(1, connection.createArrayOf("text", ROLES));
+                insert.setInt(2, workers);
+                System.out.printf("Seeded %d workers%n", insert.executeUpdate());
+            }
+            try (PreparedStatement partitions = connection.prepareStatement("SELECT create_shift_partitions(?, ?)")) {
+                // Month partitions for the whole range, so no seeded shift ends up in the default partition
+                partitions.setDate(1, Date.valueOf(firstDay));
+                partitions.setDate(2, Date.valueOf(firstDay.plusDays(days)));
+                partitions.execute();
+            }
+            try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO shift (id, date, required_role, start_time, end_time, capacity)
+                SELECT md5('shift-' || i)::uuid, d.day, (?::text[])[1 + i % 4],
+                       d.day + (6 + (i % 3) * 8) * interval '1 hour',
+                       d.day + (14 + (i % 3) * 8) * interval '1 hour',
+                       1 + i % 3
+                FROM generate_series(1, ?) i
+                CROSS JOIN LATERAL (SELECT ?::date + i % ? AS day) d""")) {
+                insert.setArray(1, connection.createArrayOf("text", ROLES));
+                insert.setInt(2, shifts);
+                insert.setDate(3, Date.valueOf(firstDay));
+                insert.setInt(4, days);
+                System.out.printf("Seeded %d shifts%n", insert.executeUpdate());
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("""
+                    INSERT INTO shift_slot (shift_id, shift_date, slot_no)
+                    SELECT s.id, s.date, n FROM shift s CROSS JOIN LATERAL generate_series(1, s.capacity) n""");
+            }
+            try (PreparedStatement update = connection.prepareStatement("""
+                UPDATE shift_slot ss SET worker_id = md5('worker-' || (1 + i % ?))::uuid, claimed_at = now()
+                FROM generate_series(1, ?) i
+                WHERE i % 10 < 3 AND ss.shift_id = md5('shift-' || i)::uuid AND ss.slot_no = 1""")) {
+                update.setInt(1, workers);
+                update.setInt(2, shifts);
+                System.out.printf("Pre-assigned %d shifts%n", update.executeUpdate());
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("""
+                    INSERT INTO shiftassignment (id, shift_id, shift_date, worker_id, assigned_at)
+                    SELECT md5(shift_id::text || worker_id::text)::uuid, shift_id, shift_date, worker_id, claimed_at
+                    FROM shift_slot WHERE worker_id IS NOT NULL""");
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("""
+                    INSERT INTO worker_week_hours (worker_id, iso_week, minutes)
+                    SELECT a.worker_id,
+                           (EXTRACT(ISOYEAR FROM s.date) * 100 + EXTRACT(WEEK FROM s.date))::INTEGER,
+                           SUM(GREATEST(0, FLOOR(EXTRACT(EPOCH FROM (s.end_time - s.start_time)) / 60)))::INTEGER
+                    FROM shiftassignment a JOIN shift s ON s.id = a.shift_id AND s.date = a.shift_date
+                    GROUP BY 1, 2""");
+            }
+            connection.commit();
+            analyze(connection);
+        }
+    }
+
+    private static void analyze(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.devopservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Harness settings as {@code key=value} arguments, e.g.
+ * {@code rate=100 duration=300 workers=5000}. Every key has a default.
+ */
+record Settings(
+    Path projectRoot,
+    Path resultsDir,
+    double rate,
+    Duration warmup,
+    Duration duration,
+    int maxInFlight,
+    int workers,
+    int shifts,
+    int days,
+    int pgPort) {
+
+    static final String PASSWORD = "loadtest";
+
+    static String email(int user) {
+        return "user-" + user + "@loadtest.local";
+    }
+
+    static Settings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 1) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        Path projectRoot = Path.of(values.getOrDefault("projectRoot", "..")).toAbsolutePath().normalize();
+        Settings settings = new Settings(
+            projectRoot,
+            Path.of(values.getOrDefault("results", projectRoot.resolve("loadtest/results").toString())),
+            Double.parseDouble(values.getOrDefault("rate", "50")),
+            Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "30"))),
+            Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "120"))),
+            Integer.parseInt(values.getOrDefault("maxInFlight", "2000")),
+            Integer.parseInt(values.getOrDefault("workers", "2000")),
+            Integer.parseInt(values.getOrDefault("shifts", "200000")),
+            Integer.parseInt(values.getOrDefault("days", "90")),
+            Integer.parseInt(values.getOrDefault("pgPort", "5499")));
+        if (settings.rate() <= 0 || settings.workers() < 1 || settings.shifts() < 1 || settings.days() < 1) {
+            throw new IllegalArgumentException("rate, workers, shifts and days must be positive");
+        }
+        return settings;
+    }
+}
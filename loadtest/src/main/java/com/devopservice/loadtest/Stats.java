@@ -0,0 +1,59 @@
+package com.devopservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Latency histograms and outcome counts per endpoint for one phase (warm-up or measurement). */
+final class Stats {
+
+    /** Microseconds, up to a minute, at three significant digits. */
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    final LongAdder journeys = new LongAdder();
+    final LongAdder completedJourneys = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+    private volatile long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    void record(String endpoint, long latencyNanos, Outcome outcome) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.latency.recordValue(Math.min(MAX_MICROS, Math.max(0, latencyNanos / 1_000)));
+        (switch (outcome) {
+            case OK -> stats.ok;
+            case CONFLICT -> stats.conflicts;
+            case ERROR -> stats.errors;
+        }).increment();
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    double elapsedSeconds() {
+        return ((endNanos == 0 ? System.nanoTime() : endNanos) - startNanos) / 1e9;
+    }
+
+    enum Outcome {
+        OK,
+        /** An expected refusal, e.g. claiming a shift someone else just filled. */
+        CONFLICT,
+        ERROR
+    }
+
+    static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(MAX_MICROS, 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        long count() {
+            return ok.sum() + conflicts.sum() + errors.sum();
+        }
+    }
+}
@@ -8,6 +8,6 @@ public class HomeController {
     
     @GetMapping("/")
     public String home() {
-        return "Scheduler Service is running! Available endpoints: /api/workers, /api/shifts, /api/shift-assignments, /api/roles, /actuator/health";
+        return "Scheduler Service is running! Available endpoints: /api/workers, /api/shifts, /api/shift-assignments, /api/roles, /api/roster, /api/swaps, /actuator/health";
     }
 }
\ No newline at end of file
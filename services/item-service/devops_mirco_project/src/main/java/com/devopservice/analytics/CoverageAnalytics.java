@@ -0,0 +1,207 @@
+package com.devopservice.analytics;
+
+import com.devopservice.dto.CoverageReport;
+import com.devopservice.events.SchedulerChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coverage and staffing figures for the admin dashboard. Counting and duration
+ * sums are grouped in SQL per (day, role) cell or per worker; the roll-up of
+ * cells into the requested dimension runs over dense, int-keyed arrays. There
+ * is at most one cell per day and role, so a year's report is a few thousand
+ * additions. Reports are cached briefly and dropped whenever the schedule
+ * changes.
+ */
+@Component
+public class CoverageAnalytics {
+
+    public enum GroupBy { ROLE, DAY, WORKER }
+
+    private static final int MAX_CACHED_REPORTS = 256;
+    private static final int SHIFTS = 0;
+    private static final int FILLED = 1;
+    private static final int MINUTES = 2;
+
+    private static final String CELLS_SQL = """
+        SELECT s.date, s.required_role,
+               COUNT(*) AS shifts,
+               COUNT(*) FILTER (WHERE a.assigned >= s.capacity) AS filled,
+               COALESCE(SUM(a.assigned * EXTRACT(EPOCH FROM (s.end_time - s.start_time)) / 60), 0) AS assigned_minutes
+        FROM shift s
+        CROSS JOIN LATERAL (SELECT COUNT(*) AS assigned FROM shiftassignment x WHERE x.shift_id = s.id AND x.shift_date = s.date) a
+        WHERE s.date BETWEEN ? AND ?
+        GROUP BY s.date, s.required_role
+        """;
+
+    private static final String WORKERS_SQL = """
+        SELECT a.worker_id, w.name, COUNT(*) AS shifts,
+               SUM(EXTRACT(EPOCH FROM (s.end_time - s.start_time)) / 60) AS assigned_minutes
+        FROM shiftassignment a
+        JOIN shift s ON s.id = a.shift_id AND s.date = a.shift_date
+        JOIN worker w ON w.id = a.worker_id
+        WHERE a.shift_date BETWEEN ? AND ? AND s.date BETWEEN ? AND ?
+        GROUP BY a.worker_id, w.name
+        ORDER BY assigned_minutes DESC
+        """;
+
+    private record Key(LocalDate from, LocalDate to, GroupBy groupBy) {}
+
+    private record Cached(long expiresAt, CompletableFuture<CoverageReport> report, ReentrantLock lock) {
+        Cached(long expiresAt, CompletableFuture<CoverageReport> report) {
+            this(expiresAt, report, new ReentrantLock());
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlNanos;
+    private final Map<Key, Cached> cache = new ConcurrentHashMap<>();
+
+    public CoverageAnalytics(JdbcTemplate jdbcTemplate,
+                             @Value("${app.scheduler.analytics.cache-ttl-seconds:30}") long ttlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    public CoverageReport coverage(LocalDate from, LocalDate to, GroupBy groupBy) {
+        Key key = new Key(from, to, groupBy);
+        long now = System.nanoTime();
+        if (cache.size() > MAX_CACHED_REPORTS) {
+            cache.values().removeIf(c -> c.expiresAt - now <= 0);
+        }
+        // Concurrent callers for the same key share one computation
+        Cached cached = cache.compute(key, (k, existing) ->
+            existing != null && existing.expiresAt - now > 0 && !existing.report.isCompletedExceptionally()
+                ? existing
+                : new Cached(now + ttlNanos, new CompletableFuture<>()));
+        if (!cached.report.isDone()) {
+            // A lock rather than a monitor: the query would otherwise pin a virtual thread's carrier
+            cached.lock.lock();
+            try {
+                if (!cached.report.isDone()) {
+                    try {
+                        cached.report.complete(compute(from, to, groupBy));
+                    } catch (RuntimeException ex) {
+                        cached.report.completeExceptionally(ex);
+                        cache.remove(key, cached);
+                        throw ex;
+                    }
+                }
+            } finally {
+                cached.lock.unlock();
+            }
+        }
+        try {
+            return cached.report.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException re ? re : new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void invalidate(SchedulerChangeEvent event) {
+        clear();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private CoverageReport compute(LocalDate from, LocalDate to, GroupBy groupBy) {
+        String name = groupBy.name().toLowerCase(Locale.ROOT);
+        if (groupBy == GroupBy.WORKER) {
+            List<CoverageReport.Bucket> buckets = jdbcTemplate.query(WORKERS_SQL, (rs, i) ->
+                new CoverageReport.Bucket(rs.getString("worker_id"), rs.getString("name"),
+                    rs.getLong("shifts"), null, null, null, rs.getDouble("assigned_minutes") / 60.0),
+                from, to, from, to);
+            return new CoverageReport(from, to, name, buckets);
+        }
+
+        int span = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        List<String> roles = new ArrayList<>();
+        Map<String, Integer> roleIndex = new HashMap<>();
+        Cells cells = new Cells();
+        jdbcTemplate.query(CELLS_SQL, rs -> {
+            String role = rs.getString("required_role");
+            int roleKey = roleIndex.computeIfAbsent(role, r -> {
+                roles.add(r);
+                return roles.size() - 1;
+            });
+            int dayKey = (int) ChronoUnit.DAYS.between(from, rs.getObject("date", LocalDate.class));
+            cells.add(groupBy == GroupBy.DAY ? dayKey : roleKey,
+                rs.getLong("shifts"), rs.getLong("filled"), Math.round(rs.getDouble("assigned_minutes")));
+        }, from, to);
+
+        int keyCount = groupBy == GroupBy.DAY ? span : roles.size();
+        long[][] totals = rollUp(cells, keyCount);
+        List<CoverageReport.Bucket> buckets = new ArrayList<>();
+        for (int k = 0; k < keyCount; k++) {
+            long shifts = totals[SHIFTS][k];
+            if (shifts == 0) {
+                continue;
+            }
+            long filled = totals[FILLED][k];
+            String label = groupBy == GroupBy.DAY ? from.plusDays(k).toString() : roles.get(k);
+            buckets.add(new CoverageReport.Bucket(label, label, shifts, filled, shifts - filled,
+                (double) filled / shifts, totals[MINUTES][k] / 60.0));
+        }
+        if (groupBy == GroupBy.ROLE) {
+            buckets.sort((a, b) -> a.key().compareTo(b.key()));
+        }
+        return new CoverageReport(from, to, name, buckets);
+    }
+
+    /** Sums each column by key into dense arrays. */
+    static long[][] rollUp(Cells cells, int keyCount) {
+        long[][] totals = new long[3][keyCount];
+        for (int i = 0; i < cells.size; i++) {
+            int key = cells.keys[i];
+            totals[SHIFTS][key] += cells.shifts[i];
+            totals[FILLED][key] += cells.filled[i];
+            totals[MINUTES][key] += cells.minutes[i];
+        }
+        return totals;
+    }
+
+    /** Column-oriented (key, shifts, filled, minutes) cells with primitive storage. */
+    static final class Cells {
+        int size;
+        int[] keys = new int[64];
+        long[] shifts = new long[64];
+        long[] filled = new long[64];
+        long[] minutes = new long[64];
+
+        void add(int key, long shiftCount, long filledCount, long assignedMinutes) {
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                shifts = Arrays.copyOf(shifts, capacity);
+                filled = Arrays.copyOf(filled, capacity);
+                minutes = Arrays.copyOf(minutes, capacity);
+            }
+            keys[size] = key;
+            shifts[size] = shiftCount;
+            filled[size] = filledCount;
+            minutes[size] = assignedMinutes;
+            size++;
+        }
+    }
+}
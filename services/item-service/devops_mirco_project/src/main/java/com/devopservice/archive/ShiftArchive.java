@@ -0,0 +1,225 @@
+package com.devopservice.archive;
+
+import com.devopservice.dto.ArchivedShift;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Months of shifts moved out of the database, one gzipped JSON-lines file per
+ * month ({@code shifts-2024-01.jsonl.gz}) with a shift and its assignments on
+ * each line, in date and start time order. A month is written under a
+ * temporary name, fsynced and renamed into place, so a file is either the
+ * whole month or absent. Writing a month that already has a file merges the
+ * two, the newly written version of a shift winning, so a month archived
+ * twice keeps the shifts of both runs.
+ */
+@Component
+public class ShiftArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(ShiftArchive.class);
+
+    private static final String PREFIX = "shifts-";
+    private static final String SUFFIX = ".jsonl.gz";
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final Comparator<ArchivedShift> FILE_ORDER = Comparator.comparing(ArchivedShift::date)
+        .thenComparing(ArchivedShift::startTime)
+        .thenComparing(ArchivedShift::id);
+
+    private final Path directory;
+    // Its own mapper: the file format must not follow changes to the web layer's JSON settings
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    public ShiftArchive(@Value("${app.scheduler.archive.dir:data/archive}") String directory) throws IOException {
+        this.directory = Path.of(directory);
+        Files.createDirectories(this.directory);
+    }
+
+    public NavigableSet<YearMonth> months() throws IOException {
+        NavigableSet<YearMonth> months = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(f -> f.getFileName().toString())
+                .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                .forEach(name -> months.add(YearMonth.parse(name.substring(PREFIX.length(), name.length() - SUFFIX.length()))));
+        }
+        return months;
+    }
+
+    /** Starts writing the month; nothing is visible to readers until {@link MonthWriter#commit()}. */
+    public MonthWriter write(YearMonth month) throws IOException {
+        return new MonthWriter(month);
+    }
+
+    /** Archived shifts dated {@code from} to {@code to}, both inclusive, in date and start time order. */
+    public List<ArchivedShift> read(LocalDate from, LocalDate to) throws IOException {
+        List<ArchivedShift> shifts = new ArrayList<>();
+        for (YearMonth month : months().subSet(YearMonth.from(from), true, YearMonth.from(to), true)) {
+            scan(month, shift -> {
+                if (shift.date().isAfter(to)) {
+                    return false;
+                }
+                if (!shift.date().isBefore(from)) {
+                    shifts.add(shift);
+                }
+                return true;
+            });
+        }
+        return shifts;
+    }
+
+    /** Parses the whole month back and returns how many shifts it holds. */
+    public int count(YearMonth month) throws IOException {
+        int[] count = new int[1];
+        scan(month, shift -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    private void scan(YearMonth month, Predicate<ArchivedShift> visitor) throws IOException {
+        scan(file(month), visitor);
+    }
+
+    private void scan(Path path, Predicate<ArchivedShift> visitor) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path), BUFFER_BYTES), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!visitor.test(objectMapper.readValue(line, ArchivedShift.class))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Path file(YearMonth month) {
+        return directory.resolve(PREFIX + month + SUFFIX);
+    }
+
+    public final class MonthWriter implements Closeable {
+        private final YearMonth month;
+        private final Path target;
+        private final Path temporary;
+        private FileOutputStream file;
+        private GZIPOutputStream gzip;
+        private BufferedWriter writer;
+        private int count;
+        private int total;
+        private boolean committed;
+
+        private MonthWriter(YearMonth month) throws IOException {
+            this.month = month;
+            target = file(month);
+            temporary = directory.resolve(PREFIX + month + SUFFIX + ".tmp");
+            open();
+        }
+
+        private void open() throws IOException {
+            file = new FileOutputStream(temporary.toFile());
+            gzip = new GZIPOutputStream(file, BUFFER_BYTES);
+            writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_BYTES);
+        }
+
+        public void append(ArchivedShift shift) throws IOException {
+            writer.write(objectMapper.writeValueAsString(shift));
+            writer.newLine();
+            count++;
+        }
+
+        /** Shifts appended through this writer. */
+        public int count() {
+            return count;
+        }
+
+        /** Shifts in the month's file once committed: the appended ones plus any kept from an earlier file. */
+        public int total() {
+            return total;
+        }
+
+        public void commit() throws IOException {
+            finish();
+            total = count;
+            if (Files.exists(target)) {
+                merge();
+            }
+            // Replaces the earlier file only with one that holds all of its shifts
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        private void finish() throws IOException {
+            writer.flush();
+            gzip.finish();
+            file.getChannel().force(true);
+            writer.close();
+        }
+
+        private void merge() throws IOException {
+            Map<UUID, ArchivedShift> shifts = new LinkedHashMap<>();
+            Predicate<ArchivedShift> keep = shift -> {
+                shifts.put(shift.id(), shift);
+                return true;
+            };
+            scan(target, keep);
+            int earlier = shifts.size();
+            scan(temporary, keep);
+            List<ArchivedShift> merged = new ArrayList<>(shifts.values());
+            merged.sort(FILE_ORDER);
+            open();
+            for (ArchivedShift shift : merged) {
+                writer.write(objectMapper.writeValueAsString(shift));
+                writer.newLine();
+            }
+            finish();
+            total = merged.size();
+            log.warn("Archive of {} already existed; merged {} shifts into its {}, {} in total",
+                month, count, earlier, total);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                try {
+                    writer.close();
+                } finally {
+                    Files.deleteIfExists(temporary);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.devopservice.archive;
+
+import com.devopservice.dto.ArchivedShift;
+import com.devopservice.roster.RosterReadModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks after the monthly partitions of shift and shiftassignment (see V6):
+ * keeps partitions in place for the coming months, creates the month of a
+ * shift booked further ahead on demand, and moves months older than the
+ * retention window into the {@link ShiftArchive}. A month is exported and
+ * read back from its file before its partitions are detached and dropped, in
+ * one transaction that keeps writers off the month meanwhile; if it rolls back
+ * after the file was written, the file stays and the next run merges into it.
+ * Seats and swap offers of an archived month are deleted, not archived.
+ */
+@Component
+public class ShiftPartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(ShiftPartitions.class);
+
+    // One instance at a time; the others skip the run
+    private static final long ADVISORY_LOCK = 0x5348494654L;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String MONTH_PARTITIONS = """
+        SELECT c.relname FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'shift'::regclass AND c.relname LIKE 'shift\\_p%'
+        ORDER BY c.relname
+        """;
+
+    private static final String MONTH_EXPORT = """
+        SELECT s.id, s.date, s.worker_id, s.required_role, s.start_time, s.end_time, s.capacity,
+               a.id AS assignment_id, a.worker_id AS assigned_worker_id, a.assigned_at
+        FROM %s s
+        LEFT JOIN %s a ON a.shift_id = s.id
+        ORDER BY s.date, s.start_time, s.id, a.assigned_at, a.id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate ownTx;
+    private final ShiftArchive archive;
+    private final RosterReadModel roster;
+    private final int retainedMonths;
+    private final int monthsAhead;
+    // Current and future months known to have their partitions; those are never archived
+    private final Set<YearMonth> present = ConcurrentHashMap.newKeySet();
+
+    public ShiftPartitions(DataSource dataSource, PlatformTransactionManager txManager, ShiftArchive archive,
+                           RosterReadModel roster,
+                           @Value("${app.scheduler.archive.retained-months:24}") int retainedMonths,
+                           @Value("${app.scheduler.archive.months-ahead:12}") int monthsAhead) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.tx = new TransactionTemplate(txManager);
+        this.ownTx = new TransactionTemplate(txManager);
+        this.ownTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.archive = archive;
+        this.roster = roster;
+        this.retainedMonths = retainedMonths;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(cron = "${app.scheduler.archive.cron:0 15 2 * * *}")
+    public void maintain() {
+        try {
+            createAhead();
+            if (retainedMonths <= 0) {
+                return;
+            }
+            YearMonth oldestKept = YearMonth.now().minusMonths(retainedMonths);
+            for (YearMonth month : partitionedMonths()) {
+                if (!month.isBefore(oldestKept)) {
+                    break;
+                }
+                archive(month);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Shift partition maintenance failed, will retry: {}", ex.getMessage());
+        }
+    }
+
+    /** Creates the missing partitions up to {@code months-ahead} months from now; returns how many months were added. */
+    public int createAhead() {
+        LocalDate first = LocalDate.now().withDayOfMonth(1);
+        Integer created = tx.execute(status -> {
+            if (!lock()) {
+                return 0;
+            }
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+            return jdbcTemplate.queryForObject("SELECT create_shift_partitions(?, ?)", Integer.class,
+                first, first.plusMonths(monthsAhead));
+        });
+        if (created != null && created > 0) {
+            log.info("Created shift partitions for {} months", created);
+        }
+        return created == null ? 0 : created;
+    }
+
+    /**
+     * Makes sure the month of {@code date} has its partitions before a shift
+     * is written to it, so shifts booked past the months-ahead window do not
+     * land in shift_default, where they would never be archived. Creating a
+     * partition locks shift, so it runs in a short transaction of its own.
+     * Months past the retention window or already archived answer 409: their
+     * shifts would only be archived again on the next run.
+     */
+    public void ensureMonth(LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        if (present.contains(month)) {
+            return;
+        }
+        if (retainedMonths > 0 && month.isBefore(YearMonth.now().minusMonths(retainedMonths))) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "Shifts before " + YearMonth.now().minusMonths(retainedMonths) + " are archived");
+        }
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+            "shift_" + month.format(SUFFIX));
+        if (!Boolean.TRUE.equals(exists)) {
+            if (archived(month)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Shifts of " + month + " are archived");
+            }
+            LocalDate first = month.atDay(1);
+            Integer created = ownTx.execute(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                return jdbcTemplate.queryForObject("SELECT create_shift_partitions(?, ?)", Integer.class, first, first);
+            });
+            if (created != null && created > 0) {
+                log.info("Created shift partitions for {}", month);
+            }
+        }
+        if (!month.isBefore(YearMonth.now())) {
+            present.add(month);
+        }
+    }
+
+    private boolean archived(YearMonth month) {
+        try {
+            return archive.months().contains(month);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public List<YearMonth> partitionedMonths() {
+        return jdbcTemplate.queryForList(MONTH_PARTITIONS, String.class).stream()
+            .map(name -> YearMonth.parse(name.substring("shift_".length()), SUFFIX))
+            .toList();
+    }
+
+    /**
+     * Moves the month's shifts and assignments into the archive. Returns how
+     * many shifts were archived, or -1 if another instance holds the lock.
+     */
+    public int archive(YearMonth month) {
+        long started = System.nanoTime();
+        String shifts = "shift_" + month.format(SUFFIX);
+        String assignments = "shiftassignment_" + month.format(SUFFIX);
+        LocalDate first = month.atDay(1);
+        LocalDate next = month.plusMonths(1).atDay(1);
+        Integer archived = tx.execute(status -> {
+            if (!lock()) {
+                return -1;
+            }
+            // Not waiting long behind live queries: the detach below blocks every reader of shift while it queues
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+            // Writers to the month wait until it is gone; readers carry on until the detach
+            jdbcTemplate.execute("LOCK TABLE " + shifts + ", " + assignments + " IN SHARE MODE");
+            ShiftArchive.MonthWriter exported = export(month, shifts, assignments);
+            int written = exported.count();
+            Integer stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + shifts, Integer.class);
+            int readBack = readBack(month);
+            if (stored == null || stored != written || readBack != exported.total()) {
+                throw new IllegalStateException(String.format("Archive of %s does not match the database: "
+                    + "%s shifts stored, %d written, %d of %d read back", month, stored, written, readBack,
+                    exported.total()));
+            }
+            int offers = jdbcTemplate.update("DELETE FROM swap_offer WHERE shift_date >= ? AND shift_date < ?", first, next);
+            int seats = jdbcTemplate.update("DELETE FROM shift_slot WHERE shift_date >= ? AND shift_date < ?", first, next);
+            jdbcTemplate.execute("ALTER TABLE shiftassignment DETACH PARTITION " + assignments);
+            jdbcTemplate.execute("ALTER TABLE shift DETACH PARTITION " + shifts);
+            jdbcTemplate.execute("DROP TABLE " + assignments + ", " + shifts);
+            log.debug("Dropped {} seats and {} swap offers of {}", seats, offers, month);
+            return written;
+        });
+        if (archived == null || archived < 0) {
+            return -1;
+        }
+        roster.forget(first, next);
+        log.info("Archived {} shifts of {} in {} ms", archived, month, (System.nanoTime() - started) / 1_000_000);
+        return archived;
+    }
+
+    private boolean lock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+            ADVISORY_LOCK));
+    }
+
+    private ShiftArchive.MonthWriter export(YearMonth month, String shifts, String assignments) {
+        try (ShiftArchive.MonthWriter out = archive.write(month)) {
+            MonthRows rows = new MonthRows(out);
+            jdbcTemplate.query(MONTH_EXPORT.formatted(shifts, assignments), rows);
+            rows.flush();
+            out.commit();
+            return out;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private int readBack(YearMonth month) {
+        try {
+            return archive.count(month);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** Folds the joined rows, which arrive grouped by shift, into one archived shift each. */
+    private static final class MonthRows implements RowCallbackHandler {
+        private final ShiftArchive.MonthWriter out;
+        private ArchivedShift shift;
+        private List<ArchivedShift.Assignment> assignments;
+
+        private MonthRows(ShiftArchive.MonthWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID id = rs.getObject("id", UUID.class);
+            if (shift == null || !shift.id().equals(id)) {
+                flush();
+                assignments = new ArrayList<>(2);
+                shift = new ArchivedShift(id, rs.getObject("date", LocalDate.class), rs.getObject("worker_id", UUID.class),
+                    rs.getString("required_role"), rs.getTimestamp("start_time").toLocalDateTime(),
+                    rs.getTimestamp("end_time").toLocalDateTime(), rs.getInt("capacity"), assignments);
+            }
+            UUID assignmentId = rs.getObject("assignment_id", UUID.class);
+            if (assignmentId != null) {
+                Timestamp assignedAt = rs.getTimestamp("assigned_at");
+                assignments.add(new ArchivedShift.Assignment(assignmentId, rs.getObject("assigned_worker_id", UUID.class),
+                    assignedAt == null ? null : assignedAt.toLocalDateTime()));
+            }
+        }
+
+        private void flush() {
+            if (shift == null) {
+                return;
+            }
+            try {
+                out.append(shift);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            shift = null;
+        }
+    }
+}
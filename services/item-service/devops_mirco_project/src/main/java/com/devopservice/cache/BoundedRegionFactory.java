@@ -0,0 +1,56 @@
+package com.devopservice.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Map;
+
+/**
+ * In-process second-level cache for Hibernate: every region is a bounded
+ * concurrent map inside this JVM. Entries written through Hibernate are kept
+ * coherent by Hibernate's own access strategies; other instances of the
+ * service are not notified, so only data that is effectively immutable
+ * (roles) or written through this service (workers) belongs here.
+ */
+public class BoundedRegionFactory extends RegionFactoryTemplate {
+
+    public static final String MAX_ENTRIES = "hibernate.cache.bounded.max_entries";
+    static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        Object configured = configValues.get(MAX_ENTRIES);
+        if (configured != null) {
+            maxEntries = Integer.parseInt(configured.toString());
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        // Regions release their own maps
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(
+        DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext) {
+        return new BoundedStorageAccess(maxEntries);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new BoundedStorageAccess(maxEntries);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        // One entry per table; evicting one would let stale query results through
+        return new BoundedStorageAccess(Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,67 @@
+package com.devopservice.cache;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One cache region. When it grows past its bound, about a tenth of the
+ * entries are dropped in map order; a miss only costs a database read.
+ */
+class BoundedStorageAccess implements DomainDataStorageAccess {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<Object, Object> entries = new ConcurrentHashMap<>();
+
+    BoundedStorageAccess(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        return entries.get(key);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        entries.put(key, value);
+        if (entries.size() > maxEntries) {
+            trim();
+        }
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public void evictData() {
+        entries.clear();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void release() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void trim() {
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<Object> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
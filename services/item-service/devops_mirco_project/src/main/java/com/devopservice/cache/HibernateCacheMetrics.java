@@ -0,0 +1,81 @@
+package com.devopservice.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.DomainDataRegion;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes Hibernate's cache statistics (second-level, natural-id and query
+ * cache, plus each second-level region) as request counters and hit ratios
+ * under {@code /actuator/metrics/hibernate.cache.*}. Needs
+ * {@code hibernate.generate_statistics}; binds nothing without it.
+ */
+@Component
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        bind(registry, Tags.of("cache", "second-level"), statistics,
+            Statistics::getSecondLevelCacheHitCount, Statistics::getSecondLevelCacheMissCount,
+            Statistics::getSecondLevelCachePutCount);
+        bind(registry, Tags.of("cache", "natural-id"), statistics,
+            Statistics::getNaturalIdCacheHitCount, Statistics::getNaturalIdCacheMissCount,
+            Statistics::getNaturalIdCachePutCount);
+        bind(registry, Tags.of("cache", "query"), statistics,
+            Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount,
+            Statistics::getQueryCachePutCount);
+        CacheImplementor cache = sessionFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            // The names include the query-results and timestamps regions, which have no domain statistics
+            if (!(cache.getRegion(region) instanceof DomainDataRegion)) {
+                continue;
+            }
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            if (regionStatistics != null) {
+                bind(registry, Tags.of("cache", "region", "region", region), regionStatistics,
+                    CacheRegionStatistics::getHitCount, CacheRegionStatistics::getMissCount,
+                    CacheRegionStatistics::getPutCount);
+            }
+        }
+    }
+
+    private static <T> void bind(MeterRegistry registry, Tags tags, T source,
+                                 ToLongFunction<T> hits, ToLongFunction<T> misses, ToLongFunction<T> puts) {
+        FunctionCounter.builder("hibernate.cache.requests", source, s -> hits.applyAsLong(s))
+            .tags(tags).tag("result", "hit").register(registry);
+        FunctionCounter.builder("hibernate.cache.requests", source, s -> misses.applyAsLong(s))
+            .tags(tags).tag("result", "miss").register(registry);
+        FunctionCounter.builder("hibernate.cache.puts", source, s -> puts.applyAsLong(s))
+            .tags(tags).register(registry);
+        Gauge.builder("hibernate.cache.hit.ratio", source, s -> hitRatio(hits.applyAsLong(s), misses.applyAsLong(s)))
+            .tags(tags).register(registry);
+    }
+
+    static double hitRatio(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? Double.NaN : (double) hits / requests;
+    }
+}
@@ -0,0 +1,43 @@
+package com.devopservice.controller;
+
+import com.devopservice.analytics.CoverageAnalytics;
+import com.devopservice.dto.CoverageReport;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private final CoverageAnalytics coverageAnalytics;
+
+    public AnalyticsController(CoverageAnalytics coverageAnalytics) {
+        this.coverageAnalytics = coverageAnalytics;
+    }
+
+    @GetMapping("/coverage")
+    public CoverageReport getCoverage(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(defaultValue = "role") String groupBy) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Coverage range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+        CoverageAnalytics.GroupBy grouping;
+        try {
+            grouping = CoverageAnalytics.GroupBy.valueOf(groupBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("groupBy must be one of role, day, worker");
+        }
+        return coverageAnalytics.coverage(from, to, grouping);
+    }
+}
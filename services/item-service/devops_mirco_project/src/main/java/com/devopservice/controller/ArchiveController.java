@@ -0,0 +1,47 @@
+package com.devopservice.controller;
+
+import com.devopservice.archive.ShiftArchive;
+import com.devopservice.dto.ArchivedShift;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/shifts/archive")
+public class ArchiveController {
+
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private final ShiftArchive shiftArchive;
+
+    public ArchiveController(ShiftArchive shiftArchive) {
+        this.shiftArchive = shiftArchive;
+    }
+
+    /**
+     * Shifts of archived months, read from the archive files on demand. Months
+     * still in the database are not included; the other shift endpoints serve those.
+     */
+    @GetMapping
+    public List<ArchivedShift> getArchivedShifts(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) throws IOException {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Archive range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+        return shiftArchive.read(from, to);
+    }
+
+    @GetMapping("/months")
+    public List<String> getArchivedMonths() throws IOException {
+        return shiftArchive.months().stream().map(YearMonth::toString).toList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.devopservice.controller;
+
+import com.devopservice.dto.ChangeLogPage;
+import com.devopservice.outbox.ChangeLog;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeLogController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final ChangeLog changeLog;
+
+    public ChangeLogController(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @GetMapping
+    public ChangeLogPage tail(@RequestParam(defaultValue = "0") long offset,
+                              @RequestParam(defaultValue = "100") int limit) throws IOException {
+        if (offset < 0 || limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("offset must be >= 0 and limit between 1 and " + MAX_LIMIT);
+        }
+        List<ChangeLog.Record> records = changeLog.read(offset, limit);
+        List<ChangeLogPage.Entry> entries = records.stream()
+            .map(r -> new ChangeLogPage.Entry(r.offset(), new String(r.data(), StandardCharsets.UTF_8)))
+            .toList();
+        long next = records.isEmpty() ? offset : records.get(records.size() - 1).offset() + 1;
+        return new ChangeLogPage(next, entries);
+    }
+}
@@ -0,0 +1,98 @@
+package com.devopservice.controller;
+
+import com.devopservice.export.CursorExport;
+import com.devopservice.export.ScheduleFormats;
+import com.devopservice.repositories.WorkerRepository;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+@RestController
+public class ExportController {
+
+    private static final long MAX_RANGE_DAYS = 366;
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar");
+
+    // The range is given for both tables so each only reads the months it covers
+    private static final String SCHEDULE_SQL = """
+        SELECT s.id, s.date, s.required_role, s.start_time, s.end_time, a.worker_id, w.name
+        FROM shift s
+        LEFT JOIN shiftassignment a ON a.shift_id = s.id AND a.shift_date = s.date AND a.shift_date BETWEEN ? AND ?
+        LEFT JOIN worker w ON w.id = a.worker_id
+        WHERE s.date BETWEEN ? AND ?
+        ORDER BY s.date, s.start_time, s.id
+        """;
+
+    private static final String WORKER_CALENDAR_SQL = """
+        SELECT a.id, s.required_role, s.start_time, s.end_time
+        FROM shiftassignment a
+        JOIN shift s ON s.id = a.shift_id AND s.date = a.shift_date
+        WHERE a.worker_id = ? AND a.shift_date BETWEEN ? AND ?
+        ORDER BY s.start_time
+        """;
+
+    private final DataSource dataSource;
+    private final WorkerRepository workerRepository;
+
+    public ExportController(DataSource dataSource, WorkerRepository workerRepository) {
+        this.dataSource = dataSource;
+        this.workerRepository = workerRepository;
+    }
+
+    @GetMapping("/api/exports/schedule.csv")
+    public ResponseEntity<StreamingResponseBody> exportScheduleCsv(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        checkRange(from, to);
+        CursorExport export = new CursorExport(dataSource, SCHEDULE_SQL, new Object[] {from, to, from, to},
+            ScheduleFormats.CSV_HEADER, ScheduleFormats::csvRow, "");
+        return ResponseEntity.ok()
+            .contentType(TEXT_CSV)
+            .header(HttpHeaders.CONTENT_DISPOSITION, attachment("schedule-" + from + "-" + to + ".csv"))
+            .body(export::writeTo);
+    }
+
+    @GetMapping("/api/scheduler/{workerId}/calendar.ics")
+    public ResponseEntity<StreamingResponseBody> exportWorkerCalendar(
+        @PathVariable UUID workerId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now().minusDays(30);
+        LocalDate end = to != null ? to : start.plusDays(MAX_RANGE_DAYS - 30);
+        checkRange(start, end);
+        if (!workerRepository.existsById(workerId)) {
+            throw new IllegalArgumentException("Worker not found");
+        }
+        Timestamp stamp = new Timestamp(System.currentTimeMillis());
+        CursorExport export = new CursorExport(dataSource, WORKER_CALENDAR_SQL, new Object[] {workerId, start, end},
+            ScheduleFormats.ICS_HEADER, (rs, out) -> ScheduleFormats.icsEvent(rs, out, stamp), ScheduleFormats.ICS_FOOTER);
+        return ResponseEntity.ok()
+            .contentType(TEXT_CALENDAR)
+            .header(HttpHeaders.CONTENT_DISPOSITION, attachment("shifts-" + workerId + ".ics"))
+            .body(export::writeTo);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Export range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    private static String attachment(String filename) {
+        return ContentDisposition.attachment().filename(filename).build().toString();
+    }
+}
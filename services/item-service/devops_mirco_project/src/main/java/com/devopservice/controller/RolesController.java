@@ -2,6 +2,7 @@ package com.devopservice.controller;
 
 import com.devopservice.entities.Roles;
 import com.devopservice.repositories.RolesRepository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,11 +18,13 @@ public class RolesController {
     }
     
     @GetMapping
+    @Transactional(readOnly = true)
     public List<Roles> getAllRoles() {
         return rolesRepository.findAll();
     }
     
     @GetMapping("/{name}")
+    @Transactional(readOnly = true)
     public Roles getRoleByName(@PathVariable String name) {
         return rolesRepository.findById(name)
             .orElseThrow(() -> new IllegalArgumentException("Role not found"));
@@ -0,0 +1,36 @@
+package com.devopservice.controller;
+
+import com.devopservice.dto.RosterDay;
+import com.devopservice.roster.RosterReadModel;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/roster")
+public class RosterController {
+
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private final RosterReadModel rosterReadModel;
+
+    public RosterController(RosterReadModel rosterReadModel) {
+        this.rosterReadModel = rosterReadModel;
+    }
+
+    @GetMapping
+    public List<RosterDay> getRoster(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Roster range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+        return rosterReadModel.range(from, to);
+    }
+}
@@ -2,21 +2,21 @@ package com.devopservice.controller;
 
 import com.devopservice.entities.ShiftAssignment;
 import com.devopservice.dto.AssignShiftRequest;
-import com.devopservice.entities.Worker;
 import com.devopservice.entities.Shift;
 import com.devopservice.repositories.ShiftAssignmentRepository;
 import com.devopservice.repositories.ShiftRepository;
-import com.devopservice.repositories.WorkerRepository;
 import com.devopservice.dto.ShiftAssignmentDTO;
+import com.devopservice.events.SchedulerChangeEvent;
+import com.devopservice.hours.HoursLedger;
+import com.devopservice.slots.ShiftAssigner;
 import jakarta.validation.Valid;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -28,25 +28,33 @@ public class ShiftAssignmentController {
     
     private final ShiftAssignmentRepository shiftAssignmentRepository;
     private final ShiftRepository shiftRepository;
-    private final WorkerRepository workerRepository;
+    private final ApplicationEventPublisher events;
+    private final ShiftAssigner shiftAssigner;
+    private final HoursLedger hoursLedger;
 
     private static final Logger log = LoggerFactory.getLogger(ShiftAssignmentController.class);
     
     public ShiftAssignmentController(
         ShiftAssignmentRepository shiftAssignmentRepository,
         ShiftRepository shiftRepository,
-        WorkerRepository workerRepository) {
+        ApplicationEventPublisher events,
+        ShiftAssigner shiftAssigner,
+        HoursLedger hoursLedger) {
         this.shiftAssignmentRepository = shiftAssignmentRepository;
         this.shiftRepository = shiftRepository;
-        this.workerRepository = workerRepository;
+        this.events = events;
+        this.shiftAssigner = shiftAssigner;
+        this.hoursLedger = hoursLedger;
     }
     
     @GetMapping
+    @Transactional(readOnly = true)
     public List<ShiftAssignment> getAllAssignments() {
         return shiftAssignmentRepository.findAll();
     }
     
     @GetMapping("/worker/{workerId}")
+    @Transactional(readOnly = true)
     public List<ShiftAssignmentDTO> getAssignmentsByWorker(@PathVariable UUID workerId) {
     List<ShiftAssignment> assignments = shiftAssignmentRepository.findByWorkerId(workerId);
     return assignments.stream().map(a -> {
@@ -65,76 +73,54 @@ public class ShiftAssignmentController {
 }
     
     @GetMapping("/shift/{shiftId}")
+    @Transactional(readOnly = true)
     public List<ShiftAssignment> getAssignmentsByShift(@PathVariable UUID shiftId) {
         return shiftAssignmentRepository.findByShiftId(shiftId);
     }
     @GetMapping("shift/remove/{shiftId}")
     @Transactional
     public void removeAssignment(@PathVariable UUID shiftId) {
+        hoursLedger.releaseShift(shiftId);
         shiftAssignmentRepository.deleteByShiftId(shiftId);
-        shiftRepository.deleteById(shiftId);
+        if (shiftRepository.deleteShiftById(shiftId) > 0) {
+            events.publishEvent(SchedulerChangeEvent.shiftRemoved(shiftId));
+        }
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
     public ShiftAssignment createAssignment(@RequestBody @Valid AssignShiftRequest request) {
-        // Verify shift and worker exist
-        Optional<Worker> workerOpt  = workerRepository.findById(request.workerId());
-        if (!shiftRepository.existsById(request.shiftId())) {
-            throw new IllegalArgumentException("Shift not found");
-        }
-        if (workerOpt.isEmpty()) {
-            throw new IllegalArgumentException("Worker not found");
-        }
-        Worker worker = workerOpt.get();
-
-        ShiftAssignment assignment = ShiftAssignment.builder()
-            .id(UUID.randomUUID())
-            .shiftId(request.shiftId())
-            .workerId(worker.getId())
-            .assignedAt(LocalDateTime.now())
-            .build();
-        
-        return shiftAssignmentRepository.save(assignment);
+        return claimSlot(request);
     }
 
     @PostMapping("/assign")
     @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
     public ShiftAssignment assignShift(@RequestBody @Valid AssignShiftRequest request) {
+        return claimSlot(request);
+    }
 
-        
-        Optional<Worker> workerOpt  = workerRepository.findById(request.workerId());
-        if (!shiftRepository.existsById(request.shiftId())) {
-            throw new IllegalArgumentException("Shift not found");
-        }
-        if (workerOpt.isEmpty()) {
-            throw new IllegalArgumentException("Worker not found");
-        }
-        Worker worker = workerOpt.get();
-        
-        
-
-        // Prevent duplicate assignment
-        List<ShiftAssignment> existing = shiftAssignmentRepository.findByShiftIdAndWorkerId(request.shiftId(), worker.getId());
-        if (!existing.isEmpty()) {
-            throw new IllegalArgumentException("Assignment already exists for this shift and worker");
-        }
-
-        ShiftAssignment assignment = ShiftAssignment.builder()
-            .id(UUID.randomUUID())
-            .shiftId(request.shiftId())
-            .workerId(worker.getId())
-            .assignedAt(LocalDateTime.now())
-            .build();
+    /**
+     * Takes one free seat on the shift for the worker. Safe to call from many
+     * workers at once: each claim locks a different seat, and a full shift
+     * answers 409 instead of being over-assigned.
+     */
+    @PostMapping("/claim")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
+    public ShiftAssignment claimShift(@RequestBody @Valid AssignShiftRequest request) {
+        return claimSlot(request);
+    }
 
-        return shiftAssignmentRepository.save(assignment);
-}
+    private ShiftAssignment claimSlot(AssignShiftRequest request) {
+        return shiftAssigner.assign(request.shiftId(), request.workerId());
+    }
 
     @DeleteMapping("/unassign/{shiftId}/{workerId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Transactional
     public void unassignShift(@PathVariable UUID shiftId, @PathVariable UUID workerId) {
-        List<ShiftAssignment> assignments = shiftAssignmentRepository.findByShiftIdAndWorkerId(shiftId, workerId);
-        assignments.forEach(a -> shiftAssignmentRepository.deleteById(a.getId()));
+        shiftAssigner.unassign(shiftId, workerId);
     }
 }
\ No newline at end of file
@@ -1,21 +1,32 @@
 package com.devopservice.controller;
 
+import com.devopservice.archive.ShiftPartitions;
 import com.devopservice.entities.Shift;
+import com.devopservice.dto.BatchGetRequest;
+import com.devopservice.dto.BatchGetResult;
+import com.devopservice.dto.BulkDeleteResult;
 import com.devopservice.dto.CreateShiftRequest;
 import com.devopservice.repositories.ShiftRepository;
 import com.devopservice.repositories.ShiftAssignmentRepository;
-import com.devopservice.entities.ShiftAssignment;
+import com.devopservice.repositories.MultiIdLoader;
+import com.devopservice.events.SchedulerChangeEvent;
+import com.devopservice.events.ShiftChangeFeed;
+import com.devopservice.hours.HoursLedger;
+import com.devopservice.slots.ShiftAssigner;
+import com.devopservice.slots.ShiftSlots;
 
 import jakarta.validation.Valid;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/shifts")
@@ -23,41 +34,71 @@ public class ShiftController {
     
     private final ShiftRepository shiftRepository;
     private final ShiftAssignmentRepository shiftAssignmentRepository;
+    private final ApplicationEventPublisher events;
+    private final ShiftChangeFeed shiftChangeFeed;
+    private final ShiftSlots shiftSlots;
+    private final HoursLedger hoursLedger;
+    private final ShiftAssigner shiftAssigner;
+    private final ShiftPartitions shiftPartitions;
+    private final MultiIdLoader multiIdLoader;
 
-    public ShiftController(ShiftRepository shiftRepository, ShiftAssignmentRepository shiftAssignmentRepository) {
+    public ShiftController(ShiftRepository shiftRepository, ShiftAssignmentRepository shiftAssignmentRepository,
+                           ApplicationEventPublisher events, ShiftChangeFeed shiftChangeFeed, ShiftSlots shiftSlots,
+                           HoursLedger hoursLedger, ShiftAssigner shiftAssigner, ShiftPartitions shiftPartitions,
+                           MultiIdLoader multiIdLoader) {
         this.shiftRepository = shiftRepository;
         this.shiftAssignmentRepository = shiftAssignmentRepository;
+        this.events = events;
+        this.shiftChangeFeed = shiftChangeFeed;
+        this.shiftSlots = shiftSlots;
+        this.hoursLedger = hoursLedger;
+        this.shiftAssigner = shiftAssigner;
+        this.shiftPartitions = shiftPartitions;
+        this.multiIdLoader = multiIdLoader;
     }
     
     @GetMapping
+    @Transactional(readOnly = true)
     public List<Shift> getAllShifts() {
         return shiftRepository.findAll();
     }
     
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return shiftChangeFeed.subscribe(lastEventId);
+    }
+    
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public Shift getShiftById(@PathVariable UUID id) {
         return shiftRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Shift not found"));
     }
     
+    /** Shifts for up to {@link BatchGetRequest#MAX_IDS} ids in one call, keyed by id; ids without a shift are listed as missing. */
+    @PostMapping("/batch-get")
+    @Transactional(readOnly = true)
+    public BatchGetResult<Shift> batchGetShifts(@RequestBody BatchGetRequest request) {
+        List<UUID> ids = request.checkedIds();
+        return BatchGetResult.of(multiIdLoader.load(Shift.class, ids), ids);
+    }
+    
     @GetMapping("/date/{date}")
+    @Transactional(readOnly = true)
     public List<Shift> getShiftsByDate(
         @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         return shiftRepository.findByDate(date);
     }
     
     @GetMapping("/unassigned")
+    @Transactional(readOnly = true)
     public List<Shift> getUnassignedShifts() {
-    List<UUID> assignedShiftIds = shiftAssignmentRepository.findAll()
-        .stream()
-        .map(ShiftAssignment::getShiftId)
-        .collect(Collectors.toList());
-    return shiftRepository.findAll().stream()
-        .filter(shift -> !assignedShiftIds.contains(shift.getId()))
-        .collect(Collectors.toList());
-}
+        return shiftRepository.findWithFreeSlot();
+    }
     
     @GetMapping("/role/{role}")
+    @Transactional(readOnly = true)
     public List<Shift> getShiftsByRole(@PathVariable String role) {
         return shiftRepository.findByRequiredRole(role);
     }
@@ -65,38 +106,83 @@ public class ShiftController {
     @Transactional
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void removeShift(@PathVariable UUID id) {
-        shiftRepository.deleteById(id);
+        hoursLedger.releaseShift(id);
+        shiftAssignmentRepository.deleteByShiftId(id);
+        if (shiftRepository.deleteShiftById(id) > 0) {
+            events.publishEvent(SchedulerChangeEvent.shiftRemoved(id));
+        }
+    }
+
+    /**
+     * Cancels every shift dated {@code from} to {@code to}, optionally only
+     * those of one role: hours are given back, then assignments and shifts go
+     * in one bulk statement each, all in one transaction.
+     */
+    @DeleteMapping
+    @Transactional
+    public BulkDeleteResult removeShifts(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) String role) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        List<UUID> shiftIds = shiftRepository.findIdsBetweenDates(from, to, role);
+        if (shiftIds.isEmpty()) {
+            return new BulkDeleteResult(0, 0);
+        }
+        hoursLedger.releaseShifts(from, to, role);
+        int assignments = shiftAssignmentRepository.deleteByShiftDateBetween(from, to, role);
+        int shifts = shiftRepository.deleteBetweenDates(from, to, role);
+        shiftIds.forEach(id -> events.publishEvent(SchedulerChangeEvent.shiftRemoved(id)));
+        return new BulkDeleteResult(shifts, assignments);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
     public Shift createShift(@RequestBody @Valid CreateShiftRequest request) {
+        shiftPartitions.ensureMonth(request.date());
         Shift shift = Shift.builder()
             .id(UUID.randomUUID())
             .date(request.date())
             .requiredRole(request.requiredRole())
             .startTime(request.startTime())
             .endTime(request.endTime())
+            .capacity(request.capacity() == null ? 1 : request.capacity())
             .build();
         
-        return shiftRepository.save(shift);
+        // Flushed first: the seat rows reference the shift
+        Shift saved = shiftRepository.saveAndFlush(shift);
+        shiftSlots.create(saved.getId(), saved.getDate(), saved.getCapacity());
+        events.publishEvent(SchedulerChangeEvent.shiftCreated(saved));
+        return saved;
     }
     
+    /**
+     * Books the worker onto a seat of the shift, as {@code POST
+     * /api/shift-assignments} does, and records them as the shift's worker.
+     */
     @PutMapping("/{shiftId}/assign/{workerId}")
+    @Transactional
     public Shift assignShift(@PathVariable UUID shiftId, @PathVariable UUID workerId) {
+        shiftAssigner.assign(shiftId, workerId);
         Shift shift = shiftRepository.findById(shiftId)
             .orElseThrow(() -> new IllegalArgumentException("Shift not found"));
-        
         shift.setWorkerId(workerId);
         return shiftRepository.save(shift);
     }
-    
+
+    /** Takes the shift's recorded worker off it, freeing their seat and hours. */
     @PutMapping("/{shiftId}/unassign")
+    @Transactional
     public Shift unassignShift(@PathVariable UUID shiftId) {
         Shift shift = shiftRepository.findById(shiftId)
             .orElseThrow(() -> new IllegalArgumentException("Shift not found"));
-        
-        shift.setWorkerId(null);
+        if (shift.getWorkerId() != null) {
+            shiftAssigner.unassign(shiftId, shift.getWorkerId());
+            shift.setWorkerId(null);
+        }
         return shiftRepository.save(shift);
     }
 }
\ No newline at end of file
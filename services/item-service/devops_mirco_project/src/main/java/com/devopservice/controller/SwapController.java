@@ -0,0 +1,59 @@
+package com.devopservice.controller;
+
+import com.devopservice.dto.SwapOffer;
+import com.devopservice.dto.SwapOfferRequest;
+import com.devopservice.swap.SwapMarket;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/swaps")
+public class SwapController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final SwapMarket swapMarket;
+
+    public SwapController(SwapMarket swapMarket) {
+        this.swapMarket = swapMarket;
+    }
+
+    @GetMapping
+    public List<SwapOffer> getOpenOffers(
+        @RequestParam String role,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(defaultValue = "100") int limit) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        return swapMarket.openOffers(role, from, to, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
+    public SwapOffer createOffer(@RequestBody @Valid SwapOfferRequest request) {
+        return swapMarket.offer(request.assignmentId(), request.workerId());
+    }
+
+    @PostMapping("/{offerId}/accept")
+    @Transactional
+    public SwapOffer acceptOffer(@PathVariable UUID offerId, @RequestBody @Valid SwapOfferRequest request) {
+        return swapMarket.accept(offerId, request.assignmentId(), request.workerId());
+    }
+
+    @DeleteMapping("/{offerId}/{workerId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
+    public void cancelOffer(@PathVariable UUID offerId, @PathVariable UUID workerId) {
+        swapMarket.cancel(offerId, workerId);
+    }
+}
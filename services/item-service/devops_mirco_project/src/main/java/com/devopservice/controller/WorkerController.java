@@ -1,17 +1,28 @@
 package com.devopservice.controller;
 
 import com.devopservice.entities.Worker;
+import com.devopservice.dto.BatchGetRequest;
+import com.devopservice.dto.BatchGetResult;
 import com.devopservice.dto.CreateWorkerRequest;
+import com.devopservice.events.SchedulerChangeEvent;
+import com.devopservice.hours.HoursLedger;
+import com.devopservice.repositories.MultiIdLoader;
 import com.devopservice.repositories.WorkerRepository;
+import com.devopservice.search.WorkerSearchIndex;
 import jakarta.validation.Valid;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
 // Add import for WorkerDto if it exists in your project
+import com.devopservice.dto.WeeklyHours;
 import com.devopservice.dto.WorkerDto;
 
 @RestController
@@ -19,30 +30,73 @@ import com.devopservice.dto.WorkerDto;
 public class WorkerController {
     
     private final WorkerRepository workerRepository;
+    private final ApplicationEventPublisher events;
+    private final WorkerSearchIndex searchIndex;
+    private final HoursLedger hoursLedger;
+    private final MultiIdLoader multiIdLoader;
     
-    public WorkerController(WorkerRepository workerRepository) {
+    public WorkerController(WorkerRepository workerRepository, ApplicationEventPublisher events,
+                            WorkerSearchIndex searchIndex, HoursLedger hoursLedger, MultiIdLoader multiIdLoader) {
         this.workerRepository = workerRepository;
+        this.events = events;
+        this.searchIndex = searchIndex;
+        this.hoursLedger = hoursLedger;
+        this.multiIdLoader = multiIdLoader;
     }
     
     @GetMapping
+    @Transactional(readOnly = true)
     public List<Worker> getAllWorkers() {
         return workerRepository.findAll();
     }
     
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public Worker getWorkerById(@PathVariable UUID id) {
         return workerRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Worker not found"));
     }
     
+    /** Workers for up to {@link BatchGetRequest#MAX_IDS} ids in one call; cached workers cost no query. */
+    @PostMapping("/batch-get")
+    @Transactional(readOnly = true)
+    public BatchGetResult<Worker> batchGetWorkers(@RequestBody BatchGetRequest request) {
+        List<UUID> ids = request.checkedIds();
+        return BatchGetResult.of(multiIdLoader.load(Worker.class, ids), ids);
+    }
+    
+    @GetMapping("/search")
+    public List<WorkerDto> searchWorkers(@RequestParam String q,
+                                         @RequestParam(required = false) String role,
+                                         @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > WorkerSearchIndex.MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + WorkerSearchIndex.MAX_LIMIT);
+        }
+        return searchIndex.search(q, role, limit);
+    }
+    
+    /** Booked minutes per ISO week, starting with the week containing {@code from} (default: this week). */
+    @GetMapping("/{id}/hours")
+    @Transactional(readOnly = true)
+    public List<WeeklyHours> getWorkerHours(@PathVariable UUID id,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(defaultValue = "1") int weeks) {
+        if (weeks < 1 || weeks > 53) {
+            throw new IllegalArgumentException("weeks must be between 1 and 53");
+        }
+        return hoursLedger.weeks(id, from == null ? LocalDate.now() : from, weeks);
+    }
+    
     @GetMapping("/role/{role}")
+    @Transactional(readOnly = true)
     public List<Worker> getWorkersByRole(@PathVariable String role) {
         return workerRepository.findByRole(role);
     }
 
     @GetMapping("/user/{userId}")
+    @Transactional(readOnly = true)
     public List<Worker> getWorkersByUserId(@PathVariable UUID userId) {
-        return workerRepository.findByUserId(userId);
+        return workerRepository.findOneByUserId(userId).map(List::of).orElse(List.of());
     }
 
     @PostMapping
@@ -54,16 +108,16 @@ public class WorkerController {
                 .role(request.role())
                 .userId(userId)
                 .build();
-        return workerRepository.save(worker);
+        Worker saved = workerRepository.save(worker);
+        events.publishEvent(SchedulerChangeEvent.workerCreated(saved));
+        return saved;
     }
 
 @GetMapping("/me")
+@Transactional(readOnly = true)
 public WorkerDto getWorkerInfo(@RequestHeader("X-User-Id") UUID userId) {
-    List<Worker> workers = workerRepository.findByUserId(userId);
-    if (workers.isEmpty()) {
-        throw new ResponseStatusException(HttpStatus.NOT_FOUND);
-    }
-    Worker worker = workers.get(0);
+    Worker worker = workerRepository.findOneByUserId(userId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     return new WorkerDto(worker.getId(), worker.getName(), worker.getRole());
 }
 }
\ No newline at end of file
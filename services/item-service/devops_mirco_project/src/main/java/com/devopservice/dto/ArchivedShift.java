@@ -0,0 +1,20 @@
+package com.devopservice.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record ArchivedShift(
+    UUID id,
+    LocalDate date,
+    UUID workerId,
+    String requiredRole,
+    LocalDateTime startTime,
+    LocalDateTime endTime,
+    int capacity,
+    List<Assignment> assignments
+) {
+
+    public record Assignment(UUID id, UUID workerId, LocalDateTime assignedAt) {}
+}
@@ -0,0 +1,21 @@
+package com.devopservice.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchGetRequest(
+    List<UUID> ids
+) {
+    public static final int MAX_IDS = 5000;
+
+    /** The requested ids, refused if there are more than {@link #MAX_IDS}. */
+    public List<UUID> checkedIds() {
+        if (ids == null) {
+            return List.of();
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids per request");
+        }
+        return ids;
+    }
+}
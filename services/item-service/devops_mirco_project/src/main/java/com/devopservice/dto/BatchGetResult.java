@@ -0,0 +1,18 @@
+package com.devopservice.dto;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record BatchGetResult<T>(
+    Map<UUID, T> found,
+    List<UUID> missing
+) {
+    public static <T> BatchGetResult<T> of(Map<UUID, T> found, Collection<UUID> requested) {
+        return new BatchGetResult<>(found, new LinkedHashSet<>(requested).stream()
+            .filter(id -> !found.containsKey(id))
+            .toList());
+    }
+}
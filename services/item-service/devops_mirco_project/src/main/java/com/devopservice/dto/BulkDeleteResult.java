@@ -0,0 +1,6 @@
+package com.devopservice.dto;
+
+public record BulkDeleteResult(
+    int shifts,
+    int assignments
+) {}
@@ -0,0 +1,12 @@
+package com.devopservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.util.List;
+
+public record ChangeLogPage(
+    long nextOffset,
+    List<Entry> records
+) {
+    public record Entry(long offset, @JsonRawValue String change) {}
+}
@@ -0,0 +1,25 @@
+package com.devopservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record CoverageReport(
+    LocalDate from,
+    LocalDate to,
+    String groupBy,
+    List<Bucket> buckets
+) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Bucket(
+        String key,
+        String label,
+        long shifts,
+        Long filled,
+        Long open,
+        Double fillRate,
+        double assignedHours
+    ) {}
+}
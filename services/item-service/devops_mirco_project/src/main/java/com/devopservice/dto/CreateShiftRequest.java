@@ -1,6 +1,7 @@
 package com.devopservice.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -8,5 +9,6 @@ public record CreateShiftRequest(
     @NotNull LocalDate date,
     @NotNull String requiredRole,
     @NotNull LocalDateTime startTime,
-    @NotNull LocalDateTime endTime
+    @NotNull LocalDateTime endTime,
+    @Positive Integer capacity
 ) {}
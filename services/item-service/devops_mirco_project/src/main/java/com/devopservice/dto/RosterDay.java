@@ -0,0 +1,25 @@
+package com.devopservice.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record RosterDay(
+    LocalDate date,
+    List<Entry> shifts,
+    Map<String, Integer> openSlotsByRole
+) {
+
+    public record Entry(
+        UUID id,
+        String requiredRole,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        int capacity,
+        List<AssignedWorker> workers
+    ) {}
+
+    public record AssignedWorker(UUID id, String name) {}
+}
@@ -0,0 +1,27 @@
+package com.devopservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ShiftChangeNotice(
+    long id,
+    String type,
+    UUID shiftId,
+    UUID workerId,
+    LocalDate date,
+    String requiredRole
+) {
+    public static final String RESYNC = "RESYNC";
+
+    public static ShiftChangeNotice resync(long id) {
+        return new ShiftChangeNotice(id, RESYNC, null, null, null, null);
+    }
+
+    // Notices about the same shift/worker pair supersede each other while queued
+    public String coalescingKey() {
+        return shiftId + ":" + workerId;
+    }
+}
@@ -0,0 +1,16 @@
+package com.devopservice.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record SwapOffer(
+    UUID id,
+    UUID assignmentId,
+    UUID shiftId,
+    UUID workerId,
+    String role,
+    LocalDate shiftDate,
+    String status,
+    LocalDateTime createdAt
+) {}
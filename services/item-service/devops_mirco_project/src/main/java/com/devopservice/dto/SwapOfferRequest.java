@@ -0,0 +1,9 @@
+package com.devopservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+
+public record SwapOfferRequest(
+    @NotNull UUID assignmentId,
+    @NotNull UUID workerId
+) {}
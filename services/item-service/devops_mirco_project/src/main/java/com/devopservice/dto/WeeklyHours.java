@@ -0,0 +1,10 @@
+package com.devopservice.dto;
+
+import java.time.LocalDate;
+
+public record WeeklyHours(
+    String week,
+    LocalDate weekStart,
+    int assignedMinutes,
+    Integer capMinutes
+) {}
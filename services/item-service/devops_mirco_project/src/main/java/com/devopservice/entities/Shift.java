@@ -37,6 +37,10 @@ public class Shift {
     
     @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int capacity = 1;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "worker_id", insertable = false, updatable = false)
@@ -2,6 +2,7 @@ package com.devopservice.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -21,6 +22,10 @@ public class ShiftAssignment {
     
     @Column(name = "shift_id", nullable = false)
     private UUID shiftId;
+
+    // Part of the key: shiftassignment is partitioned by month on it
+    @Column(name = "shift_date", nullable = false)
+    private LocalDate shiftDate;
     
     @Column(name = "worker_id", nullable = false)
     private UUID workerId;
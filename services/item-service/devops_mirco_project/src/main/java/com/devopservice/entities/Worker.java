@@ -3,6 +3,10 @@ package com.devopservice.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -12,6 +16,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "worker")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Getter
 @Setter
 @NoArgsConstructor
@@ -28,6 +34,7 @@ public class Worker {
     @Column(nullable = false)
     private String role;
 
+    @NaturalId
     @Column(name = "user_id", unique = true, nullable = false)
     private UUID userId;
 
@@ -0,0 +1,56 @@
+package com.devopservice.events;
+
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.Worker;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published by the controllers after every scheduler mutation so read models
+ * can follow the tables without re-querying them.
+ */
+public record SchedulerChangeEvent(
+    Type type,
+    UUID shiftId,
+    UUID workerId,
+    String workerName,
+    LocalDate date,
+    String requiredRole,
+    LocalDateTime startTime,
+    LocalDateTime endTime,
+    Integer capacity
+) {
+
+    public enum Type {
+        SHIFT_CREATED,
+        SHIFT_REMOVED,
+        SHIFT_ASSIGNED,
+        SHIFT_UNASSIGNED,
+        WORKER_CREATED
+    }
+
+    public static SchedulerChangeEvent shiftCreated(Shift shift) {
+        return new SchedulerChangeEvent(Type.SHIFT_CREATED, shift.getId(), null, null,
+            shift.getDate(), shift.getRequiredRole(), shift.getStartTime(), shift.getEndTime(), shift.getCapacity());
+    }
+
+    public static SchedulerChangeEvent shiftRemoved(UUID shiftId) {
+        return new SchedulerChangeEvent(Type.SHIFT_REMOVED, shiftId, null, null, null, null, null, null, null);
+    }
+
+    public static SchedulerChangeEvent shiftAssigned(UUID shiftId, Worker worker) {
+        return new SchedulerChangeEvent(Type.SHIFT_ASSIGNED, shiftId, worker.getId(), worker.getName(),
+            null, null, null, null, null);
+    }
+
+    public static SchedulerChangeEvent shiftUnassigned(UUID shiftId, UUID workerId) {
+        return new SchedulerChangeEvent(Type.SHIFT_UNASSIGNED, shiftId, workerId, null, null, null, null, null, null);
+    }
+
+    public static SchedulerChangeEvent workerCreated(Worker worker) {
+        return new SchedulerChangeEvent(Type.WORKER_CREATED, null, worker.getId(), worker.getName(),
+            null, worker.getRole(), null, null, null);
+    }
+}
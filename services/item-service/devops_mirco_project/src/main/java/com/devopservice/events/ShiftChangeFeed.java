@@ -0,0 +1,198 @@
+package com.devopservice.events;
+
+import com.devopservice.dto.ShiftChangeNotice;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed shift and assignment changes out to server-sent event
+ * subscribers. Recent notices are kept for Last-Event-ID resumption, and each
+ * subscriber gets a bounded, coalescing buffer drained on its own task so a
+ * slow client can never hold up the others; if it falls too far behind it is
+ * told to resync instead.
+ */
+@Component
+public class ShiftChangeFeed {
+
+    private static final ShiftChangeNotice KEEP_ALIVE = new ShiftChangeNotice(0, "KEEP_ALIVE", null, null, null, null);
+
+    /** Where a subscriber's notices end up; blocking is fine, it runs on the drain task. */
+    interface Sink {
+        void send(ShiftChangeNotice notice) throws IOException;
+    }
+
+    private final int historySize;
+    private final int bufferSize;
+    private final Executor executor;
+
+    private final ArrayDeque<ShiftChangeNotice> history = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private long sequence;
+
+    public ShiftChangeFeed(
+        @Value("${app.scheduler.stream.history-size:1024}") int historySize,
+        @Value("${app.scheduler.stream.buffer-size:256}") int bufferSize,
+        @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.historySize = historySize;
+        this.bufferSize = bufferSize;
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(SchedulerChangeEvent event) {
+        if (event.type() == SchedulerChangeEvent.Type.WORKER_CREATED) {
+            return;
+        }
+        synchronized (this) {
+            ShiftChangeNotice notice = new ShiftChangeNotice(++sequence, event.type().name(),
+                event.shiftId(), event.workerId(), event.date(), event.requiredRole());
+            history.addLast(notice);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            subscribers.forEach(s -> s.offer(notice));
+        }
+        subscribers.forEach(Subscriber::schedule);
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        // No timeout: a vanished client is noticed by the next failed send, at the latest the heartbeat
+        SseEmitter emitter = new SseEmitter(0L);
+        Runnable cancel = subscribe(lastEventId, notice -> emitter.send(notice == KEEP_ALIVE
+            ? SseEmitter.event().comment("keep-alive")
+            : SseEmitter.event()
+                .id(Long.toString(notice.id()))
+                .name(notice.type().toLowerCase(Locale.ROOT))
+                .data(notice, MediaType.APPLICATION_JSON)));
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(error -> cancel.run());
+        return emitter;
+    }
+
+    /** Registers a subscriber and returns the action that unsubscribes it. */
+    Runnable subscribe(Long lastEventId, Sink sink) {
+        Subscriber subscriber = new Subscriber(sink);
+        register(subscriber, lastEventId);
+        subscriber.schedule();
+        return subscriber::cancel;
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.stream.heartbeat-seconds:15}",
+        initialDelayString = "${app.scheduler.stream.heartbeat-seconds:15}", timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        subscribers.forEach(s -> {
+            s.keepAlive();
+            s.schedule();
+        });
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private synchronized void register(Subscriber subscriber, Long lastEventId) {
+        subscribers.add(subscriber);
+        if (lastEventId == null) {
+            return;
+        }
+        ShiftChangeNotice oldest = history.peekFirst();
+        if (lastEventId > sequence || (oldest != null && oldest.id() > lastEventId + 1)
+            || (oldest == null && lastEventId < sequence)) {
+            // The client missed notices we no longer hold (or comes from an earlier process)
+            subscriber.offer(ShiftChangeNotice.resync(sequence));
+            return;
+        }
+        for (ShiftChangeNotice notice : history) {
+            if (notice.id() > lastEventId) {
+                subscriber.offer(notice);
+            }
+        }
+    }
+
+    private final class Subscriber {
+        private final Sink sink;
+        private final LinkedHashMap<String, ShiftChangeNotice> buffer = new LinkedHashMap<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private boolean overflowed;
+        private volatile boolean cancelled;
+
+        private Subscriber(Sink sink) {
+            this.sink = sink;
+        }
+
+        private synchronized void offer(ShiftChangeNotice notice) {
+            if (overflowed) {
+                return;
+            }
+            // Re-inserting moves the key to the tail, keeping the buffer ordered by id
+            buffer.remove(notice.coalescingKey());
+            buffer.put(notice.coalescingKey(), notice);
+            if (buffer.size() > bufferSize) {
+                buffer.clear();
+                buffer.put(ShiftChangeNotice.RESYNC, ShiftChangeNotice.resync(notice.id()));
+                overflowed = true;
+            }
+        }
+
+        private synchronized void keepAlive() {
+            if (buffer.isEmpty()) {
+                buffer.put(KEEP_ALIVE.type(), KEEP_ALIVE);
+            }
+        }
+
+        private synchronized ShiftChangeNotice poll() {
+            Iterator<ShiftChangeNotice> it = buffer.values().iterator();
+            if (!it.hasNext()) {
+                overflowed = false;
+                return null;
+            }
+            ShiftChangeNotice notice = it.next();
+            it.remove();
+            return notice;
+        }
+
+        private void schedule() {
+            // Only the first caller starts a drain; later ones just make it loop once more
+            if (!cancelled && pending.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                ShiftChangeNotice notice;
+                while (!cancelled && (notice = poll()) != null) {
+                    try {
+                        sink.send(notice);
+                    } catch (IOException | RuntimeException ex) {
+                        cancel();
+                    }
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void cancel() {
+            cancelled = true;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.devopservice.export;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Streams a query result as text chunks straight off a server-side JDBC cursor.
+ * Rows are formatted into one reusable buffer and flushed as a chunk whenever it
+ * fills, and the next chunk is only read once the previous one has been written
+ * to the client, so memory stays constant regardless of how many rows the range
+ * covers.
+ */
+public final class CursorExport {
+
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(ResultSet rs, StringBuilder out) throws SQLException;
+    }
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int CHUNK_CHARS = 16 * 1024;
+
+    private final DataSource dataSource;
+    private final String sql;
+    private final Object[] args;
+    private final String header;
+    private final String footer;
+    private final RowWriter rowWriter;
+
+    public CursorExport(DataSource dataSource, String sql, Object[] args,
+                        String header, RowWriter rowWriter, String footer) {
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.args = args;
+        this.header = header;
+        this.rowWriter = rowWriter;
+        this.footer = footer;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        Cursor cursor = open();
+        try {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            CharSequence chunk;
+            while ((chunk = cursor.nextChunk()) != null) {
+                writer.append(chunk);
+                // Hand each chunk to the client before reading further rows
+                writer.flush();
+            }
+        } catch (SQLException ex) {
+            throw new IOException("Export query failed", ex);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private Cursor open() {
+        try {
+            return new Cursor(dataSource.getConnection());
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not open export cursor", ex);
+        }
+    }
+
+    private final class Cursor {
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final ResultSet resultSet;
+        private final StringBuilder buffer = new StringBuilder(CHUNK_CHARS + 512);
+        private boolean headerWritten;
+        private boolean exhausted;
+
+        private Cursor(Connection connection) throws SQLException {
+            this.connection = connection;
+            try {
+                // Postgres only streams with a cursor inside a transaction
+                connection.setAutoCommit(false);
+                connection.setReadOnly(true);
+                statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+                resultSet = statement.executeQuery();
+            } catch (SQLException ex) {
+                connection.close();
+                throw ex;
+            }
+        }
+
+        private CharSequence nextChunk() throws SQLException {
+            if (exhausted) {
+                return null;
+            }
+            buffer.setLength(0);
+            if (!headerWritten) {
+                buffer.append(header);
+                headerWritten = true;
+            }
+            while (buffer.length() < CHUNK_CHARS) {
+                if (!resultSet.next()) {
+                    buffer.append(footer);
+                    exhausted = true;
+                    break;
+                }
+                rowWriter.write(resultSet, buffer);
+            }
+            return buffer;
+        }
+
+        private void close() {
+            try (connection; statement; resultSet) {
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // Read-only cursor, nothing to recover
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.devopservice.export;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row writers for the schedule exports. They read columns straight off the
+ * cursor and append into the caller's buffer without building entities.
+ */
+public final class ScheduleFormats {
+
+    public static final String CSV_HEADER = "date,shift_id,required_role,start_time,end_time,worker_id,worker_name,hours\n";
+
+    public static final String ICS_HEADER = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//devopservice//scheduler//EN\r\n"
+        + "CALSCALE:GREGORIAN\r\n";
+    public static final String ICS_FOOTER = "END:VCALENDAR\r\n";
+
+    private ScheduleFormats() {
+    }
+
+    /** Expects: shift id, date, required_role, start_time, end_time, worker_id, worker_name. */
+    public static void csvRow(ResultSet rs, StringBuilder out) throws SQLException {
+        LocalDateTime start = rs.getTimestamp(4).toLocalDateTime();
+        LocalDateTime end = rs.getTimestamp(5).toLocalDateTime();
+        UUID workerId = rs.getObject(6, UUID.class);
+        out.append(rs.getDate(2).toLocalDate()).append(',')
+            .append(rs.getObject(1, UUID.class)).append(',');
+        appendCsvField(out, rs.getString(3));
+        out.append(',').append(start).append(',').append(end).append(',');
+        if (workerId != null) {
+            out.append(workerId);
+        }
+        out.append(',');
+        appendCsvField(out, rs.getString(7));
+        out.append(',');
+        appendHours(out, Duration.between(start, end).toMinutes());
+        out.append('\n');
+    }
+
+    /** Expects: assignment id, required_role, start_time, end_time. */
+    public static void icsEvent(ResultSet rs, StringBuilder out, Timestamp stamp) throws SQLException {
+        out.append("BEGIN:VEVENT\r\nUID:").append(rs.getObject(1, UUID.class)).append("@scheduler\r\n");
+        out.append("DTSTAMP:");
+        appendIcsDateTime(out, stamp.toLocalDateTime());
+        out.append("\r\nDTSTART:");
+        appendIcsDateTime(out, rs.getTimestamp(3).toLocalDateTime());
+        out.append("\r\nDTEND:");
+        appendIcsDateTime(out, rs.getTimestamp(4).toLocalDateTime());
+        out.append("\r\nSUMMARY:");
+        appendIcsText(out, rs.getString(2));
+        out.append(" shift\r\nEND:VEVENT\r\n");
+    }
+
+    static void appendCsvField(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    static void appendHours(StringBuilder out, long minutes) {
+        long hundredths = Math.round(minutes * 100 / 60.0);
+        out.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    // Floating local time (yyyyMMdd'T'HHmmss), matching how shifts are stored
+    static void appendIcsDateTime(StringBuilder out, LocalDateTime time) {
+        out.append(time.getYear());
+        pad2(out, time.getMonthValue());
+        pad2(out, time.getDayOfMonth());
+        out.append('T');
+        pad2(out, time.getHour());
+        pad2(out, time.getMinute());
+        pad2(out, time.getSecond());
+    }
+
+    static void appendIcsText(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> out.append('\\').append(c);
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static void pad2(StringBuilder out, int value) {
+        if (value < 10) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+}
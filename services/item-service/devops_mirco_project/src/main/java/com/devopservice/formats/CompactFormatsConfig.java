@@ -0,0 +1,48 @@
+package com.devopservice.formats;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary response formats for clients that ask for them with {@code Accept}:
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}),
+ * plus Blackbird's generated accessors for every Jackson mapper. Clients that
+ * send no such {@code Accept} still get JSON. The binary mappers get the same
+ * Boot customisation as the JSON one, so field names and date handling match.
+ */
+@Configuration
+public class CompactFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+        ObjectProvider<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        return new MappingJackson2CborHttpMessageConverter(customized(Jackson2ObjectMapperBuilder.cbor(), customizers));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+        ObjectProvider<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        return new MappingJackson2SmileHttpMessageConverter(
+            customized(Jackson2ObjectMapperBuilder.smile(), customizers));
+    }
+
+    /** Picked up by Boot's Jackson auto-configuration, and through the customizers by the binary mappers. */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    private static ObjectMapper customized(
+        Jackson2ObjectMapperBuilder builder, ObjectProvider<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder.build();
+    }
+}
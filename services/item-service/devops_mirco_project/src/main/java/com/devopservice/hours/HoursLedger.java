@@ -0,0 +1,267 @@
+package com.devopservice.hours;
+
+import com.devopservice.dto.WeeklyHours;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Assigned minutes per worker and ISO week, kept in {@code worker_week_hours}
+ * and changed in the caller's transaction by every assignment change. The row
+ * is locked while it changes, so the weekly cap holds under concurrent claims
+ * for the same worker; committed values are mirrored in memory for reads.
+ * Shifts count towards the week of their date. Must be called inside the
+ * caller's transaction.
+ */
+@Component
+public class HoursLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(HoursLedger.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String LOCK_ROW = """
+        SELECT minutes, version FROM worker_week_hours
+        WHERE worker_id = ? AND iso_week = ?
+        FOR UPDATE
+        """;
+
+    private static final String SHIFT_ASSIGNMENTS = """
+        SELECT a.worker_id, s.date, s.start_time, s.end_time
+        FROM shiftassignment a
+        JOIN shift s ON s.id = a.shift_id AND s.date = a.shift_date
+        WHERE a.shift_id = ?
+        """;
+
+    private static final String RANGE_ASSIGNMENTS = """
+        SELECT a.worker_id, s.date, s.start_time, s.end_time
+        FROM shiftassignment a
+        JOIN shift s ON s.id = a.shift_id AND s.date = a.shift_date
+        WHERE a.shift_date BETWEEN ? AND ?
+        """;
+
+    private static final RowMapper<Booking> BOOKING = (rs, i) -> new Booking(
+        rs.getObject("worker_id", UUID.class),
+        rs.getObject("date", LocalDate.class),
+        rs.getTimestamp("start_time").toLocalDateTime(),
+        rs.getTimestamp("end_time").toLocalDateTime());
+
+    private static final String WORKER_WEEK_SHIFTS = """
+        SELECT s.start_time, s.end_time
+        FROM shiftassignment a
+        JOIN shift s ON s.id = a.shift_id AND s.date = a.shift_date
+        WHERE a.worker_id = ? AND a.shift_date BETWEEN ? AND ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int capMinutes;
+    private final WeekMinutes mirror = new WeekMinutes();
+    private volatile int mirroredFrom = Integer.MAX_VALUE;
+
+    public HoursLedger(DataSource dataSource, @Value("${app.scheduler.hours.weekly-cap-hours:48}") int capHours) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.capMinutes = capHours * 60;
+    }
+
+    /**
+     * Books the shift's minutes for the worker.
+     *
+     * @throws ResponseStatusException 409 if that would take the worker past the weekly cap
+     */
+    public void assign(UUID workerId, LocalDate date, LocalDateTime start, LocalDateTime end) {
+        int shiftMinutes = minutes(start, end);
+        change(workerId, isoWeek(date), (week, current) -> {
+            if (capMinutes > 0 && current + shiftMinutes > capMinutes) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, String.format(Locale.ROOT,
+                    "Shift would take the worker to %.1f hours in %s, over the %d hour limit",
+                    (current + shiftMinutes) / 60.0, format(week), capMinutes / 60));
+            }
+            return shiftMinutes;
+        });
+    }
+
+    /** Gives the shift's minutes back, e.g. on unassign. */
+    public void release(UUID workerId, LocalDate date, LocalDateTime start, LocalDateTime end) {
+        int shiftMinutes = minutes(start, end);
+        change(workerId, isoWeek(date), (week, current) -> -shiftMinutes);
+    }
+
+    /** Gives back the minutes of everyone assigned to the shift; call before its assignments are deleted. */
+    public void releaseShift(UUID shiftId) {
+        releaseAll(jdbcTemplate.query(SHIFT_ASSIGNMENTS, BOOKING, shiftId));
+    }
+
+    /**
+     * Gives back the minutes of everyone assigned to shifts dated {@code from}
+     * to {@code to}, optionally only those of one role, with one change per
+     * worker and week; call before the assignments are deleted.
+     */
+    public void releaseShifts(LocalDate from, LocalDate to, String role) {
+        List<Booking> bookings = role == null
+            ? jdbcTemplate.query(RANGE_ASSIGNMENTS, BOOKING, from, to)
+            : jdbcTemplate.query(RANGE_ASSIGNMENTS + " AND s.required_role = ?", BOOKING, from, to, role);
+        releaseAll(bookings);
+    }
+
+    /**
+     * Sets the worker's minutes for the week to what their assignments add up
+     * to. Returns the correction applied, 0 if the ledger was right.
+     */
+    public int recompute(UUID workerId, int week) {
+        int[] correction = new int[1];
+        change(workerId, week, (w, current) -> {
+            // Read under the row lock: every assignment change for this week takes it first
+            LocalDate monday = weekStart(w);
+            int actual = jdbcTemplate.query(WORKER_WEEK_SHIFTS, (rs, i) ->
+                    minutes(rs.getTimestamp("start_time").toLocalDateTime(), rs.getTimestamp("end_time").toLocalDateTime()),
+                    workerId, monday, monday.plusDays(6))
+                .stream().mapToInt(Integer::intValue).sum();
+            correction[0] = actual - current;
+            return correction[0];
+        });
+        return correction[0];
+    }
+
+    /**
+     * Minutes booked for the worker in {@code count} weeks starting with the
+     * one containing {@code from}. Recent weeks come from memory, older ones
+     * from the table.
+     */
+    public List<WeeklyHours> weeks(UUID workerId, LocalDate from, int count) {
+        List<WeeklyHours> result = new ArrayList<>(count);
+        LocalDate monday = from.with(DayOfWeek.MONDAY);
+        for (int i = 0; i < count; i++, monday = monday.plusWeeks(1)) {
+            int week = isoWeek(monday);
+            int booked = week >= mirroredFrom ? mirror.get(workerId, week) : stored(workerId, week);
+            result.add(new WeeklyHours(format(week), monday, booked, capMinutes > 0 ? capMinutes : null));
+        }
+        return result;
+    }
+
+    /** Takes a committed row into the mirror; older versions than the mirrored one are ignored. */
+    void mirror(UUID workerId, int week, int minutes, long version) {
+        mirror.put(workerId, week, minutes, version);
+    }
+
+    /** Marks the mirror complete from {@code oldestWeek} on and forgets anything older. */
+    void mirrorFrom(int oldestWeek) {
+        mirror.retainFrom(oldestWeek);
+        mirroredFrom = oldestWeek;
+    }
+
+    int mirrorSize() {
+        return mirror.size();
+    }
+
+    public static int isoWeek(LocalDate date) {
+        return date.get(IsoFields.WEEK_BASED_YEAR) * 100 + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
+
+    static LocalDate weekStart(int week) {
+        return LocalDate.of(week / 100, 1, 4)
+            .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, week % 100)
+            .with(DayOfWeek.MONDAY);
+    }
+
+    static String format(int week) {
+        return String.format(Locale.ROOT, "%d-W%02d", week / 100, week % 100);
+    }
+
+    static int minutes(LocalDateTime start, LocalDateTime end) {
+        return (int) Math.max(0, Duration.between(start, end).toMinutes());
+    }
+
+    private int stored(UUID workerId, int week) {
+        List<Integer> minutes = jdbcTemplate.queryForList(
+            "SELECT minutes FROM worker_week_hours WHERE worker_id = ? AND iso_week = ?", Integer.class, workerId, week);
+        return minutes.isEmpty() ? 0 : minutes.get(0);
+    }
+
+    /** Locks (or creates) the row and adds the delta the change works out from its current minutes. */
+    private void change(UUID workerId, int week, Change change) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            List<long[]> rows = jdbcTemplate.query(LOCK_ROW,
+                (rs, i) -> new long[] {rs.getInt("minutes"), rs.getLong("version")}, workerId, week);
+            int current = rows.isEmpty() ? 0 : (int) rows.get(0)[0];
+            int next = current + change.delta(week, current);
+            if (next < 0) {
+                log.warn("Hours ledger for worker {} in {} would drop to {} minutes; left at 0 until reconciled",
+                    workerId, format(week), next);
+                next = 0;
+            }
+            if (!rows.isEmpty()) {
+                if (next != current) {
+                    long version = rows.get(0)[1] + 1;
+                    jdbcTemplate.update("UPDATE worker_week_hours SET minutes = ?, version = ? WHERE worker_id = ? AND iso_week = ?",
+                        next, version, workerId, week);
+                    afterCommit(workerId, week, next, version);
+                }
+                return;
+            }
+            if (next == 0) {
+                return;
+            }
+            // Not a caught duplicate key: on Postgres that would abort the caller's transaction
+            if (jdbcTemplate.update("""
+                INSERT INTO worker_week_hours (worker_id, iso_week, minutes, version) VALUES (?, ?, ?, 1)
+                ON CONFLICT (worker_id, iso_week) DO NOTHING
+                """, workerId, week, next) == 1) {
+                afterCommit(workerId, week, next, 1);
+                return;
+            }
+            // A concurrent first booking for the same week won; lock its row and check again
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Hours ledger is busy, try again");
+    }
+
+    private void releaseAll(List<Booking> bookings) {
+        Map<UUID, Map<Integer, Integer>> minutes = new TreeMap<>();
+        for (Booking b : bookings) {
+            minutes.computeIfAbsent(b.workerId(), w -> new TreeMap<>())
+                .merge(isoWeek(b.date()), minutes(b.start(), b.end()), Integer::sum);
+        }
+        // Rows are locked in worker order so two removals sharing workers cannot deadlock
+        minutes.forEach((workerId, weeks) -> weeks.forEach((week, released) ->
+            change(workerId, week, (w, current) -> -released)));
+    }
+
+    private void afterCommit(UUID workerId, int week, int minutes, long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            mirror.put(workerId, week, minutes, version);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mirror.put(workerId, week, minutes, version);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Change {
+        int delta(int week, int currentMinutes);
+    }
+
+    private record Booking(UUID workerId, LocalDate date, LocalDateTime start, LocalDateTime end) {}
+}
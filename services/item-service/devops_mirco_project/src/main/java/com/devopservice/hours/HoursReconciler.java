@@ -0,0 +1,131 @@
+package com.devopservice.hours;
+
+import com.devopservice.routing.DataSourceRoute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fills the {@link HoursLedger} mirror on startup and, nightly, compares the
+ * ledger with what the assignments add up to for the retained weeks. Drifted
+ * rows (a write that bypassed the ledger, a manual fix in the database) are
+ * recomputed one worker-week at a time under the ledger's row lock, and the
+ * mirror is reloaded to pick up changes made by other instances.
+ */
+@Component
+public class HoursReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(HoursReconciler.class);
+
+    private static final String ASSIGNED_SHIFTS = """
+        SELECT a.worker_id, s.date, s.start_time, s.end_time
+        FROM shiftassignment a
+        JOIN shift s ON s.id = a.shift_id AND s.date = a.shift_date
+        WHERE a.shift_date >= ? AND s.date >= ?
+        """;
+
+    private final HoursLedger ledger;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final int retainedWeeks;
+
+    public HoursReconciler(HoursLedger ledger, DataSource dataSource, PlatformTransactionManager txManager,
+                           @Value("${app.scheduler.hours.retained-weeks:8}") int retainedWeeks) {
+        this.ledger = ledger;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.tx = new TransactionTemplate(txManager);
+        this.retainedWeeks = retainedWeeks;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        int oldestWeek = HoursLedger.isoWeek(oldestDate());
+        // The primary: a lagging replica would hand the mirror versions older than ones it already has
+        DataSourceRoute.onPrimary(() -> jdbcTemplate.query(
+            "SELECT worker_id, iso_week, minutes, version FROM worker_week_hours WHERE iso_week >= ?",
+            rs -> {
+                ledger.mirror(rs.getObject("worker_id", UUID.class), rs.getInt("iso_week"),
+                    rs.getInt("minutes"), rs.getLong("version"));
+            }, oldestWeek));
+        ledger.mirrorFrom(oldestWeek);
+        log.info("Hours ledger mirrored: {} worker-weeks from {} in {} ms", ledger.mirrorSize(),
+            HoursLedger.format(oldestWeek), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /** Reloads the mirror for the given ISO weeks, e.g. after another instance changed assignments in them. */
+    public void reload(Collection<Integer> weeks) {
+        if (weeks.isEmpty()) {
+            return;
+        }
+        DataSourceRoute.onPrimary(() -> new NamedParameterJdbcTemplate(jdbcTemplate).query(
+            "SELECT worker_id, iso_week, minutes, version FROM worker_week_hours WHERE iso_week IN (:weeks)",
+            Map.of("weeks", weeks), rs -> {
+                ledger.mirror(rs.getObject("worker_id", UUID.class), rs.getInt("iso_week"),
+                    rs.getInt("minutes"), rs.getLong("version"));
+            }));
+    }
+
+    @Scheduled(cron = "${app.scheduler.hours.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        LocalDate oldestDate = oldestDate();
+        int oldestWeek = HoursLedger.isoWeek(oldestDate);
+        Map<WorkerWeek, Integer> expected = new HashMap<>();
+        Map<WorkerWeek, Integer> booked = new HashMap<>();
+        DataSourceRoute.onPrimary(() -> {
+            jdbcTemplate.query(ASSIGNED_SHIFTS, rs -> {
+                WorkerWeek key = new WorkerWeek(rs.getObject("worker_id", UUID.class),
+                    HoursLedger.isoWeek(rs.getObject("date", LocalDate.class)));
+                expected.merge(key, HoursLedger.minutes(rs.getTimestamp("start_time").toLocalDateTime(),
+                    rs.getTimestamp("end_time").toLocalDateTime()), Integer::sum);
+            }, oldestDate, oldestDate);
+            jdbcTemplate.query("SELECT worker_id, iso_week, minutes FROM worker_week_hours WHERE iso_week >= ?",
+                rs -> {
+                    booked.put(new WorkerWeek(rs.getObject("worker_id", UUID.class), rs.getInt("iso_week")),
+                        rs.getInt("minutes"));
+                }, oldestWeek);
+        });
+
+        int corrected = 0;
+        Map<WorkerWeek, Integer> suspects = new HashMap<>(booked);
+        expected.forEach((key, minutes) -> suspects.merge(key, -minutes, Integer::sum));
+        for (Map.Entry<WorkerWeek, Integer> suspect : suspects.entrySet()) {
+            if (suspect.getValue() == 0) {
+                continue;
+            }
+            // Both scans were snapshots; the recount under the row lock decides, usually finding nothing to do
+            WorkerWeek key = suspect.getKey();
+            Integer correction = tx.execute(status -> ledger.recompute(key.workerId(), key.week()));
+            if (correction != null && correction != 0) {
+                corrected++;
+                log.warn("Hours ledger drift for worker {} in {}: corrected by {} minutes",
+                    key.workerId(), HoursLedger.format(key.week()), correction);
+            }
+        }
+        log.info("Hours ledger reconciled: {} worker-weeks checked, {} corrected", suspects.size(), corrected);
+        load();
+    }
+
+    private LocalDate oldestDate() {
+        return LocalDate.now().minusWeeks(retainedWeeks).with(DayOfWeek.MONDAY);
+    }
+
+    private record WorkerWeek(UUID workerId, int week) {}
+}
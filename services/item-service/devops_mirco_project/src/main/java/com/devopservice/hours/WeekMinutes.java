@@ -0,0 +1,99 @@
+package com.devopservice.hours;
+
+import java.util.UUID;
+
+/**
+ * In-memory mirror of {@code worker_week_hours}: (worker, ISO week) to
+ * assigned minutes, in an open-addressing table over parallel primitive
+ * arrays so a hundred thousand workers times a few weeks costs no boxing.
+ * Every value carries the row version it was read or written with and an
+ * older version never overwrites a newer one, so commits may be applied in
+ * any order and a reload can run alongside them.
+ */
+class WeekMinutes {
+
+    private long[] high = new long[1024];
+    private long[] low = new long[1024];
+    private int[] weeks = new int[1024];
+    private int[] minutes = new int[1024];
+    private long[] versions = new long[1024];
+    private int size;
+
+    /** Minutes for the worker and week, 0 if there is no row. */
+    synchronized int get(UUID workerId, int week) {
+        int slot = find(workerId.getMostSignificantBits(), workerId.getLeastSignificantBits(), week);
+        return weeks[slot] == 0 ? 0 : minutes[slot];
+    }
+
+    synchronized void put(UUID workerId, int week, int value, long version) {
+        long h = workerId.getMostSignificantBits();
+        long l = workerId.getLeastSignificantBits();
+        int slot = find(h, l, week);
+        if (weeks[slot] != 0) {
+            if (versions[slot] < version) {
+                minutes[slot] = value;
+                versions[slot] = version;
+            }
+            return;
+        }
+        if (2 * (size + 1) > weeks.length) {
+            rehash(weeks.length * 2, 0);
+            slot = find(h, l, week);
+        }
+        high[slot] = h;
+        low[slot] = l;
+        weeks[slot] = week;
+        minutes[slot] = value;
+        versions[slot] = version;
+        size++;
+    }
+
+    /** Drops every week before {@code oldestWeek}. */
+    synchronized void retainFrom(int oldestWeek) {
+        int capacity = weeks.length;
+        while (capacity > 1024 && 4 * size < capacity) {
+            capacity >>= 1;
+        }
+        rehash(capacity, oldestWeek);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private int find(long h, long l, int week) {
+        int mask = weeks.length - 1;
+        long hash = (h ^ Long.rotateLeft(l, 17) ^ week) * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        // Weeks are yyyyww, never 0, so 0 marks a free slot
+        while (weeks[slot] != 0 && (weeks[slot] != week || high[slot] != h || low[slot] != l)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity, int oldestWeek) {
+        long[] oldHigh = high;
+        long[] oldLow = low;
+        int[] oldWeeks = weeks;
+        int[] oldMinutes = minutes;
+        long[] oldVersions = versions;
+        high = new long[capacity];
+        low = new long[capacity];
+        weeks = new int[capacity];
+        minutes = new int[capacity];
+        versions = new long[capacity];
+        size = 0;
+        for (int i = 0; i < oldWeeks.length; i++) {
+            if (oldWeeks[i] != 0 && oldWeeks[i] >= oldestWeek) {
+                int slot = find(oldHigh[i], oldLow[i], oldWeeks[i]);
+                high[slot] = oldHigh[i];
+                low[slot] = oldLow[i];
+                weeks[slot] = oldWeeks[i];
+                minutes[slot] = oldMinutes[i];
+                versions[slot] = oldVersions[i];
+                size++;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.devopservice.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter(
+        IdempotencyStore store,
+        @Value("${app.scheduler.idempotency.paths:/api/shifts,/api/scheduler,/api/shift-assignments,"
+            + "/api/shift-assignments/assign,/api/shift-assignments/claim}") Set<String> paths) {
+        return new IdempotencyFilter(store, paths);
+    }
+}
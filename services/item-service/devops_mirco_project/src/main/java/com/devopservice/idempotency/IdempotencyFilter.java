@@ -0,0 +1,201 @@
+package com.devopservice.idempotency;
+
+import com.devopservice.idempotency.IdempotencyStore.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Runs a POST sent with an {@code Idempotency-Key} at most once per caller,
+ * path and key (see {@link IdempotencyStore}); retries get the first response
+ * back with {@code Idempotency-Replayed: true}. Only the status, content type
+ * and body are replayed. 5xx, 408 and 429 responses are not kept, so the
+ * request can be retried for real.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
+
+    public static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    private static final String USER_HEADER = "X-User-Id";
+    private static final Pattern KEY = Pattern.compile("[\\x21-\\x7E]{1,255}");
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final IdempotencyStore store;
+    private final Set<String> paths;
+
+    public IdempotencyFilter(IdempotencyStore store, Set<String> paths) {
+        this.store = store;
+        this.paths = Set.copyOf(paths);
+    }
+
+    @Override
+    public int getOrder() {
+        // Inside the timing and metrics filters, so replays show up in both
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(HEADER) == null
+            || !paths.contains(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (!KEY.matcher(key).matches()) {
+            reject(response, HttpServletResponse.SC_BAD_REQUEST, HEADER + " must be 1 to 255 visible ASCII characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            reject(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                "Requests with an " + HEADER + " are limited to " + MAX_BODY_BYTES + " bytes");
+            return;
+        }
+        String scope = Objects.requireNonNullElse(request.getHeader(USER_HEADER), "-") + " " + path(request) + " " + key;
+        String fingerprint = sha256(body);
+
+        StoredResponse stored;
+        try {
+            stored = store.begin(scope, fingerprint);
+        } catch (ResponseStatusException ex) {
+            reject(response, ex.getStatusCode().value(), ex.getReason());
+            return;
+        }
+        if (stored != null) {
+            replay(response, stored);
+            return;
+        }
+
+        ContentCachingResponseWrapper recorded = new ContentCachingResponseWrapper(response);
+        boolean kept = false;
+        try {
+            chain.doFilter(new BufferedRequest(request, body), recorded);
+            int status = recorded.getStatus();
+            if (status < 500 && status != HttpServletResponse.SC_REQUEST_TIMEOUT && status != 429) {
+                store.complete(scope, new StoredResponse(fingerprint, status, recorded.getContentType(),
+                    recorded.getContentAsByteArray()));
+                kept = true;
+            }
+        } finally {
+            if (!kept) {
+                store.abandon(scope);
+            }
+            recorded.copyBodyToResponse();
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        byte[] body = stored.body() == null ? new byte[0] : stored.body();
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static void reject(HttpServletResponse response, int status, String reason) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(reason);
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** The request with its body already read into memory, for the controller to read again. */
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private BufferedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Body is already buffered");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
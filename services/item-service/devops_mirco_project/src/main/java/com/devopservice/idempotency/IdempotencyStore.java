@@ -0,0 +1,261 @@
+package com.devopservice.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Outcomes of requests sent with an idempotency key: a bounded in-memory LRU
+ * in front of the {@code idempotency_key} table. {@link #begin} either returns
+ * a stored response to replay or makes the caller the one request that runs
+ * for the scope, which must then {@link #complete} or {@link #abandon} it.
+ * Duplicates that arrive meanwhile wait for that outcome, through a future on
+ * this instance and by polling the row on the others.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final long POLL_MILLIS = 50;
+
+    private static final RowMapper<Row> ROW = (rs, i) -> {
+        String fingerprint = rs.getString("fingerprint");
+        Integer status = rs.getObject("status_code", Integer.class);
+        return new Row(fingerprint, status == null ? null
+            : new StoredResponse(fingerprint, status, rs.getString("content_type"), rs.getBytes("body")),
+            rs.getTimestamp("expires_at").toLocalDateTime());
+    };
+
+    public record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {}
+
+    private record Row(String fingerprint, StoredResponse response, LocalDateTime expiresAt) {}
+
+    private record Running(String fingerprint, CompletableFuture<StoredResponse> outcome) {}
+
+    private record Cached(StoredResponse response, LocalDateTime expiresAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration lease;
+    private final long waitNanos;
+    private final Map<String, Cached> cache;
+    private final ConcurrentHashMap<String, Running> running = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(DataSource dataSource,
+                            @Value("${app.scheduler.idempotency.ttl-hours:24}") int ttlHours,
+                            @Value("${app.scheduler.idempotency.max-cached:10000}") int maxCached,
+                            @Value("${app.scheduler.idempotency.lease-seconds:60}") int leaseSeconds,
+                            @Value("${app.scheduler.idempotency.wait-ms:10000}") long waitMillis) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > maxCached;
+            }
+        });
+    }
+
+    /**
+     * Returns the response to replay for the scope, or null if the caller is
+     * the one to run the request.
+     *
+     * @throws ResponseStatusException 422 if the scope was used for a different request,
+     *                                 409 if its first request is still running after the wait
+     */
+    public StoredResponse begin(String scope, String fingerprint) {
+        long deadline = System.nanoTime() + waitNanos;
+        while (true) {
+            StoredResponse done = cached(scope);
+            if (done != null) {
+                return matching(done, fingerprint);
+            }
+            Running mine = new Running(fingerprint, new CompletableFuture<>());
+            Running first = running.putIfAbsent(scope, mine);
+            if (first != null) {
+                matching(first.fingerprint(), fingerprint);
+                StoredResponse outcome = await(first.outcome(), deadline);
+                if (outcome != null) {
+                    return outcome;
+                }
+                // The first one failed without a response to keep; run it here instead
+                continue;
+            }
+            StoredResponse stored;
+            try {
+                stored = claim(scope, fingerprint, deadline);
+            } catch (RuntimeException ex) {
+                finish(scope, null);
+                throw ex;
+            }
+            if (stored != null) {
+                finish(scope, stored);
+                return matching(stored, fingerprint);
+            }
+            return null;
+        }
+    }
+
+    /** Keeps the response of a request {@link #begin} let the caller run and hands it to the waiting duplicates. */
+    public void complete(String scope, StoredResponse response) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        try {
+            jdbcTemplate.update("""
+                UPDATE idempotency_key SET status_code = ?, content_type = ?, body = ?, expires_at = ?
+                WHERE scope = ? AND fingerprint = ?
+                """, response.status(), response.contentType(), response.body(), Timestamp.valueOf(expiresAt),
+                scope, response.fingerprint());
+        } catch (RuntimeException ex) {
+            // Retries on this instance still replay; elsewhere the lease runs out and the key can run again
+            log.warn("Could not store the response for idempotency key {}: {}", scope, ex.getMessage());
+        }
+        cache.put(scope, new Cached(response, expiresAt));
+        finish(scope, response);
+    }
+
+    /** Gives the scope up without a response (e.g. a 5xx), so a retry runs the request again. */
+    public void abandon(String scope) {
+        try {
+            jdbcTemplate.update("DELETE FROM idempotency_key WHERE scope = ? AND status_code IS NULL", scope);
+        } catch (RuntimeException ex) {
+            log.warn("Could not release idempotency key {}, it frees up when its lease ends: {}", scope, ex.getMessage());
+        } finally {
+            finish(scope, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.idempotency.purge-interval-ms:60000}")
+    public void purge() {
+        int purged = jdbcTemplate.update("DELETE FROM idempotency_key WHERE expires_at < ?",
+            Timestamp.valueOf(LocalDateTime.now()));
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    int cachedSize() {
+        return cache.size();
+    }
+
+    private StoredResponse cached(String scope) {
+        Cached cached = cache.get(scope);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt().isBefore(LocalDateTime.now())) {
+            cache.remove(scope);
+            return null;
+        }
+        return cached.response();
+    }
+
+    /** Takes the row for this request, or returns the response another request already stored in it. */
+    private StoredResponse claim(String scope, String fingerprint, long deadline) {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                jdbcTemplate.update(
+                    "INSERT INTO idempotency_key (scope, fingerprint, created_at, expires_at) VALUES (?, ?, ?, ?)",
+                    scope, fingerprint, Timestamp.valueOf(now), Timestamp.valueOf(now.plus(lease)));
+                return null;
+            } catch (DuplicateKeyException ex) {
+                // Seen before: answered, running on another instance, or expired
+            }
+            List<Row> rows = jdbcTemplate.query(
+                "SELECT fingerprint, status_code, content_type, body, expires_at FROM idempotency_key WHERE scope = ?",
+                ROW, scope);
+            if (rows.isEmpty()) {
+                continue;
+            }
+            Row row = rows.get(0);
+            if (row.expiresAt().isBefore(now)) {
+                // A response past its TTL, or the lease of an instance that died mid-request: start afresh
+                int taken = jdbcTemplate.update("""
+                    UPDATE idempotency_key SET fingerprint = ?, status_code = NULL, content_type = NULL, body = NULL,
+                        created_at = ?, expires_at = ?
+                    WHERE scope = ? AND expires_at < ?
+                    """, fingerprint, Timestamp.valueOf(now), Timestamp.valueOf(now.plus(lease)), scope,
+                    Timestamp.valueOf(now));
+                if (taken == 1) {
+                    return null;
+                }
+                continue;
+            }
+            if (row.response() != null) {
+                cache.put(scope, new Cached(row.response(), row.expiresAt()));
+                return row.response();
+            }
+            matching(row.fingerprint(), fingerprint);
+            if (System.nanoTime() > deadline) {
+                throw stillRunning();
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw stillRunning();
+            }
+        }
+    }
+
+    private void finish(String scope, StoredResponse outcome) {
+        Running mine = running.remove(scope);
+        if (mine != null) {
+            mine.outcome().complete(outcome);
+        }
+    }
+
+    private static StoredResponse await(CompletableFuture<StoredResponse> outcome, long deadline) {
+        try {
+            return outcome.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw stillRunning();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw stillRunning();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private static StoredResponse matching(StoredResponse stored, String fingerprint) {
+        matching(stored.fingerprint(), fingerprint);
+        return stored;
+    }
+
+    private static void matching(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private static ResponseStatusException stillRunning() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+            "A request with this Idempotency-Key is still being processed");
+    }
+}
@@ -0,0 +1,70 @@
+package com.devopservice.invalidation;
+
+import com.devopservice.events.SchedulerChangeEvent;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * What another instance changed, as little as each node needs to refresh its
+ * own caches: the workers and shifts touched and the dates of new shifts (the
+ * dates of known shifts are looked up locally). {@code flush} means "anything
+ * may have changed" and drops every cache.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record Invalidation(
+    Set<UUID> workers,
+    Set<UUID> shifts,
+    Set<LocalDate> dates,
+    boolean flush
+) {
+
+    public static final Invalidation NONE = new Invalidation(Set.of(), Set.of(), Set.of(), false);
+    public static final Invalidation FLUSH = new Invalidation(Set.of(), Set.of(), Set.of(), true);
+
+    public Invalidation {
+        workers = workers == null || flush ? Set.of() : Set.copyOf(workers);
+        shifts = shifts == null || flush ? Set.of() : Set.copyOf(shifts);
+        dates = dates == null || flush ? Set.of() : Set.copyOf(dates);
+    }
+
+    public static Invalidation of(SchedulerChangeEvent event) {
+        return switch (event.type()) {
+            case WORKER_CREATED -> new Invalidation(Set.of(event.workerId()), Set.of(), Set.of(), false);
+            case SHIFT_CREATED -> new Invalidation(Set.of(), Set.of(event.shiftId()), Set.of(event.date()), false);
+            // The worker's hours changed as well; the shift's week is reloaded for them
+            case SHIFT_REMOVED, SHIFT_ASSIGNED, SHIFT_UNASSIGNED ->
+                new Invalidation(Set.of(), Set.of(event.shiftId()), Set.of(), false);
+        };
+    }
+
+    public Invalidation merge(Invalidation other) {
+        if (flush || other.flush) {
+            return FLUSH;
+        }
+        if (other.isEmpty()) {
+            return this;
+        }
+        return new Invalidation(union(workers, other.workers), union(shifts, other.shifts),
+            union(dates, other.dates), false);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return !flush && workers.isEmpty() && shifts.isEmpty() && dates.isEmpty();
+    }
+
+    /** Ids and dates carried; a flush carries none. */
+    public int size() {
+        return workers.size() + shifts.size() + dates.size();
+    }
+
+    private static <T> Set<T> union(Set<T> a, Set<T> b) {
+        return a.isEmpty() ? b : b.isEmpty() ? a : Stream.concat(a.stream(), b.stream()).collect(Collectors.toSet());
+    }
+}
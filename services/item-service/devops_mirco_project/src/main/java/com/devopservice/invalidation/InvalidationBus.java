@@ -0,0 +1,16 @@
+package com.devopservice.invalidation;
+
+/**
+ * Carries {@link Invalidation}s to the other instances sharing the database,
+ * which hand them to their {@link InvalidationReceiver}. An instance never
+ * receives its own.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Sends the invalidation. Called inside the transaction that made the
+     * change where there is one, and it must not reach anyone if that
+     * transaction rolls back.
+     */
+    void publish(Invalidation invalidation);
+}
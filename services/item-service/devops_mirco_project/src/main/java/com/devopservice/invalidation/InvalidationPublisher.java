@@ -0,0 +1,56 @@
+package com.devopservice.invalidation;
+
+import com.devopservice.events.SchedulerChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Turns the controllers' change events into invalidations for the other
+ * instances. The changes of one transaction are merged and published once,
+ * just before it commits, so cancelling a week of shifts sends one message
+ * rather than one per shift.
+ */
+@Component
+public class InvalidationPublisher {
+
+    private final InvalidationBus bus;
+
+    public InvalidationPublisher(InvalidationBus bus) {
+        this.bus = bus;
+    }
+
+    // A plain listener: it has to run while the transaction is still open to join it
+    @EventListener
+    public void on(SchedulerChangeEvent event) {
+        Invalidation invalidation = Invalidation.of(event);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bus.publish(invalidation);
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.merged = pending.merged.merge(invalidation);
+    }
+
+    private final class Pending implements TransactionSynchronization {
+        private Invalidation merged = Invalidation.NONE;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!merged.isEmpty()) {
+                bus.publish(merged);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationPublisher.this);
+        }
+    }
+}
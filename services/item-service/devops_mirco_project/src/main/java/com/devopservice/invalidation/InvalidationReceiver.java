@@ -0,0 +1,106 @@
+package com.devopservice.invalidation;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Applies invalidations from other instances to the {@link LocalCaches} on a
+ * thread of its own. Whatever arrives within the coalescing window of the
+ * first one is merged into it, so a burst of changes costs one refresh per
+ * cache rather than one per change. Invalidations received before startup has
+ * finished wait in the queue until the caches are loaded.
+ */
+@Component
+public class InvalidationReceiver {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationReceiver.class);
+
+    private static final long RETRY_MILLIS = 1000;
+
+    private final Consumer<Invalidation> apply;
+    private final long coalesceNanos;
+    private final BlockingQueue<Invalidation> queue = new LinkedBlockingQueue<>();
+    private Thread worker;
+
+    @Autowired
+    public InvalidationReceiver(LocalCaches caches,
+                                @Value("${app.scheduler.invalidation.coalesce-ms:100}") long coalesceMillis) {
+        this(caches::apply, coalesceMillis);
+    }
+
+    InvalidationReceiver(Consumer<Invalidation> apply, long coalesceMillis) {
+        this.apply = apply;
+        this.coalesceNanos = TimeUnit.MILLISECONDS.toNanos(coalesceMillis);
+    }
+
+    public void receive(Invalidation invalidation) {
+        if (!invalidation.isEmpty()) {
+            queue.add(invalidation);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (worker == null) {
+            worker = new Thread(this::run, "cache-invalidation");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Invalidation next = coalesce(queue.take());
+                try {
+                    apply.accept(next);
+                } catch (RuntimeException ex) {
+                    // Most likely the database; the caches stay stale until it is back, so keep trying
+                    log.warn("Could not apply cache invalidation, retrying in {} ms: {}", RETRY_MILLIS, ex.getMessage());
+                    Thread.sleep(RETRY_MILLIS);
+                    queue.add(next);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Merges everything that arrives within the coalescing window into {@code first}. */
+    Invalidation coalesce(Invalidation first) throws InterruptedException {
+        Invalidation merged = first;
+        long deadline = System.nanoTime() + coalesceNanos;
+        long remaining;
+        while (!merged.flush() && (remaining = deadline - System.nanoTime()) > 0) {
+            Invalidation more = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (more == null) {
+                break;
+            }
+            merged = merged.merge(more);
+        }
+        // Whatever is already queued rides along for free
+        for (Invalidation more; (more = queue.poll()) != null; ) {
+            merged = merged.merge(more);
+        }
+        return merged;
+    }
+}
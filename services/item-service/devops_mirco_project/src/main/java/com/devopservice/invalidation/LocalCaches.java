@@ -0,0 +1,83 @@
+package com.devopservice.invalidation;
+
+import com.devopservice.analytics.CoverageAnalytics;
+import com.devopservice.entities.Worker;
+import com.devopservice.hours.HoursLedger;
+import com.devopservice.hours.HoursReconciler;
+import com.devopservice.roster.RosterBootstrap;
+import com.devopservice.roster.RosterReadModel;
+import com.devopservice.search.WorkerSearchBootstrap;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * This instance's in-memory copies of the tables: the Hibernate second-level
+ * cache, the roster and worker search read models, the hours ledger mirror and
+ * the coverage reports. An {@link Invalidation} from another instance reloads
+ * the parts it names from the primary; a flush rebuilds all of them.
+ */
+@Component
+public class LocalCaches {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalCaches.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CoverageAnalytics coverageAnalytics;
+    private final RosterReadModel roster;
+    private final RosterBootstrap rosterBootstrap;
+    private final WorkerSearchBootstrap workerSearchBootstrap;
+    private final HoursReconciler hoursReconciler;
+
+    public LocalCaches(EntityManagerFactory entityManagerFactory, CoverageAnalytics coverageAnalytics,
+                       RosterReadModel roster, RosterBootstrap rosterBootstrap,
+                       WorkerSearchBootstrap workerSearchBootstrap, HoursReconciler hoursReconciler) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.coverageAnalytics = coverageAnalytics;
+        this.roster = roster;
+        this.rosterBootstrap = rosterBootstrap;
+        this.workerSearchBootstrap = workerSearchBootstrap;
+        this.hoursReconciler = hoursReconciler;
+    }
+
+    public void apply(Invalidation invalidation) {
+        if (invalidation.flush()) {
+            flush();
+            return;
+        }
+        if (!invalidation.workers().isEmpty()) {
+            invalidation.workers().forEach(id -> entityManagerFactory.getCache().evict(Worker.class, id));
+            workerSearchBootstrap.add(invalidation.workers());
+        }
+        if (!invalidation.shifts().isEmpty() || !invalidation.dates().isEmpty()) {
+            coverageAnalytics.clear();
+            Set<LocalDate> days = new HashSet<>(invalidation.dates());
+            days.addAll(roster.datesOf(invalidation.shifts()));
+            rosterBootstrap.reload(days);
+            // Assignment changes move hours in the shift's week, for workers this message does not name
+            Set<Integer> weeks = new TreeSet<>();
+            days.forEach(day -> weeks.add(HoursLedger.isoWeek(day)));
+            hoursReconciler.reload(weeks);
+        }
+        log.debug("Applied cache invalidation: {} workers, {} shifts, {} dates", invalidation.workers().size(),
+            invalidation.shifts().size(), invalidation.dates().size());
+    }
+
+    private void flush() {
+        long started = System.nanoTime();
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        coverageAnalytics.clear();
+        rosterBootstrap.rebuild();
+        workerSearchBootstrap.rebuild();
+        hoursReconciler.load();
+        log.info("Local caches flushed and reloaded in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+}
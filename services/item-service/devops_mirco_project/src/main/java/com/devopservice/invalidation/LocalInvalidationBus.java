@@ -0,0 +1,66 @@
+package com.devopservice.invalidation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-JVM stand-in for {@link PostgresInvalidationBus}: every bus on the same
+ * {@link Hub} hears the others, after the publishing transaction commits. Used
+ * by tests, and by a single instance that has no one to tell.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.scheduler.invalidation", name = "transport", havingValue = "local")
+public class LocalInvalidationBus implements InvalidationBus {
+
+    /** The instances that hear each other; one per JVM unless a test wants several clusters. */
+    public static final class Hub {
+        private final List<LocalInvalidationBus> members = new CopyOnWriteArrayList<>();
+    }
+
+    private static final Hub SHARED = new Hub();
+
+    private final Hub hub;
+    private final InvalidationReceiver receiver;
+
+    public LocalInvalidationBus(InvalidationReceiver receiver) {
+        this(SHARED, receiver);
+    }
+
+    LocalInvalidationBus(Hub hub, InvalidationReceiver receiver) {
+        this.hub = hub;
+        this.receiver = receiver;
+        hub.members.add(this);
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(invalidation);
+            return;
+        }
+        // Like NOTIFY: nothing goes out unless the transaction commits
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deliver(invalidation);
+            }
+        });
+    }
+
+    void close() {
+        hub.members.remove(this);
+    }
+
+    private void deliver(Invalidation invalidation) {
+        for (LocalInvalidationBus member : hub.members) {
+            if (member != this) {
+                member.receiver.receive(invalidation);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.devopservice.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Invalidations over Postgres {@code LISTEN/NOTIFY}. Publishing is a
+ * {@code pg_notify} on the caller's transaction, so Postgres delivers it on
+ * commit and drops it on rollback. Listening needs a session of its own, so
+ * it holds one connection outside the pool. NOTIFY is not stored: whatever is
+ * sent while that connection is down is lost, so after a reconnect every
+ * cache is flushed instead.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.scheduler.invalidation", name = "transport", havingValue = "postgres",
+    matchIfMissing = true)
+public class PostgresInvalidationBus implements InvalidationBus, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    // NOTIFY payloads must stay under 8000 bytes; larger changes are sent as a flush
+    static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_MILLIS = 1000;
+    // A silently dropped connection never reports a notification or an error; a query finds out
+    private static final long PING_NANOS = 30_000_000_000L;
+
+    record Message(String origin, Invalidation invalidation) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final InvalidationReceiver receiver;
+    private final DataSourceProperties dataSource;
+    private final String channel;
+    private final long reconnectMillis;
+    private final String origin = UUID.randomUUID().toString();
+    private volatile Thread listener;
+
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, InvalidationReceiver receiver,
+                                   DataSourceProperties dataSource,
+                                   @Value("${app.scheduler.invalidation.channel:scheduler_cache}") String channel,
+                                   @Value("${app.scheduler.invalidation.reconnect-ms:2000}") long reconnectMillis) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalidation channel must be a lower-case SQL identifier: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.receiver = receiver;
+        this.dataSource = dataSource;
+        this.channel = channel;
+        this.reconnectMillis = reconnectMillis;
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        String payload = encode(new Message(origin, invalidation));
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            payload = encode(new Message(origin, Invalidation.FLUSH));
+        }
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+    }
+
+    @Override
+    public synchronized void start() {
+        Thread thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        listener = thread;
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        Thread thread = listener;
+        listener = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return listener != null;
+    }
+
+    private void listen() {
+        boolean missed = false;
+        while (listener == Thread.currentThread()) {
+            try (Connection connection = DriverManager.getConnection(dataSource.determineUrl(),
+                dataSource.determineUsername(), dataSource.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (missed) {
+                    log.info("Listening for cache invalidations again, flushing local caches");
+                    receiver.receive(Invalidation.FLUSH);
+                    missed = false;
+                }
+                poll(connection);
+            } catch (SQLException ex) {
+                if (listener != Thread.currentThread()) {
+                    return;
+                }
+                missed = true;
+                log.warn("Cache invalidation listener lost its connection, retrying in {} ms: {}",
+                    reconnectMillis, ex.getMessage());
+                try {
+                    Thread.sleep(reconnectMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void poll(Connection connection) throws SQLException {
+        PGConnection pg = connection.unwrap(PGConnection.class);
+        long lastHeard = System.nanoTime();
+        while (listener == Thread.currentThread()) {
+            PGNotification[] notifications = pg.getNotifications(POLL_MILLIS);
+            if (notifications != null && notifications.length > 0) {
+                for (PGNotification notification : notifications) {
+                    deliver(notification.getParameter());
+                }
+                lastHeard = System.nanoTime();
+            } else if (System.nanoTime() - lastHeard > PING_NANOS) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                lastHeard = System.nanoTime();
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        Message message;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Unreadable cache invalidation, flushing local caches: {}", ex.getMessage());
+            receiver.receive(Invalidation.FLUSH);
+            return;
+        }
+        if (!origin.equals(message.origin()) && message.invalidation() != null) {
+            receiver.receive(message.invalidation());
+        }
+    }
+
+    private String encode(Message message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialise cache invalidation", ex);
+        }
+    }
+}
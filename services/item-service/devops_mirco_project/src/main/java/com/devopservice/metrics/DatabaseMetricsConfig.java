@@ -0,0 +1,34 @@
+package com.devopservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request statement counting. Repository method timers
+ * ({@code spring.data.repository.invocations}) and the Hikari pool gauges
+ * ({@code hikaricp.connections.*}) come from Boot's actuator already.
+ */
+@Configuration
+public class DatabaseMetricsConfig {
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public RequestMetricsFilter requestMetricsFilter(
+        MeterRegistry registry,
+        @Value("${app.metrics.statements-warn-threshold:50}") int warnThreshold) {
+        return new RequestMetricsFilter(registry, warnThreshold);
+    }
+}
@@ -0,0 +1,69 @@
+package com.devopservice.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes Hibernate's session-factory statistics (statements, entity and
+ * collection loads, flushes, queries, transactions) under the names
+ * hibernate-micrometer uses, so existing dashboards work. Cache statistics are
+ * bound by {@link com.devopservice.cache.HibernateCacheMetrics}. Needs
+ * {@code hibernate.generate_statistics}; binds nothing without it.
+ */
+@Component
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        counter(registry, statistics, "hibernate.statements", Tags.of("status", "prepared"),
+            Statistics::getPrepareStatementCount);
+        counter(registry, statistics, "hibernate.statements", Tags.of("status", "closed"),
+            Statistics::getCloseStatementCount);
+        counter(registry, statistics, "hibernate.sessions.open", Tags.empty(), Statistics::getSessionOpenCount);
+        counter(registry, statistics, "hibernate.flushes", Tags.empty(), Statistics::getFlushCount);
+        counter(registry, statistics, "hibernate.connections.obtained", Tags.empty(), Statistics::getConnectCount);
+        counter(registry, statistics, "hibernate.transactions", Tags.of("result", "success"),
+            Statistics::getSuccessfulTransactionCount);
+        counter(registry, statistics, "hibernate.transactions", Tags.of("result", "failure"),
+            s -> s.getTransactionCount() - s.getSuccessfulTransactionCount());
+        counter(registry, statistics, "hibernate.optimistic.failures", Tags.empty(),
+            Statistics::getOptimisticFailureCount);
+        counter(registry, statistics, "hibernate.entities.loads", Tags.empty(), Statistics::getEntityLoadCount);
+        counter(registry, statistics, "hibernate.entities.fetches", Tags.empty(), Statistics::getEntityFetchCount);
+        counter(registry, statistics, "hibernate.entities.inserts", Tags.empty(), Statistics::getEntityInsertCount);
+        counter(registry, statistics, "hibernate.entities.updates", Tags.empty(), Statistics::getEntityUpdateCount);
+        counter(registry, statistics, "hibernate.entities.deletes", Tags.empty(), Statistics::getEntityDeleteCount);
+        counter(registry, statistics, "hibernate.collections.loads", Tags.empty(), Statistics::getCollectionLoadCount);
+        counter(registry, statistics, "hibernate.collections.fetches", Tags.empty(),
+            Statistics::getCollectionFetchCount);
+        counter(registry, statistics, "hibernate.query.executions", Tags.empty(), Statistics::getQueryExecutionCount);
+        Gauge.builder("hibernate.query.executions.max", statistics, Statistics::getQueryExecutionMaxTime)
+            .description("Slowest query so far")
+            .baseUnit("milliseconds")
+            .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, Statistics statistics, String name, Tags tags,
+                                ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count).tags(tags).register(registry);
+    }
+}
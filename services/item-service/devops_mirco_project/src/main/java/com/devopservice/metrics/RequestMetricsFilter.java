@@ -0,0 +1,79 @@
+package com.devopservice.metrics;
+
+import com.devopservice.shared.RequestIds;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Puts the request ID ({@code X-Request-Id}, or a fresh one) in the MDC and
+ * on the response, so every log line of the request carries it, Hibernate's
+ * slow query log included, and records how many SQL statements each endpoint
+ * issued as {@code http.server.requests.statements}. A request over the
+ * threshold is logged: that is what an N+1 loop looks like from the outside.
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    static final String REQUEST_ID_HEADER = RequestIds.HEADER;
+    static final String REQUEST_ID_MDC = "requestId";
+    static final String STATEMENTS_METRIC = "http.server.requests.statements";
+
+    private final MeterRegistry registry;
+    private final int warnThreshold;
+
+    public RequestMetricsFilter(MeterRegistry registry, int warnThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public int getOrder() {
+        // Ahead of the other filters, so their log lines carry the request ID too
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String requestId = requestId(request);
+        MDC.put(REQUEST_ID_MDC, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        StatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = StatementCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("SQL statements Hibernate prepared per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} issued {} SQL statements, look for a query per row", request.getMethod(), uri,
+                    statements);
+            }
+            MDC.remove(REQUEST_ID_MDC);
+        }
+    }
+
+    static String requestId(HttpServletRequest request) {
+        return RequestIds.accept(request.getHeader(REQUEST_ID_HEADER));
+    }
+}
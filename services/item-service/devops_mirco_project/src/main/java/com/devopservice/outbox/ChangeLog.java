@@ -0,0 +1,236 @@
+package com.devopservice.outbox;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, segment-rotated log of scheduler changes that consumers tail by
+ * offset. Each record is framed as offset, length and CRC32 followed by the
+ * payload; segments are named after the first offset they hold. Appends are
+ * fsynced before they become visible to readers, and a torn tail left by a
+ * crash is truncated when the log is reopened.
+ */
+@Component
+public class ChangeLog {
+
+    static final int HEADER_BYTES = 16;
+    private static final int INDEX_INTERVAL_BYTES = 4096;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private volatile long nextOffset;
+
+    public record Record(long offset, byte[] data) {}
+
+    public ChangeLog(
+        @Value("${app.scheduler.outbox.log-dir:data/changelog}") String directory,
+        @Value("${app.scheduler.outbox.segment-bytes:67108864}") long segmentBytes) throws IOException {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(this.directory);
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".log")).toList()) {
+                long base = Long.parseLong(file.getFileName().toString().replace(".log", ""));
+                segments.put(base, new Segment(base, file));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, new Segment(0L, segmentPath(0L)));
+        }
+        for (Segment segment : segments.values()) {
+            nextOffset = segment.recover(segment == segments.lastEntry().getValue());
+        }
+    }
+
+    public long nextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Appends the records and returns the offset assigned to the first one.
+     */
+    public synchronized long append(List<byte[]> records) throws IOException {
+        long first = nextOffset;
+        long offset = first;
+        Segment active = segments.lastEntry().getValue();
+        try {
+            for (byte[] data : records) {
+                if (active.writePosition >= segmentBytes) {
+                    // Records before the roll are durable, so publish them before moving on
+                    active.flush();
+                    nextOffset = offset;
+                    active = new Segment(offset, segmentPath(offset));
+                    segments.put(offset, active);
+                }
+                active.write(offset++, data);
+            }
+            active.flush();
+        } catch (IOException ex) {
+            active.rollback();
+            throw ex;
+        }
+        nextOffset = offset;
+        return first;
+    }
+
+    /**
+     * Reads up to {@code maxRecords} records starting at {@code fromOffset}.
+     */
+    public List<Record> read(long fromOffset, int maxRecords) throws IOException {
+        List<Record> out = new ArrayList<>(Math.min(maxRecords, 1024));
+        if (fromOffset >= nextOffset) {
+            return out;
+        }
+        Map.Entry<Long, Segment> start = segments.floorEntry(fromOffset);
+        Long key = start == null ? segments.firstKey() : start.getKey();
+        for (Segment segment : segments.tailMap(key, true).values()) {
+            segment.read(fromOffset, maxRecords, out);
+            if (out.size() >= maxRecords) {
+                break;
+            }
+        }
+        return out;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+    }
+
+    private Path segmentPath(long baseOffset) {
+        return directory.resolve(String.format("%020d.log", baseOffset));
+    }
+
+    private static final class Segment {
+        private final long baseOffset;
+        private final FileChannel channel;
+        // Sparse offset -> file position index so reads do not scan whole segments
+        private final ConcurrentSkipListMap<Long, Long> index = new ConcurrentSkipListMap<>();
+        private final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        private long writePosition;
+        private long lastIndexed = -INDEX_INTERVAL_BYTES;
+        private volatile long committedSize;
+
+        private Segment(long baseOffset, Path path) throws IOException {
+            this.baseOffset = baseOffset;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        }
+
+        /** Scans the segment, rebuilding the index, and returns the next offset after it. */
+        private long recover(boolean last) throws IOException {
+            long size = channel.size();
+            long position = 0;
+            long expected = baseOffset;
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES);
+            while (position + HEADER_BYTES <= size) {
+                head.clear();
+                readFully(head, position);
+                long offset = head.getLong(0);
+                int length = head.getInt(8);
+                if (offset != expected || length < 0 || position + HEADER_BYTES + length > size) {
+                    break;
+                }
+                ByteBuffer data = ByteBuffer.allocate(length);
+                readFully(data, position + HEADER_BYTES);
+                if (crc(data.array()) != head.getInt(12)) {
+                    break;
+                }
+                maybeIndex(offset, position);
+                position += HEADER_BYTES + length;
+                expected++;
+            }
+            if (position < size && last) {
+                channel.truncate(position);
+            }
+            writePosition = position;
+            committedSize = position;
+            return expected;
+        }
+
+        private void write(long offset, byte[] data) throws IOException {
+            header.clear();
+            header.putLong(offset).putInt(data.length).putInt(crc(data)).flip();
+            ByteBuffer payload = ByteBuffer.wrap(data);
+            long position = writePosition;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+            while (payload.hasRemaining()) {
+                position += channel.write(payload, position);
+            }
+            maybeIndex(offset, writePosition);
+            writePosition = position;
+        }
+
+        private void flush() throws IOException {
+            channel.force(false);
+            committedSize = writePosition;
+        }
+
+        private void rollback() throws IOException {
+            writePosition = committedSize;
+            index.values().removeIf(position -> position >= committedSize);
+            lastIndexed = index.isEmpty() ? -INDEX_INTERVAL_BYTES : index.lastEntry().getValue();
+            channel.truncate(committedSize);
+        }
+
+        private void read(long fromOffset, int maxRecords, List<Record> out) throws IOException {
+            long end = committedSize;
+            Map.Entry<Long, Long> floor = index.floorEntry(fromOffset);
+            long position = floor == null ? 0 : floor.getValue();
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES);
+            while (position + HEADER_BYTES <= end && out.size() < maxRecords) {
+                head.clear();
+                readFully(head, position);
+                long offset = head.getLong(0);
+                int length = head.getInt(8);
+                if (offset >= fromOffset) {
+                    ByteBuffer data = ByteBuffer.allocate(length);
+                    readFully(data, position + HEADER_BYTES);
+                    out.add(new Record(offset, data.array()));
+                }
+                position += HEADER_BYTES + length;
+            }
+        }
+
+        private void maybeIndex(long offset, long position) {
+            if (position - lastIndexed >= INDEX_INTERVAL_BYTES) {
+                index.put(offset, position);
+                lastIndexed = position;
+            }
+        }
+
+        private void readFully(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) {
+                    throw new IOException("Unexpected end of change log segment " + baseOffset);
+                }
+            }
+        }
+
+        private static int crc(byte[] data) {
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            return (int) crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.devopservice.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox table into the local {@link ChangeLog}. Rows are read,
+ * appended and fsynced, then deleted in the same transaction; a crash between
+ * append and commit re-delivers the batch, so consumers should de-duplicate
+ * on {@code outboxId}.
+ *
+ * <p>Only rows written by transactions older than every transaction still
+ * running are relayed, ordered by writing transaction and then id. A
+ * transaction that commits later can therefore never land in front of rows
+ * already in the log: each transaction's changes appear together, in the
+ * order they were written, and transactions that did not overlap appear in
+ * commit order. A long-running transaction holds the relay back until it ends.
+ *
+ * <p>One instance relays at a time. Each batch takes an advisory lock and
+ * renews the {@code outbox_relay} lease; the other instances skip until the
+ * owner has not renewed it for {@code lease-seconds}, so the change log
+ * stays on one node rather than being spread over all of them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.scheduler.outbox", name = "relay-enabled", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final long ADVISORY_LOCK = 0x4F5554424F58L;
+
+    // Rows of transactions still running, or of ones that started after the oldest running one, wait
+    private static final String SELECT_BATCH = """
+        SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at
+        FROM outbox
+        WHERE txid < pg_snapshot_xmin(pg_current_snapshot())
+        ORDER BY txid, id LIMIT ?
+        """;
+
+    private static final String RENEW_LEASE = """
+        UPDATE outbox_relay SET owner = ?, renewed_at = clock_timestamp()
+        WHERE owner = ? OR renewed_at < clock_timestamp() - make_interval(secs => ?)
+        """;
+
+    private static final String DELETE_BATCH = """
+        DELETE FROM outbox WHERE id IN (:ids)
+        RETURNING (EXTRACT(EPOCH FROM (clock_timestamp()::timestamp - created_at)) * 1000000)::BIGINT
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate tx;
+    private final ChangeLog changeLog;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int leaseSeconds;
+    private final String owner = UUID.randomUUID().toString();
+
+    private final DistributionSummary batchSizes;
+    private final Timer relayLag;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager txManager, ChangeLog changeLog,
+                       ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                       @Value("${app.scheduler.outbox.batch-size:500}") int batchSize,
+                       @Value("${app.scheduler.outbox.lease-seconds:30}") int leaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.tx = new TransactionTemplate(txManager);
+        this.changeLog = changeLog;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+            .description("Outbox rows moved to the change log per relay batch")
+            .register(meterRegistry);
+        this.relayLag = Timer.builder("outbox.relay.lag")
+            .description("Time between an outbox row being written and reaching the change log")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("outbox.changelog.next.offset", changeLog, ChangeLog::nextOffset)
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.outbox.poll-interval-ms:500}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = tx.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (RuntimeException ex) {
+            log.warn("Outbox relay failed, will retry: {}", ex.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        if (!lock()) {
+            return 0;
+        }
+        // Read before the lease update gives this transaction an id of its own, which would hold back the snapshot
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_BATCH, batchSize);
+        if (jdbcTemplate.update(RENEW_LEASE, owner, owner, leaseSeconds) == 0 || rows.isEmpty()) {
+            return 0;
+        }
+        List<byte[]> records = new ArrayList<>(rows.size());
+        List<Long> ids = new ArrayList<>(rows.size());
+        try {
+            for (Map<String, Object> row : rows) {
+                long id = ((Number) row.get("id")).longValue();
+                ObjectNode record = objectMapper.createObjectNode();
+                record.put("outboxId", id);
+                record.put("aggregateType", (String) row.get("aggregate_type"));
+                record.put("aggregateId", String.valueOf(row.get("aggregate_id")));
+                record.put("eventType", (String) row.get("event_type"));
+                record.put("createdAt", String.valueOf(row.get("created_at")));
+                record.set("payload", objectMapper.readTree((String) row.get("payload")));
+                records.add(objectMapper.writeValueAsBytes(record));
+                ids.add(id);
+            }
+            changeLog.append(records);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        // Lag on the database clock, the one created_at was stamped with
+        List<Long> lagMicros = namedJdbcTemplate.queryForList(DELETE_BATCH, Map.of("ids", ids), Long.class);
+        for (Long lag : lagMicros) {
+            relayLag.record(Math.max(0, lag), TimeUnit.MICROSECONDS);
+        }
+        batchSizes.record(rows.size());
+        return rows.size();
+    }
+
+    private boolean lock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+            ADVISORY_LOCK));
+    }
+}
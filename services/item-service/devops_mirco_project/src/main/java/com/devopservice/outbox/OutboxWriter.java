@@ -0,0 +1,46 @@
+package com.devopservice.outbox;
+
+import com.devopservice.events.SchedulerChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Inserts an outbox row for every shift and assignment change just before the
+ * surrounding transaction commits, so the row exists if and only if the change does.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT =
+        "INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void write(SchedulerChangeEvent event) {
+        String aggregateType = switch (event.type()) {
+            case SHIFT_CREATED, SHIFT_REMOVED -> "shift";
+            case SHIFT_ASSIGNED, SHIFT_UNASSIGNED -> "assignment";
+            default -> null;
+        };
+        if (aggregateType == null) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT, aggregateType, event.shiftId(), event.type().name(),
+                objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialise outbox payload", ex);
+        }
+    }
+}
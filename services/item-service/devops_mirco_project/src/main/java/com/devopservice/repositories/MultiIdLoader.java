@@ -0,0 +1,54 @@
+package com.devopservice.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Loads entities for many ids at once through Hibernate's multi-load: ids
+ * already in the session or the second-level cache are served from there,
+ * the rest are fetched in chunks of {@link #CHUNK_SIZE} per query.
+ */
+@Component
+public class MultiIdLoader {
+
+    public static final int CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** The entities found, keyed by id in the order the ids were given; ids without one are left out. */
+    public <T> Map<UUID, T> load(Class<T> type, Collection<UUID> ids) {
+        return load(entityManager.unwrap(Session.class), type, ids);
+    }
+
+    static <T> Map<UUID, T> load(Session session, Class<T> type, Collection<UUID> ids) {
+        List<UUID> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        List<T> loaded = session.byMultipleIds(type)
+            // Neither check is on unless asked for
+            .with(CacheMode.NORMAL)
+            .enableSessionCheck(true)
+            .withBatchSize(CHUNK_SIZE)
+            .multiLoad(distinct);
+        Map<UUID, T> found = new LinkedHashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            T entity = loaded.get(i);
+            if (entity != null) {
+                found.put(distinct.get(i), entity);
+            }
+        }
+        return found;
+    }
+}
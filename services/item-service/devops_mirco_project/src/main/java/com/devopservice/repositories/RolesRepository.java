@@ -1,10 +1,19 @@
 package com.devopservice.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.devopservice.entities.Roles;
 
+import java.util.List;
+
 @Repository
 public interface RolesRepository extends JpaRepository<Roles, String> {
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Roles> findAll();
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.devopservice.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.devopservice.entities.ShiftAssignment;
 
+import java.time.LocalDate;
 import java.util.UUID;
 import java.util.List;
 
@@ -13,5 +17,24 @@ public interface ShiftAssignmentRepository extends JpaRepository<ShiftAssignment
     List<ShiftAssignment> findByWorkerId(UUID workerId);
     List<ShiftAssignment> findByShiftId(UUID shiftId);
     List<ShiftAssignment> findByShiftIdAndWorkerId(UUID shiftId, UUID workerId);
-    void deleteByShiftId(UUID shiftId);
+
+    // Bulk deletes: one statement each instead of loading every row and removing it on its own
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ShiftAssignment a WHERE a.shiftId = :shiftId")
+    int deleteByShiftId(@Param("shiftId") UUID shiftId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ShiftAssignment a WHERE a.shiftId = :shiftId AND a.workerId = :workerId")
+    int deleteByShiftIdAndWorkerId(@Param("shiftId") UUID shiftId, @Param("workerId") UUID workerId);
+
+    /** Assignments of shifts dated {@code from} to {@code to}, optionally of one role; the date keeps it to those months' partitions. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        DELETE FROM ShiftAssignment a
+        WHERE a.shiftDate BETWEEN :from AND :to
+          AND (:role IS NULL OR a.shiftId IN (
+              SELECT s.id FROM Shift s WHERE s.date BETWEEN :from AND :to AND s.requiredRole = :role))
+        """)
+    int deleteByShiftDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("role") String role);
 }
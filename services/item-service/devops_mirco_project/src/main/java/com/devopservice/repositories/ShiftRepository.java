@@ -1,7 +1,9 @@
 package com.devopservice.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.devopservice.entities.Shift;
@@ -18,4 +20,25 @@ public interface ShiftRepository extends JpaRepository<Shift, UUID> {
     
     @Query("SELECT s FROM Shift s WHERE s.date BETWEEN ?1 AND ?2")
     List<Shift> findShiftsBetweenDates(LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+
+    /** Shifts with at least one seat nobody holds, however many seats are taken. */
+    @Query(value = """
+        SELECT s.* FROM shift s
+        WHERE EXISTS (SELECT 1 FROM shift_slot x
+                      WHERE x.shift_id = s.id AND x.shift_date = s.date AND x.worker_id IS NULL)
+        """, nativeQuery = true)
+    List<Shift> findWithFreeSlot();
+
+    @Query("SELECT s.id FROM Shift s WHERE s.date BETWEEN :from AND :to AND (:role IS NULL OR s.requiredRole = :role)")
+    List<UUID> findIdsBetweenDates(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("role") String role);
+
+    // Bulk deletes: seats and swap offers go with their shift through ON DELETE CASCADE, assignments must go first
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Shift s WHERE s.id = :id")
+    int deleteShiftById(@Param("id") UUID id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Shift s WHERE s.date BETWEEN :from AND :to AND (:role IS NULL OR s.requiredRole = :role)")
+    int deleteBetweenDates(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("role") String role);
+}
@@ -0,0 +1,12 @@
+package com.devopservice.repositories;
+
+import com.devopservice.entities.Worker;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface WorkerNaturalIdRepository {
+
+    /** Looks the worker up by its user id through Hibernate's natural-id cache. */
+    Optional<Worker> findOneByUserId(UUID userId);
+}
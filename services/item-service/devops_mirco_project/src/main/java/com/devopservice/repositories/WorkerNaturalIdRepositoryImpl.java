@@ -0,0 +1,22 @@
+package com.devopservice.repositories;
+
+import com.devopservice.entities.Worker;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+import java.util.UUID;
+
+class WorkerNaturalIdRepositoryImpl implements WorkerNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Worker> findOneByUserId(UUID userId) {
+        return entityManager.unwrap(Session.class)
+            .bySimpleNaturalId(Worker.class)
+            .loadOptional(userId);
+    }
+}
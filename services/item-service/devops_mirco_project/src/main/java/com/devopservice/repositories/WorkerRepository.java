@@ -10,7 +10,7 @@ import java.util.UUID;
 import java.util.List;
 
 @Repository
-public interface WorkerRepository extends JpaRepository<Worker, UUID> {
+public interface WorkerRepository extends JpaRepository<Worker, UUID>, WorkerNaturalIdRepository {
     List<Worker> findByRole(String role);
 
     List<Worker> findByUserId(UUID userId);
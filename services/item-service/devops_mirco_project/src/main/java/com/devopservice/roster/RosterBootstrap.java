@@ -0,0 +1,156 @@
+package com.devopservice.roster;
+
+import com.devopservice.dto.RosterDay;
+import com.devopservice.routing.DataSourceRoute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Rebuilds the {@link RosterReadModel} on startup from one streaming join over
+ * shift, shiftassignment and worker, ordered by date so each day is finished
+ * before the next one starts.
+ */
+@Component
+public class RosterBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(RosterBootstrap.class);
+
+    private static final String ROSTER_SELECT = """
+        SELECT s.id, s.date, s.required_role, s.start_time, s.end_time, s.capacity, w.id AS worker_id, w.name AS worker_name
+        FROM shift s
+        LEFT JOIN shiftassignment a ON a.shift_id = s.id
+        LEFT JOIN worker w ON w.id = a.worker_id
+        """;
+
+    private static final String ROSTER_JOIN = ROSTER_SELECT + "ORDER BY s.date, s.id";
+
+    private static final String ROSTER_DAYS = ROSTER_SELECT + "WHERE s.date IN (:dates) ORDER BY s.date, s.id";
+
+    private final RosterReadModel roster;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+
+    public RosterBootstrap(RosterReadModel roster, DataSource dataSource, PlatformTransactionManager txManager) {
+        this.roster = roster;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        roster.beginRebuild();
+        try {
+            // The primary: a lagging replica would drop writes committed just before startup
+            NavigableMap<LocalDate, RosterDay> snapshot = DataSourceRoute.onPrimary(() -> readOnlyTx.execute(status -> load()));
+            roster.completeRebuild(snapshot);
+            log.info("Roster rebuilt: {} days in {} ms", snapshot.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException ex) {
+            roster.abortRebuild();
+            throw ex;
+        }
+    }
+
+    /** Reloads the given days, e.g. after another instance changed shifts on them. */
+    public void reload(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        roster.beginRebuild();
+        try {
+            NavigableMap<LocalDate, RosterDay> loaded = DataSourceRoute.onPrimary(() -> readOnlyTx.execute(status ->
+                load(ROSTER_DAYS, Map.of("dates", dates))));
+            roster.completeReload(dates, loaded);
+        } catch (RuntimeException ex) {
+            roster.abortRebuild();
+            throw ex;
+        }
+    }
+
+    private NavigableMap<LocalDate, RosterDay> load() {
+        return load(ROSTER_JOIN, Map.of());
+    }
+
+    private NavigableMap<LocalDate, RosterDay> load(String sql, Map<String, ?> params) {
+        NavigableMap<LocalDate, RosterDay> snapshot = new TreeMap<>();
+        DayBuilder[] current = new DayBuilder[1];
+        new NamedParameterJdbcTemplate(jdbcTemplate).query(sql, params, rs -> {
+            LocalDate date = rs.getObject("date", LocalDate.class);
+            if (current[0] == null || !current[0].date.equals(date)) {
+                if (current[0] != null) {
+                    snapshot.put(current[0].date, current[0].build());
+                }
+                current[0] = new DayBuilder(date);
+            }
+            UUID shiftId = rs.getObject("id", UUID.class);
+            EntryBuilder entry = current[0].entries.get(shiftId);
+            if (entry == null) {
+                entry = new EntryBuilder(shiftId, rs.getString("required_role"),
+                    rs.getTimestamp("start_time"), rs.getTimestamp("end_time"), rs.getInt("capacity"));
+                current[0].entries.put(shiftId, entry);
+            }
+            UUID workerId = rs.getObject("worker_id", UUID.class);
+            if (workerId != null) {
+                entry.workers.add(new RosterDay.AssignedWorker(workerId, rs.getString("worker_name")));
+            }
+        });
+        if (current[0] != null) {
+            snapshot.put(current[0].date, current[0].build());
+        }
+        return snapshot;
+    }
+
+    private static final class DayBuilder {
+        private final LocalDate date;
+        private final Map<UUID, EntryBuilder> entries = new LinkedHashMap<>();
+
+        private DayBuilder(LocalDate date) {
+            this.date = date;
+        }
+
+        private RosterDay build() {
+            List<RosterDay.Entry> shifts = new ArrayList<>(entries.size());
+            entries.values().forEach(e -> shifts.add(new RosterDay.Entry(e.id, e.requiredRole,
+                e.startTime.toLocalDateTime(), e.endTime.toLocalDateTime(), e.capacity, List.copyOf(e.workers))));
+            return RosterReadModel.toDay(date, shifts);
+        }
+    }
+
+    private static final class EntryBuilder {
+        private final UUID id;
+        private final String requiredRole;
+        private final Timestamp startTime;
+        private final Timestamp endTime;
+        private final int capacity;
+        private final List<RosterDay.AssignedWorker> workers = new ArrayList<>(1);
+
+        private EntryBuilder(UUID id, String requiredRole, Timestamp startTime, Timestamp endTime, int capacity) {
+            this.id = id;
+            this.requiredRole = requiredRole;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.capacity = capacity;
+        }
+    }
+}
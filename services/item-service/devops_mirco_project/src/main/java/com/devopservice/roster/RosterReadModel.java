@@ -0,0 +1,201 @@
+package com.devopservice.roster;
+
+import com.devopservice.dto.RosterDay;
+import com.devopservice.events.SchedulerChangeEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Denormalised per-day roster kept in memory. Days are immutable snapshots that
+ * are swapped on every change, so readers never lock and never hit the database.
+ */
+@Component
+public class RosterReadModel {
+
+    private static final Comparator<RosterDay.Entry> BY_START =
+        Comparator.comparing(RosterDay.Entry::startTime).thenComparing(RosterDay.Entry::id);
+
+    private final ConcurrentSkipListMap<LocalDate, RosterDay> days = new ConcurrentSkipListMap<>();
+    private final Map<UUID, LocalDate> shiftDates = new ConcurrentHashMap<>();
+
+    // Events that arrive while a rebuild or reload is loading are replayed on top of what it loaded;
+    // replaying is idempotent, so overlapping loads can share the list
+    private List<SchedulerChangeEvent> pending;
+    private int loading;
+
+    public List<RosterDay> range(LocalDate from, LocalDate to) {
+        return new ArrayList<>(days.subMap(from, true, to, true).values());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void apply(SchedulerChangeEvent event) {
+        if (pending != null) {
+            pending.add(event);
+        }
+        applyNow(event);
+    }
+
+    /** Drops the days from {@code from} up to (not including) {@code to}, e.g. once they are archived. */
+    public synchronized void forget(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, RosterDay> gone = days.subMap(from, true, to, false);
+        gone.values().forEach(day -> day.shifts().forEach(entry -> shiftDates.remove(entry.id())));
+        gone.clear();
+    }
+
+    /** Dates of the given shifts that are on the roster; unknown ids are skipped. */
+    public Set<LocalDate> datesOf(Collection<UUID> shiftIds) {
+        Set<LocalDate> dates = new HashSet<>();
+        for (UUID shiftId : shiftIds) {
+            LocalDate date = shiftDates.get(shiftId);
+            if (date != null) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    synchronized void beginRebuild() {
+        if (loading++ == 0) {
+            pending = new ArrayList<>();
+        }
+    }
+
+    synchronized void completeRebuild(NavigableMap<LocalDate, RosterDay> snapshot) {
+        days.clear();
+        shiftDates.clear();
+        days.putAll(snapshot);
+        snapshot.values().forEach(day ->
+            day.shifts().forEach(entry -> shiftDates.put(entry.id(), day.date())));
+        replayPending();
+    }
+
+    /** Replaces the given days with freshly loaded ones; a date missing from {@code loaded} has no shifts left. */
+    synchronized void completeReload(Collection<LocalDate> dates, Map<LocalDate, RosterDay> loaded) {
+        for (LocalDate date : dates) {
+            RosterDay previous = days.remove(date);
+            if (previous != null) {
+                previous.shifts().forEach(entry -> shiftDates.remove(entry.id(), date));
+            }
+            RosterDay day = loaded.get(date);
+            if (day != null) {
+                days.put(date, day);
+                day.shifts().forEach(entry -> shiftDates.put(entry.id(), date));
+            }
+        }
+        replayPending();
+    }
+
+    synchronized void abortRebuild() {
+        if (--loading == 0) {
+            pending = null;
+        }
+    }
+
+    private void replayPending() {
+        List<SchedulerChangeEvent> replay = pending;
+        if (--loading == 0) {
+            pending = null;
+        }
+        if (replay != null) {
+            List.copyOf(replay).forEach(this::applyNow);
+        }
+    }
+
+    private void applyNow(SchedulerChangeEvent event) {
+        switch (event.type()) {
+            case SHIFT_CREATED -> {
+                RosterDay.Entry entry = new RosterDay.Entry(event.shiftId(), event.requiredRole(),
+                    event.startTime(), event.endTime(), event.capacity() == null ? 1 : event.capacity(), List.of());
+                LocalDate previous = shiftDates.put(event.shiftId(), event.date());
+                if (previous != null && !previous.equals(event.date())) {
+                    update(previous, shifts -> without(shifts, event.shiftId()));
+                }
+                update(event.date(), shifts -> {
+                    List<RosterDay.Entry> next = without(shifts, event.shiftId());
+                    next.add(entry);
+                    return next;
+                });
+            }
+            case SHIFT_REMOVED -> {
+                LocalDate date = shiftDates.remove(event.shiftId());
+                if (date != null) {
+                    update(date, shifts -> without(shifts, event.shiftId()));
+                }
+            }
+            case SHIFT_ASSIGNED -> updateWorkers(event.shiftId(), workers -> {
+                if (workers.stream().noneMatch(w -> w.id().equals(event.workerId()))) {
+                    workers.add(new RosterDay.AssignedWorker(event.workerId(), event.workerName()));
+                }
+                return workers;
+            });
+            case SHIFT_UNASSIGNED -> updateWorkers(event.shiftId(), workers -> {
+                workers.removeIf(w -> w.id().equals(event.workerId()));
+                return workers;
+            });
+            default -> {
+                // Worker creation does not change any roster day
+            }
+        }
+    }
+
+    private void updateWorkers(UUID shiftId, UnaryOperator<List<RosterDay.AssignedWorker>> change) {
+        LocalDate date = shiftDates.get(shiftId);
+        if (date == null) {
+            return;
+        }
+        update(date, shifts -> {
+            List<RosterDay.Entry> next = new ArrayList<>(shifts.size());
+            for (RosterDay.Entry entry : shifts) {
+                if (entry.id().equals(shiftId)) {
+                    List<RosterDay.AssignedWorker> workers = change.apply(new ArrayList<>(entry.workers()));
+                    entry = new RosterDay.Entry(entry.id(), entry.requiredRole(), entry.startTime(),
+                        entry.endTime(), entry.capacity(), List.copyOf(workers));
+                }
+                next.add(entry);
+            }
+            return next;
+        });
+    }
+
+    private void update(LocalDate date, UnaryOperator<List<RosterDay.Entry>> change) {
+        RosterDay current = days.get(date);
+        List<RosterDay.Entry> shifts = change.apply(current == null ? new ArrayList<>() : new ArrayList<>(current.shifts()));
+        if (shifts.isEmpty()) {
+            days.remove(date);
+        } else {
+            days.put(date, toDay(date, shifts));
+        }
+    }
+
+    private static List<RosterDay.Entry> without(List<RosterDay.Entry> shifts, UUID shiftId) {
+        List<RosterDay.Entry> next = new ArrayList<>(shifts);
+        next.removeIf(entry -> entry.id().equals(shiftId));
+        return next;
+    }
+
+    static RosterDay toDay(LocalDate date, List<RosterDay.Entry> shifts) {
+        shifts.sort(BY_START);
+        Map<String, Integer> openSlots = new TreeMap<>();
+        for (RosterDay.Entry entry : shifts) {
+            int open = Math.max(0, entry.capacity() - entry.workers().size());
+            openSlots.merge(entry.requiredRole(), open, Integer::sum);
+        }
+        return new RosterDay(date, List.copyOf(shifts), Collections.unmodifiableMap(openSlots));
+    }
+}
@@ -0,0 +1,51 @@
+package com.devopservice.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that keeps read-only work on the primary, for callers
+ * that must see their own or the very latest writes.
+ */
+public final class DataSourceRoute {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private DataSourceRoute() {
+    }
+
+    public static boolean primaryPinned() {
+        return PRIMARY_PINNED.get() != null;
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (primaryPinned()) {
+            return work.get();
+        }
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_PINNED.remove();
+        }
+    }
+
+    public static void onPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Pins the current thread; returns false if it already was, in which case there is nothing to unpin. */
+    static boolean pin() {
+        if (primaryPinned()) {
+            return false;
+        }
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        return true;
+    }
+
+    static void unpin() {
+        PRIMARY_PINNED.remove();
+    }
+}
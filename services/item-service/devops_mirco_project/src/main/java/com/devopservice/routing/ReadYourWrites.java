@@ -0,0 +1,41 @@
+package com.devopservice.routing;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users who changed something recently. Their reads stay on the primary for
+ * a short window so they never see the replica's older state of their own write.
+ */
+public class ReadYourWrites {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite(String userId) {
+        long now = System.nanoTime();
+        stickyUntil.put(userId, now + windowNanos);
+        if (stickyUntil.size() > PRUNE_THRESHOLD) {
+            stickyUntil.values().removeIf(until -> until - now < 0);
+        }
+    }
+
+    public boolean isSticky(String userId) {
+        Long until = stickyUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() < 0) {
+            stickyUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+package com.devopservice.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Marks the calling user (gateway {@code X-User-Id}) sticky on every mutating
+ * request and pins that user's reads to the primary while the mark lasts. The
+ * pin is bound to the request thread, which is where the controllers run.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String USER_HEADER = "X-User-Id";
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String userId = request.getHeader(USER_HEADER);
+        if (userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!isRead(request)) {
+            readYourWrites.recordWrite(userId);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                // Re-mark on completion so the window starts after the commit
+                readYourWrites.recordWrite(userId);
+            }
+            return;
+        }
+        boolean pinned = readYourWrites.isSticky(userId) && DataSourceRoute.pin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (pinned) {
+                DataSourceRoute.unpin();
+            }
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        // Batch lookups are POSTs only because of the size of their id lists
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+            || HttpMethod.POST.matches(method) && request.getRequestURI().endsWith("/batch-get");
+    }
+}
@@ -0,0 +1,70 @@
+package com.devopservice.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Polls the replica's replay lag and takes it out of rotation while it is
+ * further behind than allowed or unreachable. Reads then fall back to the primary.
+ */
+public class ReplicaLagGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagGuard.class);
+
+    // Zero when everything received has been replayed, so an idle primary does not read as lag
+    static final String POSTGRES_LAG_QUERY = """
+        SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                             ELSE EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) END, 0)
+        """;
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = -1;
+
+    public ReplicaLagGuard(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(2);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-ms:1000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag == null ? 0 : lag;
+            usable = lagSeconds <= maxLagSeconds;
+            if (wasUsable && !usable) {
+                log.warn("Replica is {}s behind (limit {}s); reading from primary", lagSeconds, maxLagSeconds);
+            }
+        } catch (DataAccessException ex) {
+            lagSeconds = -1;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Replica unreachable; reading from primary: {}", ex.getMessage());
+            }
+        }
+        if (!wasUsable && usable) {
+            log.info("Replica back in rotation ({}s behind)", lagSeconds);
+        }
+    }
+
+    public boolean replicaUsable() {
+        return usable;
+    }
+
+    /** Last measured lag in seconds, or -1 if the replica could not be reached. */
+    public double lagSeconds() {
+        return lagSeconds;
+    }
+}
@@ -0,0 +1,104 @@
+package com.devopservice.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * Primary/replica split, active only when {@code app.datasource.replica.url}
+ * is set. Without it the service keeps Boot's single auto-configured pool.
+ * Both pools are beans of their own so their Hikari metrics are published
+ * separately; Flyway always migrates the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+        DataSourceProperties properties,
+        @Value("${app.datasource.replica.url}") String url,
+        @Value("${app.datasource.replica.username:}") String username,
+        @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+        dataSource.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setReadOnly(true);
+        // A replica that is down at startup must not keep the service from booting
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(
+        @Qualifier("replicaDataSource") DataSource replica,
+        @Value("${app.datasource.replica.lag-query:}") String lagQuery,
+        @Value("${app.datasource.replica.max-lag-ms:2000}") long maxLagMs) {
+        return new ReplicaLagGuard(replica, lagQuery.isEmpty() ? ReplicaLagGuard.POSTGRES_LAG_QUERY : lagQuery,
+            Duration.ofMillis(maxLagMs));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") DataSource primary,
+        @Qualifier("replicaDataSource") DataSource replica,
+        ReplicaLagGuard replicaLagGuard) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primary, replica, replicaLagGuard::replicaUsable));
+        // Known up front, so the proxy never opens a connection just to find out
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(@Value("${app.datasource.replica.sticky-ms:5000}") long stickyMs) {
+        return new ReadYourWrites(Duration.ofMillis(stickyMs));
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWrites readYourWrites) {
+        return new ReadYourWritesFilter(readYourWrites);
+    }
+
+    @Bean
+    public MeterBinder replicaLagMetrics(ReplicaLagGuard replicaLagGuard) {
+        return registry -> {
+            Gauge.builder("db.replica.lag", replicaLagGuard, ReplicaLagGuard::lagSeconds)
+                .description("Replica replay lag, -1 when unreachable")
+                .baseUnit("seconds")
+                .register(registry);
+            Gauge.builder("db.replica.in.rotation", replicaLagGuard, guard -> guard.replicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(registry);
+        };
+    }
+}
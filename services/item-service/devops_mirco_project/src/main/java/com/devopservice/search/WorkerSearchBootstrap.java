@@ -0,0 +1,75 @@
+package com.devopservice.search;
+
+import com.devopservice.routing.DataSourceRoute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds the {@link WorkerSearchIndex} on startup from one streaming scan of the
+ * worker table, ordered by id so equally good matches come back in the same
+ * order after every restart.
+ */
+@Component
+public class WorkerSearchBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerSearchBootstrap.class);
+
+    private final WorkerSearchIndex searchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+
+    public WorkerSearchBootstrap(WorkerSearchIndex searchIndex, DataSource dataSource,
+                                 PlatformTransactionManager txManager) {
+        this.searchIndex = searchIndex;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        searchIndex.beginRebuild();
+        try {
+            WorkerSearchIndex.Index snapshot = DataSourceRoute.onPrimary(() -> readOnlyTx.execute(status -> load()));
+            searchIndex.completeRebuild(snapshot);
+            log.info("Worker search index built: {} workers in {} ms", snapshot.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException ex) {
+            searchIndex.abortRebuild();
+            throw ex;
+        }
+    }
+
+    /** Adds workers created on another instance, read from the primary. */
+    public void add(Collection<UUID> workerIds) {
+        if (workerIds.isEmpty()) {
+            return;
+        }
+        DataSourceRoute.onPrimary(() -> new NamedParameterJdbcTemplate(jdbcTemplate).query(
+            "SELECT id, name, role FROM worker WHERE id IN (:ids)", Map.of("ids", workerIds), rs -> {
+                searchIndex.addIfAbsent(rs.getObject("id", UUID.class), rs.getString("name"), rs.getString("role"));
+            }));
+    }
+
+    WorkerSearchIndex.Index load() {
+        WorkerSearchIndex.Index snapshot = new WorkerSearchIndex.Index();
+        jdbcTemplate.query("SELECT id, name, role FROM worker ORDER BY id", rs -> {
+            snapshot.add(rs.getObject("id", UUID.class), rs.getString("name"), rs.getString("role"));
+        });
+        return snapshot;
+    }
+}
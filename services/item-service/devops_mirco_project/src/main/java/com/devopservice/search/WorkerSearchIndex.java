@@ -0,0 +1,468 @@
+package com.devopservice.search;
+
+import com.devopservice.dto.WorkerDto;
+import com.devopservice.events.SchedulerChangeEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index over worker names. Every word contributes its
+ * trigrams plus one- and two-letter word prefixes, each mapping to a sorted
+ * {@code int[]} posting list of worker ordinals; a query intersects the lists
+ * of its tokens and ranks the survivors. Workers are only ever added, so
+ * ordinals grow monotonically and posting lists stay sorted by appending.
+ */
+@Component
+public class WorkerSearchIndex {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final int VERIFY_DIRECTLY = 64;
+
+    private static final Comparator<Postings> BY_SIZE = Comparator.comparingInt(p -> p.size);
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+        .thenComparingInt(Hit::length)
+        .thenComparingInt(Hit::ordinal);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+
+    // Events that arrive while a rebuild is loading are replayed on top of the new snapshot
+    private List<SchedulerChangeEvent> pending;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void apply(SchedulerChangeEvent event) {
+        if (event.type() != SchedulerChangeEvent.Type.WORKER_CREATED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            index.add(event.workerId(), event.workerName(), event.requiredRole());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds a worker created on another instance, unless the index has it already. */
+    public void addIfAbsent(UUID id, String name, String role) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(new SchedulerChangeEvent(SchedulerChangeEvent.Type.WORKER_CREATED, null, id, name,
+                    null, role, null, null, null));
+            }
+            if (!index.contains(id)) {
+                index.add(id, name, role);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Workers whose name contains every token of the query, best matches first:
+     * the whole name, then names starting with the query, then names where each
+     * token starts a word, then other substring matches; shorter names first
+     * within each. Tokens shorter than three characters only match the start
+     * of a word.
+     */
+    public List<WorkerDto> search(String query, String role, int limit) {
+        String[] tokens = tokens(query);
+        if (tokens.length == 0 || limit < 1) {
+            return List.of();
+        }
+        limit = Math.min(limit, MAX_LIMIT);
+        String normalizedQuery = String.join(" ", tokens);
+        lock.readLock().lock();
+        try {
+            return index.search(tokens, normalizedQuery, role, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void completeRebuild(Index snapshot) {
+        lock.writeLock().lock();
+        try {
+            for (SchedulerChangeEvent event : pending == null ? List.<SchedulerChangeEvent>of() : pending) {
+                // The scan may already have seen a worker created while it ran
+                if (!snapshot.contains(event.workerId())) {
+                    snapshot.add(event.workerId(), event.workerName(), event.requiredRole());
+                }
+            }
+            index = snapshot;
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Lower case, accents stripped and everything but letters and digits treated as a word break. */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder out = new StringBuilder(folded.length());
+        boolean space = true;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                out.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                out.append(' ');
+                space = true;
+            }
+        }
+        int end = out.length();
+        return space && end > 0 ? out.substring(0, end - 1) : out.toString();
+    }
+
+    private static String[] tokens(String query) {
+        String normalized = normalize(query);
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static long gram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static boolean startsWord(String name, String token) {
+        int from = 0;
+        while (!name.startsWith(token, from)) {
+            int space = name.indexOf(' ', from);
+            if (space < 0) {
+                return false;
+            }
+            from = space + 1;
+        }
+        return true;
+    }
+
+    private record Hit(int score, int length, int ordinal) {
+    }
+
+    /** Growable sorted list of worker ordinals. */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        private void append(int ordinal) {
+            // A name repeating a gram must not list the worker twice
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size + (size >> 1));
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+
+    /**
+     * Open-addressing map from packed gram to postings. Boxed {@code Long} keys
+     * would cost an object per gram and, since {@link Long#hashCode} folds the
+     * first character onto the other two, collide heavily.
+     */
+    private static final class Grams {
+        private long[] keys = new long[4096];
+        private Postings[] values = new Postings[4096];
+        private int size;
+
+        private Postings get(long gram) {
+            int mask = keys.length - 1;
+            for (int i = slot(gram, mask); keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == gram) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        private Postings getOrAdd(long gram) {
+            Postings found = get(gram);
+            if (found != null) {
+                return found;
+            }
+            if (2 * (size + 1) > keys.length) {
+                resize();
+            }
+            Postings added = new Postings();
+            insert(gram, added);
+            size++;
+            return added;
+        }
+
+        private void insert(long gram, Postings postings) {
+            int mask = keys.length - 1;
+            int i = slot(gram, mask);
+            while (keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = gram;
+            values[i] = postings;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Postings[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Postings[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long gram, int mask) {
+            long h = gram * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+
+    /** The index proper; only touched under the outer lock once published. */
+    static final class Index {
+        private final Grams postings = new Grams();
+        private final Map<String, Integer> roleCodes = new HashMap<>();
+        private final List<String> roleNames = new ArrayList<>();
+        private long[] idHigh = new long[1024];
+        private long[] idLow = new long[1024];
+        private String[] names = new String[1024];
+        private String[] normalized = new String[1024];
+        // Per worker: first two characters of the normalised name, role code and name length, packed so
+        // most candidates are filtered and ranked out from one load without touching the name itself
+        private long[] meta = new long[1024];
+        private int size;
+
+        void add(UUID id, String name, String role) {
+            if (size == names.length) {
+                int capacity = size * 2;
+                idHigh = Arrays.copyOf(idHigh, capacity);
+                idLow = Arrays.copyOf(idLow, capacity);
+                names = Arrays.copyOf(names, capacity);
+                normalized = Arrays.copyOf(normalized, capacity);
+                meta = Arrays.copyOf(meta, capacity);
+            }
+            int ordinal = size++;
+            String folded = normalize(name);
+            idHigh[ordinal] = id.getMostSignificantBits();
+            idLow[ordinal] = id.getLeastSignificantBits();
+            names[ordinal] = name;
+            normalized[ordinal] = folded;
+            int roleCode = roleCodes.computeIfAbsent(role, r -> {
+                roleNames.add(r);
+                return roleNames.size() - 1;
+            });
+            meta[ordinal] = (long) head(folded) << 32 | (long) roleCode << 16 | Math.min(folded.length(), 0xFFFF);
+            if (!folded.isEmpty()) {
+                for (String word : folded.split(" ")) {
+                    post(gram(' ', word.charAt(0), (char) 0), ordinal);
+                    if (word.length() > 1) {
+                        post(gram(' ', word.charAt(0), word.charAt(1)), ordinal);
+                    }
+                    for (int i = 0; i + 2 < word.length(); i++) {
+                        post(gram(word.charAt(i), word.charAt(i + 1), word.charAt(i + 2)), ordinal);
+                    }
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        private boolean contains(UUID id) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (idHigh[i] == id.getMostSignificantBits() && idLow[i] == id.getLeastSignificantBits()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void post(long gram, int ordinal) {
+            postings.getOrAdd(gram).append(ordinal);
+        }
+
+        private List<WorkerDto> search(String[] tokens, String query, String role, int limit) {
+            int roleCode = -1;
+            if (role != null && !role.isBlank()) {
+                Integer code = roleCodes.get(role);
+                if (code == null) {
+                    return List.of();
+                }
+                roleCode = code;
+            }
+
+            List<Postings> lists = new ArrayList<>();
+            for (String token : tokens) {
+                if (token.length() < 3) {
+                    lists.add(postings.get(gram(' ', token.charAt(0), token.length() == 1 ? 0 : token.charAt(1))));
+                } else {
+                    for (int i = 0; i + 2 < token.length(); i++) {
+                        lists.add(postings.get(gram(token.charAt(i), token.charAt(i + 1), token.charAt(i + 2))));
+                    }
+                }
+            }
+            if (lists.contains(null)) {
+                return List.of();
+            }
+            lists.sort(BY_SIZE);
+            int[] candidates = lists.get(0).ordinals;
+            int count = lists.get(0).size;
+            // Past a handful of candidates, checking the names themselves is cheaper than merging more lists
+            for (int i = 1; i < lists.size() && count > VERIFY_DIRECTLY; i++) {
+                candidates = intersect(candidates, count, lists.get(i));
+                count = candidates.length;
+            }
+
+            int headMask = query.length() == 1 ? 0xFFFF0000 : 0xFFFFFFFF;
+            int queryHead = head(query);
+            int queryLength = query.length();
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (int c = 0; c < count; c++) {
+                int ordinal = candidates[c];
+                long packed = meta[ordinal];
+                if (roleCode >= 0 && (int) (packed >>> 16 & 0xFFFF) != roleCode) {
+                    continue;
+                }
+                // Candidates come in ordinal order, so a tie with the current cut never gets in. The bound
+                // rules out most of a short query's matches before their name is even loaded.
+                Hit worst = best.size() < limit ? null : best.peek();
+                int length = (int) (packed & 0xFFFF);
+                if (worst != null && !beats(bound(length, (int) (packed >>> 32) & headMask, queryLength, queryHead),
+                    length, worst)) {
+                    continue;
+                }
+                int score = score(normalized[ordinal], tokens, query);
+                if (score < 0 || (worst != null && !beats(score, length, worst))) {
+                    continue;
+                }
+                best.add(new Hit(score, length, ordinal));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(RANKING);
+            List<WorkerDto> result = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                int ordinal = hit.ordinal();
+                result.add(new WorkerDto(new UUID(idHigh[ordinal], idLow[ordinal]), names[ordinal],
+                    roleNames.get((int) (meta[ordinal] >>> 16 & 0xFFFF))));
+            }
+            return result;
+        }
+
+        /** Ranks a candidate, or -1 when the grams matched but the tokens themselves do not. */
+        private static int score(String name, String[] tokens, String query) {
+            boolean allWordPrefixes = true;
+            for (String token : tokens) {
+                if (startsWord(name, token)) {
+                    continue;
+                }
+                if (token.length() < 3 || !name.contains(token)) {
+                    return -1;
+                }
+                allWordPrefixes = false;
+            }
+            if (name.equals(query)) {
+                return 3;
+            }
+            if (name.startsWith(query)) {
+                return 2;
+            }
+            return allWordPrefixes ? 1 : 0;
+        }
+
+        /** The best score a name could get: 3 and 2 need it to start with the query. */
+        private static int bound(int length, int head, int queryLength, int queryHead) {
+            if (head != queryHead) {
+                return 1;
+            }
+            return length == queryLength ? 3 : 2;
+        }
+
+        private static boolean beats(int score, int length, Hit worst) {
+            return score > worst.score() || (score == worst.score() && length < worst.length());
+        }
+
+        private static int head(String text) {
+            return text.isEmpty() ? 0 : text.length() == 1 ? text.charAt(0) << 16 : text.charAt(0) << 16 | text.charAt(1);
+        }
+
+        /** Gallops through the longer list, so the cost follows the shorter one. */
+        private static int[] intersect(int[] left, int leftSize, Postings right) {
+            int[] out = new int[Math.min(leftSize, right.size)];
+            int n = 0;
+            int from = 0;
+            for (int i = 0; i < leftSize && from < right.size; i++) {
+                int target = left[i];
+                int step = 1;
+                int to = from;
+                while (to < right.size && right.ordinals[to] < target) {
+                    from = to + 1;
+                    to += step;
+                    step <<= 1;
+                }
+                int found = Arrays.binarySearch(right.ordinals, from, Math.min(to + 1, right.size), target);
+                if (found >= 0) {
+                    out[n++] = target;
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.devopservice.slots;
+
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.ShiftAssignment;
+import com.devopservice.entities.Worker;
+import com.devopservice.events.SchedulerChangeEvent;
+import com.devopservice.hours.HoursLedger;
+import com.devopservice.repositories.ShiftAssignmentRepository;
+import com.devopservice.repositories.ShiftRepository;
+import com.devopservice.repositories.WorkerRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Puts a worker on a shift and takes them off again: the weekly hours, the
+ * seat, the assignment row and the change event move together, so every
+ * endpoint that assigns leaves the same trail. Must be called inside the
+ * caller's transaction.
+ */
+@Component
+public class ShiftAssigner {
+
+    private final ShiftRepository shiftRepository;
+    private final WorkerRepository workerRepository;
+    private final ShiftAssignmentRepository shiftAssignmentRepository;
+    private final ShiftSlots shiftSlots;
+    private final HoursLedger hoursLedger;
+    private final ApplicationEventPublisher events;
+
+    public ShiftAssigner(ShiftRepository shiftRepository, WorkerRepository workerRepository,
+                         ShiftAssignmentRepository shiftAssignmentRepository, ShiftSlots shiftSlots,
+                         HoursLedger hoursLedger, ApplicationEventPublisher events) {
+        this.shiftRepository = shiftRepository;
+        this.workerRepository = workerRepository;
+        this.shiftAssignmentRepository = shiftAssignmentRepository;
+        this.shiftSlots = shiftSlots;
+        this.hoursLedger = hoursLedger;
+        this.events = events;
+    }
+
+    /**
+     * Takes one free seat on the shift for the worker. A full shift answers
+     * 409 instead of being over-assigned.
+     */
+    public ShiftAssignment assign(UUID shiftId, UUID workerId) {
+        Shift shift = shiftRepository.findById(shiftId)
+            .orElseThrow(() -> new IllegalArgumentException("Shift not found"));
+        Worker worker = workerRepository.findById(workerId)
+            .orElseThrow(() -> new IllegalArgumentException("Worker not found"));
+
+        // Before the seat: an over-cap worker should not hold one of its locks
+        hoursLedger.assign(worker.getId(), shift.getDate(), shift.getStartTime(), shift.getEndTime());
+
+        if (shiftSlots.claim(shiftId, worker.getId()).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Shift is full");
+        }
+
+        ShiftAssignment saved = shiftAssignmentRepository.save(ShiftAssignment.builder()
+            .id(UUID.randomUUID())
+            .shiftId(shiftId)
+            .shiftDate(shift.getDate())
+            .workerId(worker.getId())
+            .assignedAt(LocalDateTime.now())
+            .build());
+        events.publishEvent(SchedulerChangeEvent.shiftAssigned(shiftId, worker));
+        return saved;
+    }
+
+    /** Frees the worker's seat; returns false if the worker was not on the shift. */
+    public boolean unassign(UUID shiftId, UUID workerId) {
+        int removed = shiftAssignmentRepository.deleteByShiftIdAndWorkerId(shiftId, workerId);
+        shiftSlots.release(shiftId, workerId);
+        if (removed == 0) {
+            return false;
+        }
+        shiftRepository.findById(shiftId).ifPresent(shift -> hoursLedger.release(
+            workerId, shift.getDate(), shift.getStartTime(), shift.getEndTime()));
+        events.publishEvent(SchedulerChangeEvent.shiftUnassigned(shiftId, workerId));
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+package com.devopservice.slots;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Seats of a shift, one {@code shift_slot} row each. A claim locks the first
+ * free seat nobody else is holding ({@code FOR UPDATE SKIP LOCKED}) and then
+ * takes it with a conditional update, so concurrent claims on the same shift
+ * spread over different rows instead of queueing behind one lock. Only when
+ * every free seat is held does a claim queue: those claims may still roll
+ * back, so a shift is reported full only once no seat is free in committed
+ * state. Must be called inside the caller's transaction.
+ */
+@Component
+public class ShiftSlots {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final String LOCK_FREE_SLOT = """
+        SELECT slot_no FROM shift_slot
+        WHERE shift_id = ? AND worker_id IS NULL
+        ORDER BY slot_no
+        LIMIT 1
+        FOR UPDATE SKIP LOCKED
+        """;
+
+    private static final String COUNT_FREE_SLOTS = "SELECT COUNT(*) FROM shift_slot WHERE shift_id = ? AND worker_id IS NULL";
+
+    // Waits for the claims holding the free seats; seats they took are skipped once they commit
+    private static final String WAIT_FOR_FREE_SLOT = """
+        SELECT slot_no FROM shift_slot
+        WHERE shift_id = ? AND worker_id IS NULL
+        ORDER BY slot_no
+        LIMIT 1
+        FOR UPDATE
+        """;
+
+    private static final String TAKE_SLOT = """
+        UPDATE shift_slot SET worker_id = ?, claimed_at = ?
+        WHERE shift_id = ? AND slot_no = ? AND worker_id IS NULL
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShiftSlots(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void create(UUID shiftId, LocalDate shiftDate, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO shift_slot (shift_id, shift_date, slot_no) VALUES (?, ?, ?)",
+            IntStream.rangeClosed(1, capacity)
+                .mapToObj(slot -> new Object[] {shiftId, shiftDate, slot})
+                .toList());
+    }
+
+    /**
+     * Takes a free seat for the worker. Returns the seat number, or empty when
+     * every seat is taken by a committed claim.
+     *
+     * @throws IllegalArgumentException if the worker already holds a seat on the shift
+     */
+    public OptionalInt claim(UUID shiftId, UUID workerId) {
+        if (holds(shiftId, workerId)) {
+            throw new IllegalArgumentException("Assignment already exists for this shift and worker");
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            List<Integer> free = jdbcTemplate.queryForList(LOCK_FREE_SLOT, Integer.class, shiftId);
+            if (free.isEmpty()) {
+                Integer unclaimed = jdbcTemplate.queryForObject(COUNT_FREE_SLOTS, Integer.class, shiftId);
+                if (unclaimed == null || unclaimed == 0) {
+                    return OptionalInt.empty();
+                }
+                free = jdbcTemplate.queryForList(WAIT_FOR_FREE_SLOT, Integer.class, shiftId);
+                if (free.isEmpty()) {
+                    return OptionalInt.empty();
+                }
+            }
+            int slot = free.get(0);
+            try {
+                if (jdbcTemplate.update(TAKE_SLOT, workerId, now, shiftId, slot) == 1) {
+                    return OptionalInt.of(slot);
+                }
+            } catch (DuplicateKeyException ex) {
+                // A concurrent claim by the same worker won on another seat
+                throw new IllegalArgumentException("Assignment already exists for this shift and worker");
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    /** Frees the worker's seat; returns false if the worker held none. */
+    public boolean release(UUID shiftId, UUID workerId) {
+        return jdbcTemplate.update(
+            "UPDATE shift_slot SET worker_id = NULL, claimed_at = NULL WHERE shift_id = ? AND worker_id = ?",
+            shiftId, workerId) > 0;
+    }
+
+    /** Hands the worker's seat to another worker in place, keeping the seat number. */
+    public boolean reassign(UUID shiftId, UUID fromWorkerId, UUID toWorkerId) {
+        return jdbcTemplate.update(
+            "UPDATE shift_slot SET worker_id = ?, claimed_at = ? WHERE shift_id = ? AND worker_id = ?",
+            toWorkerId, Timestamp.valueOf(LocalDateTime.now()), shiftId, fromWorkerId) > 0;
+    }
+
+    public boolean holds(UUID shiftId, UUID workerId) {
+        Integer held = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM shift_slot WHERE shift_id = ? AND worker_id = ?", Integer.class, shiftId, workerId);
+        return held != null && held > 0;
+    }
+}
@@ -0,0 +1,260 @@
+package com.devopservice.swap;
+
+import com.devopservice.dto.SwapOffer;
+import com.devopservice.entities.Worker;
+import com.devopservice.events.SchedulerChangeEvent;
+import com.devopservice.hours.HoursLedger;
+import com.devopservice.slots.ShiftSlots;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shift swap offers between workers of the same role. Accepting an offer
+ * exchanges the workers on the two {@code shiftassignment} rows (and their
+ * seats) in the caller's transaction, so the shifts are never seen unassigned.
+ *
+ * <p>Every path that accepts locks rows in one global order: the two worker
+ * rows, then the two assignment rows, each pair by id, and only then the offer.
+ * Concurrent accepts over overlapping rows therefore wait for each other
+ * instead of deadlocking, and the role and overlap checks run against rows
+ * nobody else can change underneath them.
+ */
+@Component
+public class SwapMarket {
+
+    static final String OPEN = "OPEN";
+    static final String ACCEPTED = "ACCEPTED";
+    static final String CANCELLED = "CANCELLED";
+
+    private static final String OFFER_COLUMNS =
+        "id, assignment_id, shift_id, worker_id, role, shift_date, status, created_at";
+
+    private static final String OPEN_OFFERS = "SELECT " + OFFER_COLUMNS + """
+         FROM swap_offer
+        WHERE role = ? AND shift_date BETWEEN ? AND ? AND status = 'OPEN'
+        ORDER BY shift_date, created_at
+        LIMIT ?
+        """;
+
+    private static final String SHIFT_OF_ASSIGNMENT = """
+        SELECT a.worker_id, s.id, s.date, s.required_role, s.start_time, s.end_time
+        FROM shiftassignment a
+        JOIN shift s ON s.id = a.shift_id
+        WHERE a.id = ?
+        """;
+
+    private static final String OVERLAPS = """
+        SELECT COUNT(*) FROM shiftassignment a
+        JOIN shift s ON s.id = a.shift_id
+        WHERE a.worker_id = ? AND a.id <> ? AND s.start_time < ? AND s.end_time > ?
+        """;
+
+    private static final RowMapper<SwapOffer> OFFER = (rs, i) -> new SwapOffer(
+        rs.getObject("id", UUID.class),
+        rs.getObject("assignment_id", UUID.class),
+        rs.getObject("shift_id", UUID.class),
+        rs.getObject("worker_id", UUID.class),
+        rs.getString("role"),
+        rs.getObject("shift_date", LocalDate.class),
+        rs.getString("status"),
+        rs.getTimestamp("created_at").toLocalDateTime());
+
+    private static final RowMapper<Placement> PLACEMENT = (rs, i) -> new Placement(
+        rs.getObject("worker_id", UUID.class),
+        rs.getObject("id", UUID.class),
+        rs.getObject("date", LocalDate.class),
+        rs.getString("required_role"),
+        rs.getTimestamp("start_time"),
+        rs.getTimestamp("end_time"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShiftSlots shiftSlots;
+    private final ApplicationEventPublisher events;
+    private final HoursLedger hoursLedger;
+
+    public SwapMarket(DataSource dataSource, ShiftSlots shiftSlots, ApplicationEventPublisher events,
+                      HoursLedger hoursLedger) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.shiftSlots = shiftSlots;
+        this.events = events;
+        this.hoursLedger = hoursLedger;
+    }
+
+    public List<SwapOffer> openOffers(String role, LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query(OPEN_OFFERS, OFFER, role, from, to, limit);
+    }
+
+    public SwapOffer offer(UUID assignmentId, UUID workerId) {
+        lockAssignment(assignmentId);
+        Placement placement = placement(assignmentId);
+        if (!placement.workerId().equals(workerId)) {
+            throw new IllegalArgumentException("Assignment does not belong to worker");
+        }
+        Integer open = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM swap_offer WHERE assignment_id = ? AND status = 'OPEN'", Integer.class, assignmentId);
+        if (open != null && open > 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Assignment is already offered");
+        }
+        SwapOffer offer = new SwapOffer(UUID.randomUUID(), assignmentId, placement.shiftId(), workerId,
+            placement.role(), placement.date(), OPEN, LocalDateTime.now());
+        jdbcTemplate.update("""
+            INSERT INTO swap_offer (id, assignment_id, shift_id, worker_id, role, shift_date, status, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """, offer.id(), offer.assignmentId(), offer.shiftId(), offer.workerId(), offer.role(),
+            offer.shiftDate(), offer.status(), Timestamp.valueOf(offer.createdAt()));
+        return offer;
+    }
+
+    public void cancel(UUID offerId, UUID workerId) {
+        int cancelled = jdbcTemplate.update(
+            "UPDATE swap_offer SET status = ?, resolved_at = ? WHERE id = ? AND worker_id = ? AND status = 'OPEN'",
+            CANCELLED, Timestamp.valueOf(LocalDateTime.now()), offerId, workerId);
+        if (cancelled == 0) {
+            throw new IllegalArgumentException("No open swap offer " + offerId + " for worker");
+        }
+    }
+
+    /**
+     * Accepts the offer by giving {@code assignmentId} (held by {@code workerId})
+     * in exchange. Returns the accepted offer.
+     */
+    public SwapOffer accept(UUID offerId, UUID assignmentId, UUID workerId) {
+        SwapOffer offer = find(offerId);
+        if (!OPEN.equals(offer.status())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Swap offer is no longer open");
+        }
+        if (offer.workerId().equals(workerId)) {
+            throw new IllegalArgumentException("Cannot accept your own swap offer");
+        }
+
+        lockInOrder("worker", offer.workerId(), workerId);
+        lockInOrder("shiftassignment", offer.assignmentId(), assignmentId);
+        String status = jdbcTemplate.queryForObject(
+            "SELECT status FROM swap_offer WHERE id = ? FOR UPDATE", String.class, offerId);
+        if (!OPEN.equals(status)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Swap offer is no longer open");
+        }
+
+        // Re-read under lock: either side may have been swapped or unassigned meanwhile
+        Placement offered = placement(offer.assignmentId());
+        Placement given = placement(assignmentId);
+        if (!offered.workerId().equals(offer.workerId())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Swap offer is stale");
+        }
+        if (!given.workerId().equals(workerId)) {
+            throw new IllegalArgumentException("Assignment does not belong to worker");
+        }
+        if (offered.shiftId().equals(given.shiftId())) {
+            throw new IllegalArgumentException("Both assignments are on the same shift");
+        }
+
+        Worker offerer = worker(offer.workerId());
+        Worker accepter = worker(workerId);
+        requireFits(offerer, given, offer.assignmentId());
+        requireFits(accepter, offered, assignmentId);
+        // Both sides give their shift back before taking the other, so the cap sees the week after the swap
+        release(offerer, offered);
+        release(accepter, given);
+        book(accepter, offered);
+        book(offerer, given);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("UPDATE shiftassignment SET worker_id = ?, assigned_at = ? WHERE id = ?",
+            accepter.getId(), now, offer.assignmentId());
+        jdbcTemplate.update("UPDATE shiftassignment SET worker_id = ?, assigned_at = ? WHERE id = ?",
+            offerer.getId(), now, assignmentId);
+        shiftSlots.reassign(offered.shiftId(), offerer.getId(), accepter.getId());
+        shiftSlots.reassign(given.shiftId(), accepter.getId(), offerer.getId());
+
+        jdbcTemplate.update(
+            "UPDATE swap_offer SET status = ?, accepted_assignment_id = ?, resolved_at = ? WHERE id = ?",
+            ACCEPTED, assignmentId, now, offerId);
+        // Offers on either assignment were made by its previous holder
+        jdbcTemplate.update("""
+            UPDATE swap_offer SET status = ?, resolved_at = ?
+            WHERE assignment_id IN (?, ?) AND status = 'OPEN' AND id <> ?
+            """, CANCELLED, now, offer.assignmentId(), assignmentId, offerId);
+
+        events.publishEvent(SchedulerChangeEvent.shiftUnassigned(offered.shiftId(), offerer.getId()));
+        events.publishEvent(SchedulerChangeEvent.shiftAssigned(offered.shiftId(), accepter));
+        events.publishEvent(SchedulerChangeEvent.shiftUnassigned(given.shiftId(), accepter.getId()));
+        events.publishEvent(SchedulerChangeEvent.shiftAssigned(given.shiftId(), offerer));
+        return find(offerId);
+    }
+
+    private void requireFits(Worker worker, Placement target, UUID releasedAssignmentId) {
+        if (!worker.getRole().equals(target.role())) {
+            throw new IllegalArgumentException("Worker " + worker.getName() + " cannot work a " + target.role() + " shift");
+        }
+        Integer overlapping = jdbcTemplate.queryForObject(OVERLAPS, Integer.class,
+            worker.getId(), releasedAssignmentId, target.endTime(), target.startTime());
+        if (overlapping != null && overlapping > 0) {
+            throw new IllegalArgumentException("Swap would overlap another shift of " + worker.getName());
+        }
+    }
+
+    private void release(Worker worker, Placement placement) {
+        hoursLedger.release(worker.getId(), placement.date(),
+            placement.startTime().toLocalDateTime(), placement.endTime().toLocalDateTime());
+    }
+
+    private void book(Worker worker, Placement placement) {
+        hoursLedger.assign(worker.getId(), placement.date(),
+            placement.startTime().toLocalDateTime(), placement.endTime().toLocalDateTime());
+    }
+
+    private void lockInOrder(String table, UUID first, UUID second) {
+        boolean ordered = first.compareTo(second) <= 0;
+        lock(table, ordered ? first : second);
+        lock(table, ordered ? second : first);
+    }
+
+    private void lockAssignment(UUID assignmentId) {
+        lock("shiftassignment", assignmentId);
+    }
+
+    private void lock(String table, UUID id) {
+        if (jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id = ? FOR UPDATE", UUID.class, id).isEmpty()) {
+            throw new IllegalArgumentException((table.equals("worker") ? "Worker" : "Assignment") + " not found");
+        }
+    }
+
+    private SwapOffer find(UUID offerId) {
+        List<SwapOffer> offers = jdbcTemplate.query(
+            "SELECT " + OFFER_COLUMNS + " FROM swap_offer WHERE id = ?", OFFER, offerId);
+        if (offers.isEmpty()) {
+            throw new IllegalArgumentException("Swap offer not found");
+        }
+        return offers.get(0);
+    }
+
+    private Placement placement(UUID assignmentId) {
+        List<Placement> placements = jdbcTemplate.query(SHIFT_OF_ASSIGNMENT, PLACEMENT, assignmentId);
+        if (placements.isEmpty()) {
+            throw new IllegalArgumentException("Assignment not found");
+        }
+        return placements.get(0);
+    }
+
+    private Worker worker(UUID workerId) {
+        return jdbcTemplate.queryForObject("SELECT id, name, role FROM worker WHERE id = ?", (rs, i) ->
+            Worker.builder()
+                .id(rs.getObject("id", UUID.class))
+                .name(rs.getString("name"))
+                .role(rs.getString("role"))
+                .build(), workerId);
+    }
+
+    private record Placement(UUID workerId, UUID shiftId, LocalDate date, String role, Timestamp startTime, Timestamp endTime) {}
+}
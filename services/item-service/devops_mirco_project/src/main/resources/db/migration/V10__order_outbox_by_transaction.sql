@@ -0,0 +1,15 @@
+-- The relay drained the outbox in id order on every instance. Ids are drawn
+-- at insert time, so a transaction that took a lower id but committed later
+-- landed behind higher ids, and with SKIP LOCKED each instance pulled its own
+-- share of the table into its own change log. Rows now carry the id of the
+-- transaction that wrote them: the relay only takes rows of transactions older
+-- than every one still running, and one instance at a time holds the lease.
+ALTER TABLE outbox ADD COLUMN txid xid8 NOT NULL DEFAULT pg_current_xact_id();
+CREATE INDEX outbox_txid_id_idx ON outbox (txid, id);
+
+CREATE TABLE outbox_relay(
+    id INT PRIMARY KEY CHECK (id = 1),
+    owner TEXT NOT NULL,
+    renewed_at TIMESTAMPTZ NOT NULL
+);
+INSERT INTO outbox_relay (id, owner, renewed_at) VALUES (1, '', '-infinity');
@@ -0,0 +1,10 @@
+-- Written in the same transaction as the shift/assignment mutation it describes,
+-- drained in id order by the outbox relay into the local change log.
+CREATE TABLE outbox(
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type TEXT NOT NULL,
+    aggregate_id UUID NOT NULL,
+    event_type TEXT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,29 @@
+-- A shift now has a headcount; each seat is a row in shift_slot so concurrent
+-- claims lock different rows (FOR UPDATE SKIP LOCKED) instead of queueing on the shift.
+ALTER TABLE shift ADD COLUMN capacity INTEGER NOT NULL DEFAULT 1 CHECK (capacity > 0);
+
+CREATE TABLE shift_slot(
+    shift_id UUID NOT NULL REFERENCES shift(id) ON DELETE CASCADE,
+    slot_no INTEGER NOT NULL,
+    worker_id UUID REFERENCES worker(id),
+    claimed_at TIMESTAMP,
+    PRIMARY KEY (shift_id, slot_no)
+);
+
+-- One seat per worker per shift; NULLs (free seats) do not collide
+CREATE UNIQUE INDEX shift_slot_worker_uq ON shift_slot(shift_id, worker_id);
+CREATE INDEX shift_slot_free_idx ON shift_slot(shift_id, slot_no) WHERE worker_id IS NULL;
+
+-- Existing shifts keep every worker they already have
+UPDATE shift s SET capacity = GREATEST(1,
+    (SELECT COUNT(DISTINCT a.worker_id) FROM shiftassignment a WHERE a.shift_id = s.id));
+
+INSERT INTO shift_slot (shift_id, slot_no, worker_id, claimed_at)
+SELECT a.shift_id, ROW_NUMBER() OVER (PARTITION BY a.shift_id ORDER BY a.assigned_at, a.worker_id),
+       a.worker_id, a.assigned_at
+FROM (SELECT shift_id, worker_id, MIN(assigned_at) AS assigned_at
+      FROM shiftassignment GROUP BY shift_id, worker_id) a;
+
+INSERT INTO shift_slot (shift_id, slot_no)
+SELECT s.id, 1 FROM shift s
+WHERE NOT EXISTS (SELECT 1 FROM shift_slot x WHERE x.shift_id = s.id);
@@ -0,0 +1,18 @@
+-- A worker offers one of their assignments; another worker of the same role
+-- accepts by giving one of theirs in exchange.
+CREATE TABLE swap_offer(
+    id UUID PRIMARY KEY,
+    assignment_id UUID NOT NULL REFERENCES shiftassignment(id) ON DELETE CASCADE,
+    shift_id UUID NOT NULL REFERENCES shift(id) ON DELETE CASCADE,
+    worker_id UUID NOT NULL REFERENCES worker(id),
+    role TEXT NOT NULL REFERENCES roles(name),
+    shift_date DATE NOT NULL,
+    status TEXT NOT NULL DEFAULT 'OPEN',
+    accepted_assignment_id UUID,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    resolved_at TIMESTAMP
+);
+
+-- Marketplace lookups only ever ask for open offers of a role around a date
+CREATE INDEX swap_offer_open_idx ON swap_offer(role, shift_date) WHERE status = 'OPEN';
+CREATE UNIQUE INDEX swap_offer_open_assignment_uq ON swap_offer(assignment_id) WHERE status = 'OPEN';
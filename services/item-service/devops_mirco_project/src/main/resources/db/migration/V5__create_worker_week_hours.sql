@@ -0,0 +1,21 @@
+-- Assigned minutes per worker and ISO week (iso_week = ISO year * 100 + week,
+-- by shift date), kept up to date by every assign, unassign, swap and shift
+-- removal so the overtime check is one row lookup instead of a scan of the
+-- worker's assignments. version increases on every change.
+CREATE TABLE worker_week_hours(
+    worker_id UUID NOT NULL REFERENCES worker(id),
+    iso_week INTEGER NOT NULL,
+    minutes INTEGER NOT NULL CHECK (minutes >= 0),
+    version BIGINT NOT NULL DEFAULT 1,
+    PRIMARY KEY (worker_id, iso_week)
+);
+
+CREATE INDEX worker_week_hours_week_idx ON worker_week_hours(iso_week);
+
+INSERT INTO worker_week_hours (worker_id, iso_week, minutes)
+SELECT a.worker_id,
+       (EXTRACT(ISOYEAR FROM s.date) * 100 + EXTRACT(WEEK FROM s.date))::INTEGER,
+       SUM(GREATEST(0, FLOOR(EXTRACT(EPOCH FROM (s.end_time - s.start_time)) / 60)))::INTEGER
+FROM shiftassignment a
+JOIN shift s ON s.id = a.shift_id
+GROUP BY 1, 2;
@@ -0,0 +1,102 @@
+-- shift and shiftassignment are range-partitioned by month on the shift date
+-- (shift_pYYYYMM / shiftassignment_pYYYYMM), so date-bounded queries only read
+-- the months they ask for and old months can be archived by detaching them.
+-- Keys of a partitioned table must include the partition column, so every
+-- reference to a shift or an assignment now carries the shift date as well.
+-- Rows for a month without a partition land in the *_default partitions.
+
+ALTER TABLE shiftassignment DROP CONSTRAINT shiftassignment_shift_id_fkey;
+ALTER TABLE shift_slot DROP CONSTRAINT shift_slot_shift_id_fkey;
+ALTER TABLE swap_offer DROP CONSTRAINT swap_offer_assignment_id_fkey;
+ALTER TABLE swap_offer DROP CONSTRAINT swap_offer_shift_id_fkey;
+
+ALTER TABLE shift RENAME TO shift_unpartitioned;
+ALTER INDEX shift_pkey RENAME TO shift_unpartitioned_pkey;
+ALTER TABLE shiftassignment RENAME TO shiftassignment_unpartitioned;
+ALTER INDEX shiftassignment_pkey RENAME TO shiftassignment_unpartitioned_pkey;
+
+CREATE TABLE shift(
+    id UUID NOT NULL,
+    date DATE NOT NULL,
+    worker_id UUID REFERENCES worker(id),
+    required_role TEXT NOT NULL REFERENCES roles(name),
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    capacity INTEGER NOT NULL DEFAULT 1 CHECK (capacity > 0),
+    PRIMARY KEY (id, date)
+) PARTITION BY RANGE (date);
+
+CREATE TABLE shiftassignment(
+    id UUID NOT NULL,
+    shift_id UUID NOT NULL,
+    shift_date DATE NOT NULL,
+    worker_id UUID NOT NULL REFERENCES worker(id),
+    assigned_at TIMESTAMP DEFAULT NOW(),
+    PRIMARY KEY (id, shift_date),
+    FOREIGN KEY (shift_id, shift_date) REFERENCES shift(id, date)
+) PARTITION BY RANGE (shift_date);
+
+CREATE INDEX shiftassignment_shift_idx ON shiftassignment(shift_id);
+CREATE INDEX shiftassignment_worker_idx ON shiftassignment(worker_id);
+
+CREATE TABLE shift_default PARTITION OF shift DEFAULT;
+CREATE TABLE shiftassignment_default PARTITION OF shiftassignment DEFAULT;
+
+-- Creates the partitions of both tables for each month from first_month to
+-- last_month that has none yet and returns how many months were created. A
+-- month that already has rows in the default partition is skipped: attaching
+-- it would mean moving those rows, so they stay where they are.
+CREATE FUNCTION create_shift_partitions(first_month DATE, last_month DATE) RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    m DATE := date_trunc('month', first_month)::DATE;
+    suffix TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE m <= last_month LOOP
+        suffix := to_char(m, '"p"YYYYMM');
+        IF to_regclass('shift_' || suffix) IS NULL THEN
+            IF EXISTS (SELECT 1 FROM shift_default WHERE date >= m AND date < (m + INTERVAL '1 month')::DATE) THEN
+                RAISE WARNING 'Shifts for % are in shift_default; not creating shift_%', to_char(m, 'YYYY-MM'), suffix;
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF shift FOR VALUES FROM (%L) TO (%L)',
+                    'shift_' || suffix, m, (m + INTERVAL '1 month')::DATE);
+                EXECUTE format('CREATE TABLE %I PARTITION OF shiftassignment FOR VALUES FROM (%L) TO (%L)',
+                    'shiftassignment_' || suffix, m, (m + INTERVAL '1 month')::DATE);
+                created := created + 1;
+            END IF;
+        END IF;
+        m := (m + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+-- Every month that has shifts, plus the current month and the next twelve
+SELECT create_shift_partitions(m, m)
+FROM (SELECT DISTINCT date_trunc('month', date)::DATE AS m FROM shift_unpartitioned) months;
+SELECT create_shift_partitions(CURRENT_DATE, (CURRENT_DATE + INTERVAL '12 months')::DATE);
+
+INSERT INTO shift (id, date, worker_id, required_role, start_time, end_time, capacity)
+SELECT id, date, worker_id, required_role, start_time, end_time, capacity FROM shift_unpartitioned;
+
+INSERT INTO shiftassignment (id, shift_id, shift_date, worker_id, assigned_at)
+SELECT a.id, a.shift_id, s.date, a.worker_id, a.assigned_at
+FROM shiftassignment_unpartitioned a
+JOIN shift_unpartitioned s ON s.id = a.shift_id;
+
+-- Seats stay in one table; they only need the date to reference their shift
+ALTER TABLE shift_slot ADD COLUMN shift_date DATE;
+UPDATE shift_slot x SET shift_date = s.date FROM shift_unpartitioned s WHERE s.id = x.shift_id;
+ALTER TABLE shift_slot ALTER COLUMN shift_date SET NOT NULL;
+ALTER TABLE shift_slot ADD FOREIGN KEY (shift_id, shift_date) REFERENCES shift(id, date) ON DELETE CASCADE;
+CREATE INDEX shift_slot_date_idx ON shift_slot(shift_date);
+
+-- swap_offer.shift_date is already the date of the offered shift
+ALTER TABLE swap_offer ADD FOREIGN KEY (shift_id, shift_date) REFERENCES shift(id, date) ON DELETE CASCADE;
+ALTER TABLE swap_offer ADD FOREIGN KEY (assignment_id, shift_date)
+    REFERENCES shiftassignment(id, shift_date) ON DELETE CASCADE;
+CREATE INDEX swap_offer_date_idx ON swap_offer(shift_date);
+
+DROP TABLE shiftassignment_unpartitioned;
+DROP TABLE shift_unpartitioned;
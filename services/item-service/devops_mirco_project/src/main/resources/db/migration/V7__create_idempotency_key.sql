@@ -0,0 +1,16 @@
+-- Responses of POSTs sent with an Idempotency-Key, so a retry gets the first
+-- response back instead of running again. scope is the caller, path and key;
+-- fingerprint is a SHA-256 of the request body. status_code is NULL while the
+-- first request is still running, and expires_at is then a short lease that
+-- lets another instance take over if the one running it dies.
+CREATE TABLE idempotency_key(
+    scope TEXT PRIMARY KEY,
+    fingerprint TEXT NOT NULL,
+    status_code INTEGER,
+    content_type TEXT,
+    body BYTEA,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idempotency_key_expires_idx ON idempotency_key(expires_at);
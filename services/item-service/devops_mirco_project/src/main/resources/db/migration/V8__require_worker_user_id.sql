@@ -0,0 +1,8 @@
+-- Worker.userId is the natural id the worker endpoints and the second-level
+-- cache look workers up by, so every row needs one. Rows created before
+-- X-User-Id was required get a fresh id that matches no user, so they stay
+-- reachable by worker id only.
+-- user_id is already UNIQUE since V1.
+UPDATE worker SET user_id = gen_random_uuid() WHERE user_id IS NULL;
+
+ALTER TABLE worker ALTER COLUMN user_id SET NOT NULL;
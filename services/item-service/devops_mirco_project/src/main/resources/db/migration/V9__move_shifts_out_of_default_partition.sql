@@ -0,0 +1,44 @@
+-- Shifts dated past the months-ahead window used to land in shift_default
+-- (and their assignments in shiftassignment_default). create_shift_partitions
+-- then skipped their month for good, and since the archival job only looks at
+-- month partitions those rows were never archived and every query scanned
+-- them. New shifts now get their month's partition before they are written;
+-- this moves the rows already stuck in the defaults into month partitions.
+--
+-- Deleting from a default partition would cascade to the seats and swap
+-- offers referencing it, so the foreign keys into shift and shiftassignment
+-- are dropped for the move and added back (and so re-validated) afterwards.
+DO $$
+DECLARE
+    fk RECORD;
+    m DATE;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM shift_default) AND NOT EXISTS (SELECT 1 FROM shiftassignment_default) THEN
+        RETURN;
+    END IF;
+
+    CREATE TEMP TABLE moved_fk ON COMMIT DROP AS
+    SELECT conrelid::regclass::text AS tbl, conname, pg_get_constraintdef(oid) AS def
+    FROM pg_constraint
+    WHERE contype = 'f' AND conparentid = 0 AND confrelid IN ('shift'::regclass, 'shiftassignment'::regclass);
+    FOR fk IN SELECT * FROM moved_fk LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.tbl, fk.conname);
+    END LOOP;
+
+    CREATE TEMP TABLE moved_shift ON COMMIT DROP AS SELECT * FROM shift_default;
+    CREATE TEMP TABLE moved_assignment ON COMMIT DROP AS SELECT * FROM shiftassignment_default;
+    DELETE FROM shiftassignment_default;
+    DELETE FROM shift_default;
+
+    FOR m IN SELECT date_trunc('month', date)::DATE FROM moved_shift
+             UNION SELECT date_trunc('month', shift_date)::DATE FROM moved_assignment LOOP
+        PERFORM create_shift_partitions(m, m);
+    END LOOP;
+    INSERT INTO shift SELECT * FROM moved_shift;
+    INSERT INTO shiftassignment SELECT * FROM moved_assignment;
+
+    FOR fk IN SELECT * FROM moved_fk LOOP
+        EXECUTE format('ALTER TABLE %s ADD CONSTRAINT %I %s', fk.tbl, fk.conname, fk.def);
+    END LOOP;
+END
+$$;
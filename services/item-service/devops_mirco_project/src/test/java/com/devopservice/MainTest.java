@@ -0,0 +1,152 @@
+package com.devopservice;
+
+import com.devopservice.events.SchedulerChangeEvent;
+import com.devopservice.support.SchedulerDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots the whole service with its default configuration on an empty
+ * Postgres, so its own Flyway run, Hibernate's schema validation and every
+ * bean's startup hooks are exercised together.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+// Metrics export is off in tests by default, which would leave out /actuator/prometheus
+@AutoConfigureObservability(tracing = false)
+@RecordApplicationEvents
+public class MainTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeAll
+    static void requirePostgres() {
+        SchedulerDatabase.assumeAvailable();
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        SchedulerDatabase.Database database = SchedulerDatabase.empty();
+        registry.add("spring.datasource.url", database::url);
+        registry.add("spring.datasource.username", database::username);
+        registry.add("spring.datasource.password", database::password);
+        registry.add("app.scheduler.outbox.log-dir", () -> dataDir.resolve("changelog").toString());
+        registry.add("app.scheduler.archive.dir", () -> dataDir.resolve("archive").toString());
+    }
+
+    @Test
+    void testContextLoads() throws Exception {
+        assertEquals(0, flyway.info().pending().length);
+        assertNotNull(flyway.info().current());
+        // Bound per cache, including the query cache that has no per-region statistics
+        assertNotNull(meterRegistry.find("hibernate.cache.requests").tag("cache", "query").functionCounter());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/shifts"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(header().string("Server-Timing", containsString("db;desc=")));
+        mockMvc.perform(get("/api/shifts").accept("application/cbor"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor"));
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void testShiftAssignEndpointsTakeASeatAndPublishEvents() throws Exception {
+        UUID workerId = id(mockMvc.perform(post("/api/scheduler")
+                .header("X-User-Id", UUID.randomUUID().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"w\",\"role\":\"floor\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString());
+        UUID shiftId = id(mockMvc.perform(post("/api/shifts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"date\":\"2026-03-02\",\"requiredRole\":\"floor\",\"startTime\":\"2026-03-02T08:00:00\","
+                    + "\"endTime\":\"2026-03-02T16:00:00\",\"capacity\":2}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString());
+
+        mockMvc.perform(put("/api/shifts/{shiftId}/assign/{workerId}", shiftId, workerId))
+            .andExpect(status().isOk())
+            .andExpect(content().json("{\"workerId\":\"" + workerId + "\"}"));
+        assertEquals(1, count("shift_slot", shiftId, workerId));
+        assertEquals(1, count("shiftassignment", shiftId, workerId));
+        assertEquals(List.of(SchedulerChangeEvent.Type.SHIFT_ASSIGNED), changes(shiftId));
+        mockMvc.perform(get("/api/shifts/unassigned"))
+            .andExpect(content().json("[{\"id\":\"" + shiftId + "\"}]"));
+
+        mockMvc.perform(put("/api/shifts/{shiftId}/unassign", shiftId))
+            .andExpect(status().isOk());
+        assertEquals(0, count("shift_slot", shiftId, workerId));
+        assertEquals(0, count("shiftassignment", shiftId, workerId));
+        assertEquals(List.of(SchedulerChangeEvent.Type.SHIFT_ASSIGNED, SchedulerChangeEvent.Type.SHIFT_UNASSIGNED),
+            changes(shiftId));
+    }
+
+    private UUID id(String json) throws Exception {
+        JsonNode node = objectMapper.readTree(json);
+        return UUID.fromString(node.get("id").asText());
+    }
+
+    private int count(String table, UUID shiftId, UUID workerId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE shift_id = ? AND worker_id = ?",
+            Integer.class, shiftId, workerId);
+    }
+
+    private List<SchedulerChangeEvent.Type> changes(UUID shiftId) {
+        return events.stream(SchedulerChangeEvent.class)
+            .filter(event -> shiftId.equals(event.shiftId()) && event.type() != SchedulerChangeEvent.Type.SHIFT_CREATED)
+            .map(SchedulerChangeEvent::type)
+            .toList();
+    }
+}
@@ -0,0 +1,138 @@
+package com.devopservice.analytics;
+
+import com.devopservice.dto.CoverageReport;
+import com.devopservice.events.SchedulerChangeEvent;
+import com.devopservice.support.SchedulerDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoverageAnalyticsTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private CoverageAnalytics analytics;
+    private UUID alice;
+    private UUID bob;
+
+    @BeforeAll
+    static void requirePostgres() {
+        SchedulerDatabase.assumeAvailable();
+    }
+
+    @BeforeEach
+    void setUp() {
+        dataSource = SchedulerDatabase.migrated().dataSource(4);
+        jdbc = new JdbcTemplate(dataSource);
+        analytics = new CoverageAnalytics(jdbc, 3600);
+
+        alice = worker("alice");
+        bob = worker("bob");
+        // Monday: a full two-seat floor shift and an empty manager shift
+        UUID floor = shift(MONDAY, "floor", 8, 16, 2);
+        assign(floor, MONDAY, alice);
+        assign(floor, MONDAY, bob);
+        shift(MONDAY, "manager", 9, 13, 1);
+        // Tuesday: a half-staffed floor shift
+        assign(shift(TUESDAY, "floor", 8, 12, 2), TUESDAY, alice);
+        // Outside the range
+        LocalDate april = LocalDate.of(2026, 4, 1);
+        assign(shift(april, "floor", 8, 16, 1), april, bob);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void testGroupsByRole() {
+        List<CoverageReport.Bucket> buckets = analytics.coverage(MONDAY, TUESDAY, CoverageAnalytics.GroupBy.ROLE).buckets();
+
+        assertEquals(2, buckets.size());
+        assertBucket(buckets.get(0), "floor", 2, 1, 20.0);
+        assertBucket(buckets.get(1), "manager", 1, 0, 0.0);
+    }
+
+    @Test
+    void testGroupsByDay() {
+        List<CoverageReport.Bucket> buckets = analytics.coverage(MONDAY, TUESDAY, CoverageAnalytics.GroupBy.DAY).buckets();
+
+        assertEquals(2, buckets.size());
+        assertBucket(buckets.get(0), MONDAY.toString(), 2, 1, 16.0);
+        assertBucket(buckets.get(1), TUESDAY.toString(), 1, 0, 4.0);
+    }
+
+    @Test
+    void testGroupsByWorker() {
+        List<CoverageReport.Bucket> buckets = analytics.coverage(MONDAY, TUESDAY, CoverageAnalytics.GroupBy.WORKER).buckets();
+
+        assertEquals(2, buckets.size());
+        assertEquals(alice.toString(), buckets.get(0).key());
+        assertEquals("alice", buckets.get(0).label());
+        assertEquals(2, buckets.get(0).shifts());
+        assertEquals(12.0, buckets.get(0).assignedHours(), 1e-9);
+        assertEquals(bob.toString(), buckets.get(1).key());
+        assertEquals(1, buckets.get(1).shifts());
+        assertEquals(8.0, buckets.get(1).assignedHours(), 1e-9);
+        assertNull(buckets.get(0).fillRate());
+    }
+
+    @Test
+    void testChangeEventDropsCachedReports() {
+        assertEquals(3, totalShifts());
+
+        UUID added = shift(TUESDAY, "manager", 13, 17, 1);
+        assertEquals(3, totalShifts(), "served from the cache until something changes");
+
+        analytics.invalidate(SchedulerChangeEvent.shiftRemoved(added));
+        assertEquals(4, totalShifts());
+    }
+
+    private long totalShifts() {
+        return analytics.coverage(MONDAY, TUESDAY, CoverageAnalytics.GroupBy.DAY).buckets().stream()
+            .mapToLong(CoverageReport.Bucket::shifts)
+            .sum();
+    }
+
+    private static void assertBucket(CoverageReport.Bucket bucket, String key, long shifts, long filled, double hours) {
+        assertEquals(key, bucket.key());
+        assertEquals(shifts, bucket.shifts());
+        assertEquals(filled, bucket.filled());
+        assertEquals(shifts - filled, bucket.open());
+        assertEquals((double) filled / shifts, bucket.fillRate(), 1e-9);
+        assertEquals(hours, bucket.assignedHours(), 1e-9);
+    }
+
+    private UUID worker(String name) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO worker (id, name, role, user_id) VALUES (?, ?, 'floor', ?)", id, name, UUID.randomUUID());
+        return id;
+    }
+
+    private UUID shift(LocalDate date, String role, int startHour, int endHour, int capacity) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO shift (id, date, required_role, start_time, end_time, capacity) VALUES (?, ?, ?, ?, ?, ?)",
+            id, date, role, Timestamp.valueOf(date.atTime(startHour, 0)), Timestamp.valueOf(date.atTime(endHour, 0)),
+            capacity);
+        return id;
+    }
+
+    private void assign(UUID shiftId, LocalDate date, UUID workerId) {
+        jdbc.update("INSERT INTO shiftassignment (id, shift_id, shift_date, worker_id) VALUES (?, ?, ?, ?)",
+            UUID.randomUUID(), shiftId, date, workerId);
+    }
+}
@@ -0,0 +1,101 @@
+package com.devopservice.archive;
+
+import com.devopservice.dto.ArchivedShift;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShiftArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private static ArchivedShift shift(LocalDate date, int assignments) {
+        List<ArchivedShift.Assignment> assigned = Stream.generate(() -> new ArchivedShift.Assignment(
+                UUID.randomUUID(), UUID.randomUUID(), date.minusDays(2).atTime(12, 0)))
+            .limit(assignments)
+            .toList();
+        return new ArchivedShift(UUID.randomUUID(), date, null, "floor", date.atTime(8, 0), date.atTime(16, 0),
+            Math.max(1, assignments), assigned);
+    }
+
+    private void archive(ShiftArchive archive, YearMonth month) throws IOException {
+        try (ShiftArchive.MonthWriter out = archive.write(month)) {
+            for (int day = 1; day <= month.lengthOfMonth(); day++) {
+                out.append(shift(month.atDay(day), day % 3));
+            }
+            out.commit();
+            assertEquals(month.lengthOfMonth(), out.count());
+        }
+    }
+
+    @Test
+    void testWritingAnArchivedMonthAgainMergesIntoItsFile() throws IOException {
+        ShiftArchive archive = new ShiftArchive(dir.toString());
+        YearMonth month = YearMonth.of(2024, 2);
+        archive(archive, month);
+        ArchivedShift rewritten = archive.read(month.atDay(10), month.atDay(10)).get(0);
+        ArchivedShift added = shift(month.atDay(10), 0);
+
+        try (ShiftArchive.MonthWriter out = archive.write(month)) {
+            out.append(new ArchivedShift(rewritten.id(), rewritten.date(), null, "manager", rewritten.startTime(),
+                rewritten.endTime(), rewritten.capacity(), rewritten.assignments()));
+            out.append(added);
+            out.commit();
+            assertEquals(2, out.count());
+            assertEquals(30, out.total());
+        }
+
+        assertEquals(30, archive.count(month));
+        List<ArchivedShift> tenth = archive.read(month.atDay(10), month.atDay(10));
+        assertEquals(2, tenth.size());
+        assertEquals("manager", tenth.stream().filter(s -> s.id().equals(rewritten.id())).findFirst()
+            .orElseThrow().requiredRole());
+        // Still in date order across the merged file
+        List<LocalDate> dates = archive.read(month.atDay(1), month.atEndOfMonth()).stream().map(ArchivedShift::date).toList();
+        assertEquals(dates.stream().sorted().toList(), dates);
+    }
+
+    @Test
+    void testReadsRangesAcrossArchivedMonths() throws IOException {
+        ShiftArchive archive = new ShiftArchive(dir.toString());
+        archive(archive, YearMonth.of(2024, 1));
+        archive(archive, YearMonth.of(2024, 2));
+
+        assertEquals(List.of(YearMonth.of(2024, 1), YearMonth.of(2024, 2)), List.copyOf(archive.months()));
+        assertEquals(29, archive.count(YearMonth.of(2024, 2)));
+
+        List<ArchivedShift> shifts = archive.read(LocalDate.of(2024, 1, 30), LocalDate.of(2024, 2, 2));
+        assertEquals(List.of(LocalDate.of(2024, 1, 30), LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 1),
+            LocalDate.of(2024, 2, 2)), shifts.stream().map(ArchivedShift::date).toList());
+        assertEquals(2, shifts.get(3).assignments().size());
+        assertEquals(LocalDate.of(2024, 1, 31).atTime(12, 0), shifts.get(3).assignments().get(0).assignedAt());
+
+        // Months without a file are simply not there
+        assertTrue(archive.read(LocalDate.of(2023, 12, 1), LocalDate.of(2023, 12, 31)).isEmpty());
+    }
+
+    @Test
+    void testAbandonedMonthLeavesNothingBehind() throws IOException {
+        ShiftArchive archive = new ShiftArchive(dir.toString());
+        archive(archive, YearMonth.of(2024, 3));
+        try (ShiftArchive.MonthWriter out = archive.write(YearMonth.of(2024, 3))) {
+            out.append(shift(LocalDate.of(2024, 3, 1), 1));
+        }
+
+        assertEquals(31, archive.count(YearMonth.of(2024, 3)));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of("shifts-2024-03.jsonl.gz"), files.map(f -> f.getFileName().toString()).toList());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.devopservice.archive;
+
+import com.devopservice.dto.ArchivedShift;
+import com.devopservice.roster.RosterReadModel;
+import com.devopservice.support.SchedulerDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShiftPartitionsTest {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    // Declared ones only; Postgres adds a clone per referenced partition
+    private static final String FOREIGN_KEYS = "SELECT COUNT(*) FROM pg_constraint WHERE contype = 'f' AND conparentid = 0";
+
+    @TempDir
+    Path dir;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void requirePostgres() {
+        SchedulerDatabase.assumeAvailable();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    private void open(SchedulerDatabase.Database database) {
+        dataSource = database.dataSource(4);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    private ShiftPartitions partitions(ShiftArchive archive) {
+        return new ShiftPartitions(dataSource, new DataSourceTransactionManager(dataSource), archive,
+            new RosterReadModel(), 24, 12);
+    }
+
+    @Test
+    void testShiftPastTheWindowGetsAMonthPartition() throws Exception {
+        open(SchedulerDatabase.migrated());
+        ShiftPartitions partitions = partitions(new ShiftArchive(dir.toString()));
+        LocalDate date = LocalDate.now().plusMonths(30);
+
+        partitions.ensureMonth(date);
+        partitions.ensureMonth(date);
+        UUID shift = shift(date, worker());
+
+        assertEquals("shift_" + YearMonth.from(date).format(SUFFIX), partitionOf("shift", shift));
+        assertTrue(partitions.partitionedMonths().contains(YearMonth.from(date)));
+        assertEquals(0, count("SELECT COUNT(*) FROM shift_default"));
+    }
+
+    @Test
+    void testMaintainArchivesOldMonthsAndDropsTheirPartitions() throws Exception {
+        open(SchedulerDatabase.migrated());
+        ShiftArchive archive = new ShiftArchive(dir.toString());
+        ShiftPartitions partitions = partitions(archive);
+        YearMonth old = YearMonth.now().minusMonths(30);
+        createPartitions(old);
+        UUID worker = worker();
+        for (int day = 1; day <= 3; day++) {
+            shift(old.atDay(day), worker);
+        }
+        UUID kept = shift(LocalDate.now(), worker);
+
+        partitions.maintain();
+
+        assertNull(jdbc.queryForObject("SELECT to_regclass(?)::text", String.class, "shift_" + old.format(SUFFIX)));
+        assertNull(jdbc.queryForObject("SELECT to_regclass(?)::text", String.class,
+            "shiftassignment_" + old.format(SUFFIX)));
+        assertFalse(partitions.partitionedMonths().contains(old));
+        assertTrue(partitions.partitionedMonths().contains(YearMonth.now().plusMonths(12)));
+        assertEquals(1, count("SELECT COUNT(*) FROM shift"));
+        assertEquals(1, count("SELECT COUNT(*) FROM shift_slot"));
+        assertEquals(1, count("SELECT COUNT(*) FROM swap_offer"));
+        assertEquals(kept, jdbc.queryForObject("SELECT id FROM shift", UUID.class));
+
+        List<ArchivedShift> archived = archive.read(old.atDay(1), old.atEndOfMonth());
+        assertEquals(3, archived.size());
+        assertEquals(List.of(worker), archived.get(0).assignments().stream().map(ArchivedShift.Assignment::workerId).toList());
+    }
+
+    @Test
+    void testArchivedMonthIsNotReopenedOrOverwritten() throws Exception {
+        open(SchedulerDatabase.migrated());
+        ShiftArchive archive = new ShiftArchive(dir.toString());
+        ShiftPartitions partitions = partitions(archive);
+        YearMonth old = YearMonth.now().minusMonths(30);
+        createPartitions(old);
+        UUID worker = worker();
+        for (int day = 1; day <= 3; day++) {
+            shift(old.atDay(day), worker);
+        }
+        partitions.maintain();
+        assertEquals(3, archive.count(old));
+
+        // Through the API: past the retention window, and archived even with a longer window
+        ResponseStatusException expired = assertThrows(ResponseStatusException.class,
+            () -> partitions.ensureMonth(old.atDay(5)));
+        assertEquals(HttpStatus.CONFLICT, expired.getStatusCode());
+        ShiftPartitions longerRetention = new ShiftPartitions(dataSource, new DataSourceTransactionManager(dataSource),
+            archive, new RosterReadModel(), 48, 12);
+        assertThrows(ResponseStatusException.class, () -> longerRetention.ensureMonth(old.atDay(5)));
+        assertNull(jdbc.queryForObject("SELECT to_regclass(?)::text", String.class, "shift_" + old.format(SUFFIX)));
+
+        // Around it: the month comes back and is archived again, next to what was archived before
+        createPartitions(old);
+        UUID late = shift(old.atDay(5), worker);
+        partitions.maintain();
+
+        List<ArchivedShift> archived = archive.read(old.atDay(1), old.atEndOfMonth());
+        assertEquals(4, archived.size());
+        assertEquals(late, archived.get(3).id());
+        assertEquals(0, count("SELECT COUNT(*) FROM shift"));
+    }
+
+    @Test
+    void testMigrationMovesDefaultPartitionRowsIntoMonthPartitions() {
+        SchedulerDatabase.Database database = SchedulerDatabase.empty();
+        migrate(database, "8");
+        open(database);
+        LocalDate far = LocalDate.now().plusMonths(40);
+        UUID worker = worker();
+        UUID shift = shift(far, worker);
+        assertEquals("shift_default", partitionOf("shift", shift));
+        int foreignKeys = count(FOREIGN_KEYS);
+
+        migrate(database, "latest");
+
+        String suffix = YearMonth.from(far).format(SUFFIX);
+        assertEquals("shift_" + suffix, partitionOf("shift", shift));
+        assertEquals("shiftassignment_" + suffix, jdbc.queryForObject(
+            "SELECT tableoid::regclass::text FROM shiftassignment WHERE shift_id = ?", String.class, shift));
+        assertEquals(0, count("SELECT COUNT(*) FROM shift_default") + count("SELECT COUNT(*) FROM shiftassignment_default"));
+        assertEquals(1, count("SELECT COUNT(*) FROM shift_slot"));
+        assertEquals(1, count("SELECT COUNT(*) FROM swap_offer"));
+        assertEquals(foreignKeys, count(FOREIGN_KEYS));
+        // The foreign keys are back in force
+        assertThrows(DataIntegrityViolationException.class, () -> jdbc.update(
+            "INSERT INTO shift_slot (shift_id, shift_date, slot_no) VALUES (?, ?, 1)", UUID.randomUUID(), far));
+    }
+
+    private static void migrate(SchedulerDatabase.Database database, String target) {
+        Flyway.configure()
+            .dataSource(database.url(), database.username(), database.password())
+            .locations("classpath:db/migration")
+            .target(target)
+            .load()
+            .migrate();
+    }
+
+    /** Months past the retention window are refused by ensureMonth, so their partitions are made here. */
+    private void createPartitions(YearMonth month) {
+        jdbc.queryForObject("SELECT create_shift_partitions(?, ?)", Integer.class, month.atDay(1), month.atDay(1));
+    }
+
+    private UUID worker() {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO worker (id, name, role, user_id) VALUES (?, 'w', 'floor', ?)", id, UUID.randomUUID());
+        return id;
+    }
+
+    /** A one-seat shift with the worker on it and their assignment offered for swap. */
+    private UUID shift(LocalDate date, UUID worker) {
+        UUID id = UUID.randomUUID();
+        UUID assignment = UUID.randomUUID();
+        jdbc.update("INSERT INTO shift (id, date, required_role, start_time, end_time, capacity) VALUES (?, ?, 'floor', ?, ?, 1)",
+            id, date, Timestamp.valueOf(date.atTime(8, 0)), Timestamp.valueOf(date.atTime(16, 0)));
+        jdbc.update("INSERT INTO shift_slot (shift_id, shift_date, slot_no, worker_id) VALUES (?, ?, 1, ?)", id, date, worker);
+        jdbc.update("INSERT INTO shiftassignment (id, shift_id, shift_date, worker_id) VALUES (?, ?, ?, ?)",
+            assignment, id, date, worker);
+        jdbc.update("INSERT INTO swap_offer (id, assignment_id, shift_id, worker_id, role, shift_date) "
+            + "VALUES (?, ?, ?, ?, 'floor', ?)", UUID.randomUUID(), assignment, id, worker, date);
+        return id;
+    }
+
+    private String partitionOf(String table, UUID id) {
+        return jdbc.queryForObject("SELECT tableoid::regclass::text FROM " + table + " WHERE id = ?", String.class, id);
+    }
+
+    private int count(String sql) {
+        return jdbc.queryForObject(sql, Integer.class);
+    }
+}
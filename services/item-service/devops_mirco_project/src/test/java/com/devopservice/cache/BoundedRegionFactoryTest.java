@@ -0,0 +1,99 @@
+package com.devopservice.cache;
+
+import com.devopservice.entities.Roles;
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.ShiftAssignment;
+import com.devopservice.entities.Worker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedRegionFactoryTest {
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Roles.class)
+            .addAnnotatedClass(Worker.class)
+            .addAnnotatedClass(Shift.class)
+            .addAnnotatedClass(ShiftAssignment.class)
+            .setProperty(AvailableSettings.URL, "jdbc:h2:mem:l2-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true")
+            .setProperty(AvailableSettings.USE_QUERY_CACHE, "true")
+            .setProperty(AvailableSettings.CACHE_REGION_FACTORY, BoundedRegionFactory.class.getName())
+            .setProperty(AvailableSettings.GENERATE_STATISTICS, "true")
+            .buildSessionFactory();
+        statistics = sessionFactory.getStatistics();
+        sessionFactory.inTransaction(session -> session.persist(new Roles("floor")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testWorkerByIdAndUserIdServedFromCache() {
+        UUID userId = UUID.randomUUID();
+        Worker worker = Worker.builder().id(UUID.randomUUID()).name("Ada").role("floor").userId(userId).build();
+        sessionFactory.inTransaction(session -> session.persist(worker));
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            sessionFactory.inTransaction(session -> {
+                // Natural id first: once the entity is in the session it would resolve from there
+                assertEquals(worker.getId(), session.bySimpleNaturalId(Worker.class).load(userId).getId());
+                assertEquals("Ada", session.find(Worker.class, worker.getId()).getName());
+            });
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() >= 3);
+    }
+
+    @Test
+    void testRolesQueryCached() {
+        for (int i = 0; i < 3; i++) {
+            List<Roles> roles = sessionFactory.fromTransaction(session -> session
+                .createSelectionQuery("from Roles", Roles.class)
+                .setCacheable(true)
+                .list());
+            assertEquals(1, roles.size());
+        }
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+        assertEquals(2.0 / 3, HibernateCacheMetrics.hitRatio(statistics.getQueryCacheHitCount(),
+            statistics.getQueryCacheMissCount()), 1e-9);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new HibernateCacheMetrics(sessionFactory).bindTo(registry);
+        assertEquals(2.0 / 3, registry.get("hibernate.cache.hit.ratio").tag("cache", "query").gauge().value(), 1e-9);
+        assertNotNull(registry.get("hibernate.cache.requests")
+            .tag("region", Worker.class.getName()).tag("result", "hit").functionCounter());
+    }
+
+    @Test
+    void testRegionStaysBounded() {
+        BoundedStorageAccess region = new BoundedStorageAccess(100);
+        for (int i = 0; i < 1000; i++) {
+            region.putIntoCache(i, "v" + i, null);
+        }
+        assertTrue(region.size() <= 100);
+        assertTrue(region.contains(999));
+    }
+}
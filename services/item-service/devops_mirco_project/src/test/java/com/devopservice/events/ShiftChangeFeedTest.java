@@ -0,0 +1,97 @@
+package com.devopservice.events;
+
+import com.devopservice.dto.ShiftChangeNotice;
+import com.devopservice.entities.Worker;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShiftChangeFeedTest {
+
+    // Drain tasks only run when the test says so, simulating a slow consumer
+    private static class PausedExecutor implements Executor {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    private final PausedExecutor executor = new PausedExecutor();
+    private final List<ShiftChangeNotice> received = new ArrayList<>();
+    private final Worker worker = Worker.builder().id(UUID.randomUUID()).name("John Doe").build();
+
+    @Test
+    void testQueuedChangesForSameShiftAreCoalesced() {
+        ShiftChangeFeed feed = new ShiftChangeFeed(16, 8, executor);
+        Runnable cancel = feed.subscribe(null, received::add);
+        UUID shiftId = UUID.randomUUID();
+
+        feed.on(SchedulerChangeEvent.shiftAssigned(shiftId, worker));
+        feed.on(SchedulerChangeEvent.shiftUnassigned(shiftId, worker.getId()));
+        executor.runAll();
+
+        assertEquals(1, received.size());
+        assertEquals("SHIFT_UNASSIGNED", received.get(0).type());
+        cancel.run();
+        assertEquals(0, feed.subscriberCount());
+    }
+
+    @Test
+    void testSlowSubscriberOverflowTurnsIntoResync() {
+        ShiftChangeFeed feed = new ShiftChangeFeed(16, 2, executor);
+        feed.subscribe(null, received::add);
+
+        for (int i = 0; i < 3; i++) {
+            feed.on(SchedulerChangeEvent.shiftRemoved(UUID.randomUUID()));
+        }
+        executor.runAll();
+
+        assertEquals(1, received.size());
+        assertEquals(ShiftChangeNotice.RESYNC, received.get(0).type());
+    }
+
+    @Test
+    void testResumeFromLastEventId() {
+        ShiftChangeFeed feed = new ShiftChangeFeed(16, 8, executor);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        feed.on(SchedulerChangeEvent.shiftRemoved(first));
+        feed.on(SchedulerChangeEvent.shiftRemoved(second));
+
+        feed.subscribe(1L, received::add);
+        executor.runAll();
+
+        assertEquals(1, received.size());
+        assertEquals(second, received.get(0).shiftId());
+    }
+
+    @Test
+    void testFailedSendUnsubscribes() {
+        ShiftChangeFeed feed = new ShiftChangeFeed(16, 8, executor);
+        feed.subscribe(null, notice -> {
+            throw new IOException("Broken pipe");
+        });
+        feed.heartbeat();
+        assertEquals(1, executor.tasks.size());
+        executor.runAll();
+
+        assertEquals(0, feed.subscriberCount());
+    }
+}
@@ -0,0 +1,65 @@
+package com.devopservice.export;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CursorExportTest {
+
+    @Test
+    void testStreamsEveryRowAcrossChunks() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:export;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE numbers(n INT)");
+            statement.execute("INSERT INTO numbers SELECT x FROM SYSTEM_RANGE(1, 5000)");
+        }
+
+        CursorExport export = new CursorExport(dataSource, "SELECT n FROM numbers WHERE n > ? ORDER BY n",
+            new Object[] {0}, "n\n", (rs, out) -> out.append(rs.getInt(1)).append('\n'), "end\n");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        AtomicInteger flushes = new AtomicInteger();
+        export.writeTo(new FilterOutputStream(body) {
+            @Override
+            public void flush() throws IOException {
+                flushes.incrementAndGet();
+                super.flush();
+            }
+        });
+
+        assertTrue(flushes.get() > 1);
+        String[] lines = body.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5002, lines.length);
+        assertEquals("n", lines[0]);
+        assertEquals("5000", lines[5000]);
+        assertEquals("end", lines[5001]);
+    }
+
+    @Test
+    void testFormatsEscapeAndPad() {
+        StringBuilder out = new StringBuilder();
+        ScheduleFormats.appendCsvField(out, "Doe, \"JD\" John");
+        assertEquals("\"Doe, \"\"JD\"\" John\"", out.toString());
+
+        out.setLength(0);
+        ScheduleFormats.appendHours(out, 450);
+        assertEquals("7.50", out.toString());
+
+        out.setLength(0);
+        ScheduleFormats.appendIcsDateTime(out, LocalDateTime.of(2024, 3, 5, 7, 0, 9));
+        assertEquals("20240305T070009", out.toString());
+
+        out.setLength(0);
+        ScheduleFormats.appendIcsText(out, "floor; manager");
+        assertEquals("floor\\; manager", out.toString());
+    }
+}
@@ -0,0 +1,223 @@
+package com.devopservice.hours;
+
+import com.devopservice.dto.WeeklyHours;
+import com.devopservice.support.SchedulerDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HoursLedgerTest {
+
+    private final LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+
+    private HikariDataSource dataSource;
+    private DataSourceTransactionManager txManager;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+    private HoursLedger ledger;
+
+    @BeforeAll
+    static void requirePostgres() {
+        SchedulerDatabase.assumeAvailable();
+    }
+
+    @BeforeEach
+    void setUp() {
+        dataSource = SchedulerDatabase.migrated().dataSource(64);
+        jdbc = new JdbcTemplate(dataSource);
+        txManager = new DataSourceTransactionManager(dataSource);
+        tx = new TransactionTemplate(txManager);
+        ledger = new HoursLedger(dataSource, 16);
+        ledger.mirrorFrom(HoursLedger.isoWeek(monday.minusWeeks(8)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    private void book(UUID worker, LocalDate date) {
+        tx.executeWithoutResult(status -> ledger.assign(worker, date, date.atTime(8, 0), date.atTime(16, 0)));
+    }
+
+    private int booked(UUID worker, LocalDate date) {
+        return ledger.weeks(worker, date, 1).get(0).assignedMinutes();
+    }
+
+    @Test
+    void testCapIsEnforcedPerIsoWeek() {
+        UUID worker = worker();
+        book(worker, monday);
+        book(worker, monday.plusDays(6));
+
+        ResponseStatusException refused = assertThrows(ResponseStatusException.class, () -> book(worker, monday.plusDays(2)));
+        assertEquals(HttpStatus.CONFLICT, refused.getStatusCode());
+        assertEquals(960, booked(worker, monday));
+        book(worker, monday.plusWeeks(1));
+
+        tx.executeWithoutResult(status -> ledger.release(worker, monday, monday.atTime(8, 0), monday.atTime(16, 0)));
+        book(worker, monday.plusDays(2));
+
+        List<WeeklyHours> weeks = ledger.weeks(worker, monday.plusDays(3), 2);
+        assertEquals(HoursLedger.format(HoursLedger.isoWeek(monday)), weeks.get(0).week());
+        assertEquals(monday, weeks.get(0).weekStart());
+        assertEquals(960, weeks.get(0).assignedMinutes());
+        assertEquals(480, weeks.get(1).assignedMinutes());
+        assertEquals(960, weeks.get(1).capMinutes());
+    }
+
+    @Test
+    void testRolledBackChangesNeverReachTheMirror() {
+        UUID worker = worker();
+        book(worker, monday);
+        tx.executeWithoutResult(status -> {
+            ledger.assign(worker, monday, monday.atTime(8, 0), monday.atTime(12, 0));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(480, booked(worker, monday));
+        assertEquals(480, jdbc.queryForObject("SELECT minutes FROM worker_week_hours", Integer.class));
+    }
+
+    @Test
+    void testConcurrentBookingsNeverPassTheCap() throws Exception {
+        UUID worker = worker();
+        int threads = 100;
+        AtomicInteger refused = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                LocalDate day = monday.plusDays(i % 7);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        tx.executeWithoutResult(status ->
+                            ledger.assign(worker, day, day.atTime(9, 0), day.atTime(13, 0)));
+                    } catch (ResponseStatusException ex) {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(threads - 4, refused.get());
+        assertEquals(960, jdbc.queryForObject("SELECT minutes FROM worker_week_hours", Integer.class));
+        assertEquals(960, booked(worker, monday));
+    }
+
+    @Test
+    void testReconcileCorrectsDriftAndShiftRemoval() {
+        UUID worker = worker();
+        UUID other = worker();
+        UUID shift = shift(monday.plusDays(1), 6);
+        jdbc.update("INSERT INTO shiftassignment (id, shift_id, shift_date, worker_id) VALUES (?, ?, ?, ?)",
+            UUID.randomUUID(), shift, monday.plusDays(1), worker);
+        jdbc.update("INSERT INTO shiftassignment (id, shift_id, shift_date, worker_id) VALUES (?, ?, ?, ?)",
+            UUID.randomUUID(), shift, monday.plusDays(1), other);
+        // Written behind the ledger's back: one worker never booked, the other booked twice
+        book(other, monday.plusDays(1));
+        jdbc.update("UPDATE worker_week_hours SET minutes = 720 WHERE worker_id = ?", other);
+
+        new HoursReconciler(ledger, dataSource, txManager, 8).reconcile();
+
+        assertEquals(360, booked(worker, monday));
+        assertEquals(360, booked(other, monday));
+
+        tx.executeWithoutResult(status -> ledger.releaseShift(shift));
+        assertEquals(0, booked(worker, monday));
+        assertEquals(0, booked(other, monday));
+    }
+
+    @Test
+    void testRangeReleaseGivesBackEachWorkersWeeks() {
+        UUID worker = worker();
+        UUID other = worker();
+        for (int day = 0; day < 2; day++) {
+            assign(worker, shift(monday.plusDays(day), 4));
+        }
+        assign(other, shift(monday.plusDays(1), 4));
+        UUID nextWeek = shift(monday.plusWeeks(1), 4);
+        assign(worker, nextWeek);
+
+        tx.executeWithoutResult(status -> ledger.releaseShifts(monday, monday.plusDays(6), null));
+
+        assertEquals(0, booked(worker, monday));
+        assertEquals(0, booked(other, monday));
+        assertEquals(240, booked(worker, monday.plusWeeks(1)));
+    }
+
+    @Test
+    void testMirrorKeepsNewestVersionAndDropsOldWeeks() {
+        WeekMinutes mirror = new WeekMinutes();
+        UUID worker = UUID.randomUUID();
+        mirror.put(worker, 202510, 480, 2);
+        mirror.put(worker, 202510, 240, 1);
+        assertEquals(480, mirror.get(worker, 202510));
+
+        for (int i = 0; i < 5000; i++) {
+            mirror.put(UUID.randomUUID(), 202501 + i % 20, i, 1);
+        }
+        mirror.put(worker, 202502, 60, 1);
+        mirror.retainFrom(202510);
+        assertEquals(0, mirror.get(worker, 202502));
+        assertEquals(480, mirror.get(worker, 202510));
+        assertEquals(2751, mirror.size());
+
+        assertEquals(202053, HoursLedger.isoWeek(LocalDate.of(2021, 1, 1)));
+        assertEquals(LocalDate.of(2020, 12, 28), HoursLedger.weekStart(202053));
+        assertEquals("2025-W01", HoursLedger.format(HoursLedger.isoWeek(LocalDate.of(2024, 12, 30))));
+    }
+
+    private void assign(UUID worker, UUID shift) {
+        LocalDate date = jdbc.queryForObject("SELECT date FROM shift WHERE id = ?", LocalDate.class, shift);
+        jdbc.update("INSERT INTO shiftassignment (id, shift_id, shift_date, worker_id) VALUES (?, ?, ?, ?)",
+            UUID.randomUUID(), shift, date, worker);
+        tx.executeWithoutResult(status -> ledger.assign(worker, date, date.atTime(8, 0), date.atTime(12, 0)));
+    }
+
+    private UUID worker() {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO worker (id, name, role, user_id) VALUES (?, 'w', 'floor', ?)", id, UUID.randomUUID());
+        return id;
+    }
+
+    private UUID shift(LocalDate date, int hours) {
+        UUID id = UUID.randomUUID();
+        LocalDateTime start = date.atTime(8, 0);
+        jdbc.update("INSERT INTO shift (id, date, required_role, start_time, end_time) VALUES (?, ?, 'floor', ?, ?)",
+            id, date, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(hours)));
+        return id;
+    }
+}
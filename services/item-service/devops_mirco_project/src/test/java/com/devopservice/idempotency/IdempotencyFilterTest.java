@@ -0,0 +1,158 @@
+package com.devopservice.idempotency;
+
+import com.devopservice.support.SchedulerDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+public class IdempotencyFilterTest {
+
+    @RestController
+    static class CountingController {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile CountDownLatch gate = new CountDownLatch(0);
+
+        @PostMapping("/api/shifts")
+        ResponseEntity<String> create(@RequestBody String body) throws InterruptedException {
+            int call = calls.incrementAndGet();
+            gate.await(5, TimeUnit.SECONDS);
+            if (body.contains("fail")) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("try again");
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body("created " + call);
+        }
+    }
+
+    private HikariDataSource dataSource;
+    private IdempotencyStore store;
+    private CountingController controller;
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void requirePostgres() {
+        SchedulerDatabase.assumeAvailable();
+    }
+
+    @BeforeEach
+    void setUp() {
+        dataSource = SchedulerDatabase.migrated().dataSource(16);
+        store = new IdempotencyStore(dataSource, 24, 100, 60, 5000);
+        controller = new CountingController();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+            .addFilters(new IdempotencyFilter(store, Set.of("/api/shifts")))
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    private MvcResult send(String key, String body) throws Exception {
+        return mockMvc.perform(post("/api/shifts").header(IdempotencyFilter.HEADER, key)
+            .header("X-User-Id", "u1").contentType("text/plain").content(body)).andReturn();
+    }
+
+    @Test
+    void testRetryReplaysTheFirstResponse() throws Exception {
+        MvcResult first = send("k1", "shift");
+        MvcResult retry = send("k1", "shift");
+
+        assertEquals(201, first.getResponse().getStatus());
+        assertEquals("created 1", first.getResponse().getContentAsString());
+        assertNull(first.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, retry.getResponse().getStatus());
+        assertEquals("created 1", retry.getResponse().getContentAsString());
+        assertEquals("true", retry.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, controller.calls.get());
+
+        // Another key, or no key at all, runs again
+        assertEquals("created 2", send("k2", "shift").getResponse().getContentAsString());
+        mockMvc.perform(post("/api/shifts").content("shift"));
+        assertEquals(3, controller.calls.get());
+    }
+
+    @Test
+    void testKeyReusedForAnotherBodyIsRefused() throws Exception {
+        send("k1", "shift");
+
+        assertEquals(422, send("k1", "other shift").getResponse().getStatus());
+        assertEquals(400, send("bad key", "shift").getResponse().getStatus());
+        assertEquals(1, controller.calls.get());
+    }
+
+    @Test
+    void testServerErrorsAreNotKept() throws Exception {
+        assertEquals(503, send("k1", "fail").getResponse().getStatus());
+        assertEquals(503, send("k1", "fail").getResponse().getStatus());
+
+        assertEquals(2, controller.calls.get());
+        assertEquals(0, new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM idempotency_key", Integer.class));
+    }
+
+    @Test
+    void testConcurrentDuplicatesRunOnce() throws Exception {
+        controller.gate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<MvcResult> first = pool.submit(() -> send("k1", "shift"));
+            while (controller.calls.get() == 0) {
+                Thread.sleep(5);
+            }
+            Future<MvcResult> second = pool.submit(() -> send("k1", "shift"));
+            Future<MvcResult> third = pool.submit(() -> send("k1", "shift"));
+            Thread.sleep(100);
+            controller.gate.countDown();
+
+            for (Future<MvcResult> result : List.of(first, second, third)) {
+                assertEquals("created 1", result.get(10, TimeUnit.SECONDS).getResponse().getContentAsString());
+            }
+            assertEquals(1, controller.calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testOtherInstancesWaitForTheRowAndTakeOverExpiredLeases() throws Exception {
+        IdempotencyStore other = new IdempotencyStore(dataSource, 24, 100, 60, 200);
+        assertNull(store.begin("s1", "f"));
+
+        ResponseStatusException running = assertThrows(ResponseStatusException.class, () -> other.begin("s1", "f"));
+        assertEquals(HttpStatus.CONFLICT, running.getStatusCode());
+
+        store.complete("s1", new IdempotencyStore.StoredResponse("f", 201, "text/plain", "done".getBytes()));
+        assertArrayEquals("done".getBytes(), other.begin("s1", "f").body());
+        assertEquals(1, other.cachedSize());
+
+        // An instance that dies mid-request leaves a lease behind, which the next one takes over once it ends
+        IdempotencyStore dying = new IdempotencyStore(dataSource, 24, 100, 0, 200);
+        assertNull(dying.begin("s2", "f"));
+        Thread.sleep(10);
+        assertNull(other.begin("s2", "f"));
+    }
+}
@@ -0,0 +1,200 @@
+package com.devopservice.invalidation;
+
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.Worker;
+import com.devopservice.events.SchedulerChangeEvent;
+import com.devopservice.support.SchedulerDatabase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvalidationBusTest {
+
+    private final LocalDate day = LocalDate.of(2024, 5, 6);
+
+    private HikariDataSource dataSource;
+    private TransactionTemplate tx;
+    private final BlockingQueue<Invalidation> appliedOnA = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Invalidation> appliedOnB = new LinkedBlockingQueue<>();
+    private InvalidationReceiver receiverA;
+    private InvalidationReceiver receiverB;
+    private LocalInvalidationBus busA;
+    private LocalInvalidationBus busB;
+    private InvalidationPublisher publisherA;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:invalidation-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        receiverA = new InvalidationReceiver(appliedOnA::add, 50);
+        receiverB = new InvalidationReceiver(appliedOnB::add, 50);
+        receiverA.start();
+        receiverB.start();
+        LocalInvalidationBus.Hub hub = new LocalInvalidationBus.Hub();
+        busA = new LocalInvalidationBus(hub, receiverA);
+        busB = new LocalInvalidationBus(hub, receiverB);
+        publisherA = new InvalidationPublisher(busA);
+    }
+
+    @AfterEach
+    void tearDown() {
+        receiverA.stop();
+        receiverB.stop();
+        busA.close();
+        busB.close();
+        dataSource.close();
+    }
+
+    private Shift shift() {
+        return Shift.builder().id(UUID.randomUUID()).date(day).requiredRole("floor")
+            .startTime(day.atTime(8, 0)).endTime(day.atTime(16, 0)).capacity(1).build();
+    }
+
+    @Test
+    void testOneMessagePerCommittedTransaction() throws Exception {
+        Shift first = shift();
+        Shift second = shift();
+        Worker worker = Worker.builder().id(UUID.randomUUID()).name("w").role("floor").build();
+
+        tx.executeWithoutResult(status -> {
+            publisherA.on(SchedulerChangeEvent.shiftCreated(first));
+            publisherA.on(SchedulerChangeEvent.shiftCreated(second));
+            publisherA.on(SchedulerChangeEvent.shiftAssigned(first.getId(), worker));
+            publisherA.on(SchedulerChangeEvent.workerCreated(worker));
+        });
+        tx.executeWithoutResult(status -> {
+            publisherA.on(SchedulerChangeEvent.shiftRemoved(UUID.randomUUID()));
+            status.setRollbackOnly();
+        });
+
+        Invalidation received = appliedOnB.poll(5, TimeUnit.SECONDS);
+        assertEquals(Set.of(first.getId(), second.getId()), received.shifts());
+        assertEquals(Set.of(day), received.dates());
+        assertEquals(Set.of(worker.getId()), received.workers());
+        assertNull(appliedOnB.poll(300, TimeUnit.MILLISECONDS));
+        // Nobody hears their own
+        assertTrue(appliedOnA.isEmpty());
+    }
+
+    @Test
+    void testBurstsAreAppliedTogether() throws Exception {
+        InvalidationReceiver receiver = new InvalidationReceiver(appliedOnB::add, 200);
+        for (int i = 0; i < 100; i++) {
+            receiver.receive(Invalidation.of(SchedulerChangeEvent.shiftRemoved(UUID.randomUUID())));
+        }
+        receiver.receive(Invalidation.NONE);
+
+        long started = System.nanoTime();
+        Invalidation merged = receiver.coalesce(Invalidation.NONE);
+        assertEquals(100, merged.shifts().size());
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(200));
+
+        // A flush has nothing left to wait for
+        receiver.receive(Invalidation.FLUSH);
+        receiver.receive(Invalidation.of(SchedulerChangeEvent.shiftRemoved(UUID.randomUUID())));
+        started = System.nanoTime();
+        Invalidation flush = receiver.coalesce(Invalidation.of(SchedulerChangeEvent.shiftRemoved(UUID.randomUUID())));
+        assertTrue(flush.flush());
+        assertEquals(0, flush.size());
+        assertTrue(System.nanoTime() - started < TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    void testMessagesStayCompact() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Shift shift = shift();
+        PostgresInvalidationBus.Message message = new PostgresInvalidationBus.Message("node-1",
+            Invalidation.of(SchedulerChangeEvent.shiftCreated(shift)));
+
+        String json = objectMapper.writeValueAsString(message);
+        assertEquals("{\"origin\":\"node-1\",\"invalidation\":{\"shifts\":[\"" + shift.getId()
+            + "\"],\"dates\":[\"2024-05-06\"],\"flush\":false}}", json);
+        assertEquals(message, objectMapper.readValue(json, PostgresInvalidationBus.Message.class));
+        assertTrue(objectMapper.readValue("{\"origin\":\"x\",\"invalidation\":{\"flush\":true}}",
+            PostgresInvalidationBus.Message.class).invalidation().flush());
+    }
+
+    @Test
+    void testPostgresDeliversCommittedNotificationsToOtherInstances() throws Exception {
+        SchedulerDatabase.assumeAvailable();
+        SchedulerDatabase.Database database = SchedulerDatabase.migrated();
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(database.url());
+        properties.setUsername(database.username());
+        properties.setPassword(database.password());
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        try (HikariDataSource postgres = database.dataSource(4)) {
+            JdbcTemplate jdbc = new JdbcTemplate(postgres);
+            TransactionTemplate pgTx = new TransactionTemplate(new DataSourceTransactionManager(postgres));
+            PostgresInvalidationBus nodeA = new PostgresInvalidationBus(jdbc, objectMapper, receiverA, properties,
+                "scheduler_cache", 100);
+            PostgresInvalidationBus nodeB = new PostgresInvalidationBus(jdbc, objectMapper, receiverB, properties,
+                "scheduler_cache", 100);
+            nodeA.start();
+            nodeB.start();
+            try {
+                // LISTEN runs on the listener threads; until B hears something it may not be registered yet
+                Invalidation heard = null;
+                for (int i = 0; i < 100 && heard == null; i++) {
+                    nodeA.publish(Invalidation.FLUSH);
+                    heard = appliedOnB.poll(100, TimeUnit.MILLISECONDS);
+                }
+                assertNotNull(heard, "B never started listening");
+                Thread.sleep(300);
+                appliedOnB.clear();
+
+                Shift shift = shift();
+                InvalidationPublisher publisher = new InvalidationPublisher(nodeA);
+                pgTx.executeWithoutResult(status -> {
+                    publisher.on(SchedulerChangeEvent.shiftCreated(shift));
+                    publisher.on(SchedulerChangeEvent.shiftRemoved(shift.getId()));
+                });
+                Invalidation received = appliedOnB.poll(5, TimeUnit.SECONDS);
+                assertEquals(Set.of(shift.getId()), received.shifts());
+                assertEquals(Set.of(day), received.dates());
+
+                // Postgres only delivers NOTIFY on commit
+                pgTx.executeWithoutResult(status -> {
+                    nodeA.publish(Invalidation.of(SchedulerChangeEvent.shiftRemoved(UUID.randomUUID())));
+                    status.setRollbackOnly();
+                });
+                assertNull(appliedOnB.poll(500, TimeUnit.MILLISECONDS));
+
+                // Too big for a NOTIFY payload: sent as a flush instead
+                Invalidation huge = Invalidation.NONE;
+                for (int i = 0; i < 400; i++) {
+                    huge = huge.merge(Invalidation.of(SchedulerChangeEvent.shiftRemoved(UUID.randomUUID())));
+                }
+                nodeA.publish(huge);
+                assertTrue(appliedOnB.poll(5, TimeUnit.SECONDS).flush());
+
+                // Nobody hears their own
+                assertTrue(appliedOnA.isEmpty());
+            } finally {
+                nodeA.stop();
+                nodeB.stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.devopservice.metrics;
+
+import com.devopservice.entities.Roles;
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.ShiftAssignment;
+import com.devopservice.entities.Worker;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestMetricsFilterTest {
+
+    private SessionFactory sessionFactory;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<UUID> shiftIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Roles.class)
+            .addAnnotatedClass(Worker.class)
+            .addAnnotatedClass(Shift.class)
+            .addAnnotatedClass(ShiftAssignment.class)
+            .setProperty(AvailableSettings.URL, "jdbc:h2:mem:stmts-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.GENERATE_STATISTICS, "true")
+            .setStatementInspector(new StatementCounter())
+            .buildSessionFactory();
+        sessionFactory.inTransaction(session -> {
+            session.persist(new Roles("floor"));
+            for (int i = 0; i < 5; i++) {
+                Shift shift = Shift.builder().id(UUID.randomUUID()).date(LocalDate.now()).requiredRole("floor")
+                    .startTime(LocalDate.now().atTime(8, 0)).endTime(LocalDate.now().atTime(16, 0)).build();
+                session.persist(shift);
+                shiftIds.add(shift.getId());
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testCountsStatementsPerEndpointAndTagsLogsWithRequestId() throws Exception {
+        RequestMetricsFilter filter = new RequestMetricsFilter(registry, 3);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/shift-assignments/worker/42");
+        request.addHeader(RequestMetricsFilter.REQUEST_ID_HEADER, "req-123");
+        AtomicReference<String> requestIdSeen = new AtomicReference<>();
+
+        // One lookup per row, the shape of getAssignmentsByWorker
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                requestIdSeen.set(MDC.get(RequestMetricsFilter.REQUEST_ID_MDC));
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                    "/api/shift-assignments/worker/{workerId}");
+                sessionFactory.inSession(session -> shiftIds.forEach(id -> session.find(Shift.class, id)));
+            }
+        });
+
+        assertEquals("req-123", requestIdSeen.get());
+        assertNull(MDC.get(RequestMetricsFilter.REQUEST_ID_MDC));
+        DistributionSummary statements = registry.get(RequestMetricsFilter.STATEMENTS_METRIC)
+            .tag("method", "GET").tag("uri", "/api/shift-assignments/worker/{workerId}").summary();
+        assertEquals(1, statements.count());
+        assertEquals(5.0, statements.totalAmount());
+
+        // Statements outside a request are not counted against the next one
+        sessionFactory.inSession(session -> session.find(Shift.class, shiftIds.get(0)));
+        filter.doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(), new MockFilterChain());
+        assertEquals(0.0, registry.get(RequestMetricsFilter.STATEMENTS_METRIC).tag("uri", "UNKNOWN").summary()
+            .totalAmount());
+    }
+
+    @Test
+    void testRejectsUnsafeRequestIds() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(RequestMetricsFilter.REQUEST_ID_HEADER, "abc\n2024-01-01 ERROR forged");
+        String requestId = RequestMetricsFilter.requestId(request);
+        assertEquals(UUID.fromString(requestId).toString(), requestId);
+    }
+
+    @Test
+    void testBindsHibernateStatistics() {
+        sessionFactory.inSession(session -> shiftIds.forEach(id -> session.find(Shift.class, id)));
+        new HibernateStatisticsMetrics(sessionFactory.unwrap(EntityManagerFactory.class)).bindTo(registry);
+
+        assertEquals(5.0, registry.get("hibernate.entities.loads").functionCounter().count());
+        assertTrue(registry.get("hibernate.statements").tag("status", "prepared").functionCounter().count() >= 5);
+        assertEquals(1.0, registry.get("hibernate.flushes").functionCounter().count());
+    }
+}
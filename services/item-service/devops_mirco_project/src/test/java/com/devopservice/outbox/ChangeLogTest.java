@@ -0,0 +1,73 @@
+package com.devopservice.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeLogTest {
+
+    @TempDir
+    Path dir;
+
+    private static List<byte[]> records(int from, int count) {
+        List<byte[]> records = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            records.add(("{\"n\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+        }
+        return records;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void testAppendRotatesSegmentsAndReadsByOffset() throws IOException {
+        ChangeLog log = new ChangeLog(dir.toString(), 256);
+        for (int i = 0; i < 100; i += 10) {
+            log.append(records(i, 10));
+        }
+        assertEquals(100, log.nextOffset());
+        assertTrue(segmentCount() > 1);
+
+        List<ChangeLog.Record> page = log.read(42, 5);
+        assertEquals(5, page.size());
+        assertEquals(42, page.get(0).offset());
+        assertEquals("{\"n\":46}", new String(page.get(4).data(), StandardCharsets.UTF_8));
+        assertTrue(log.read(100, 5).isEmpty());
+        log.close();
+    }
+
+    @Test
+    void testReopenTruncatesTornTail() throws IOException {
+        ChangeLog log = new ChangeLog(dir.toString(), 1 << 20);
+        log.append(records(0, 3));
+        log.close();
+
+        Path segment = dir.resolve(String.format("%020d.log", 0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 0, 0, 0, 0, 3, 0, 0}));
+        }
+
+        ChangeLog reopened = new ChangeLog(dir.toString(), 1 << 20);
+        assertEquals(3, reopened.nextOffset());
+        reopened.append(records(3, 1));
+        assertEquals(4, reopened.read(0, 10).size());
+        assertEquals(3, reopened.read(3, 10).get(0).offset());
+        reopened.close();
+    }
+}
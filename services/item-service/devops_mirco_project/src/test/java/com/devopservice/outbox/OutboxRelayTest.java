@@ -0,0 +1,158 @@
+package com.devopservice.outbox;
+
+import com.devopservice.support.SchedulerDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboxRelayTest {
+
+    @TempDir
+    Path dir;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private ChangeLog changeLog;
+    private SimpleMeterRegistry registry;
+    private OutboxRelay relay;
+
+    @BeforeAll
+    static void requirePostgres() {
+        SchedulerDatabase.assumeAvailable();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = SchedulerDatabase.migrated().dataSource(4);
+        jdbc = new JdbcTemplate(dataSource);
+        changeLog = new ChangeLog(dir.toString(), 1 << 20);
+        registry = new SimpleMeterRegistry();
+        relay = relay(changeLog, registry);
+    }
+
+    private OutboxRelay relay(ChangeLog log, SimpleMeterRegistry meters) {
+        return new OutboxRelay(jdbc, new DataSourceTransactionManager(dataSource), log, new ObjectMapper(), meters, 2, 30);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        changeLog.close();
+        dataSource.close();
+    }
+
+    @Test
+    void testRelayMovesRowsInIdOrderAndMeasuresLagOnDatabaseClock() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            jdbc.update("INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload, created_at) "
+                + "VALUES ('shift', ?, 'SHIFT_CREATED', ?, NOW() - INTERVAL '2 seconds')",
+                UUID.randomUUID(), "{\"n\":" + i + "}");
+        }
+
+        relay.relay();
+
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class));
+        List<ChangeLog.Record> records = changeLog.read(0, 10);
+        assertEquals(5, records.size());
+        ObjectMapper mapper = new ObjectMapper();
+        for (int i = 0; i < 5; i++) {
+            JsonNode record = mapper.readTree(records.get(i).data());
+            assertEquals(i, record.get("payload").get("n").asInt());
+        }
+
+        Timer lag = registry.get("outbox.relay.lag").timer();
+        assertEquals(5, lag.count());
+        assertTrue(lag.max(TimeUnit.SECONDS) >= 2, "lag " + lag.max(TimeUnit.MILLISECONDS) + " ms");
+        assertTrue(lag.max(TimeUnit.SECONDS) < 60, "lag " + lag.max(TimeUnit.MILLISECONDS) + " ms");
+    }
+
+    @Test
+    void testRelaysOnlyFinishedTransactionsSoLaterCommitsNeverJumpAhead() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+            insert(first, "first-a");
+            insert(second, "second-a");
+            second.commit();
+
+            // The second transaction is done, but the first, older one could still write
+            relay.relay();
+            assertEquals(0, changeLog.nextOffset());
+
+            insert(first, "first-b");
+            first.commit();
+        }
+
+        relay.relay();
+
+        assertEquals(List.of("first-a", "first-b", "second-a"), relayedNames(changeLog));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class));
+    }
+
+    @Test
+    void testOnlyTheLeaseOwnerRelays() throws Exception {
+        insert("one");
+        relay.relay();
+
+        ChangeLog otherLog = new ChangeLog(dir.resolve("other").toString(), 1 << 20);
+        try {
+            OutboxRelay other = relay(otherLog, new SimpleMeterRegistry());
+            insert("two");
+            other.relay();
+            assertEquals(0, otherLog.nextOffset());
+            assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class));
+
+            relay.relay();
+            assertEquals(List.of("one", "two"), relayedNames(changeLog));
+
+            // Once the owner has gone quiet the other instance takes over
+            jdbc.update("UPDATE outbox_relay SET renewed_at = renewed_at - INTERVAL '1 minute'");
+            insert("three");
+            other.relay();
+            assertEquals(List.of("three"), relayedNames(otherLog));
+        } finally {
+            otherLog.close();
+        }
+    }
+
+    private void insert(String name) {
+        jdbc.update("INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload) VALUES ('shift', ?, 'SHIFT_CREATED', ?)",
+            UUID.randomUUID(), "{\"name\":\"" + name + "\"}");
+    }
+
+    private static void insert(Connection connection, String name) throws Exception {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload) VALUES ('shift', ?, 'SHIFT_CREATED', ?)")) {
+            insert.setObject(1, UUID.randomUUID());
+            insert.setString(2, "{\"name\":\"" + name + "\"}");
+            insert.executeUpdate();
+        }
+    }
+
+    private static List<String> relayedNames(ChangeLog log) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> names = new ArrayList<>();
+        for (ChangeLog.Record record : log.read(0, 100)) {
+            names.add(mapper.readTree(record.data()).get("payload").get("name").asText());
+        }
+        return names;
+    }
+}
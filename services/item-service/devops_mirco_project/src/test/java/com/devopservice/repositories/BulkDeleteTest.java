@@ -0,0 +1,133 @@
+package com.devopservice.repositories;
+
+import com.devopservice.entities.Roles;
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.ShiftAssignment;
+import com.devopservice.entities.Worker;
+import com.devopservice.support.SchedulerDatabase;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkDeleteTest {
+
+    private final LocalDate monday = LocalDate.of(2024, 5, 6);
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private EntityManager entityManager;
+    private ShiftRepository shifts;
+    private ShiftAssignmentRepository assignments;
+    private UUID worker;
+
+    @BeforeAll
+    static void requirePostgres() {
+        SchedulerDatabase.assumeAvailable();
+    }
+
+    @BeforeEach
+    void setUp() {
+        SchedulerDatabase.Database database = SchedulerDatabase.migrated();
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Roles.class)
+            .addAnnotatedClass(Worker.class)
+            .addAnnotatedClass(Shift.class)
+            .addAnnotatedClass(ShiftAssignment.class)
+            .setProperty(AvailableSettings.URL, database.url())
+            .setProperty(AvailableSettings.USER, database.username())
+            .setProperty(AvailableSettings.PASS, database.password())
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "validate")
+            .setProperty(AvailableSettings.GENERATE_STATISTICS, "true")
+            .buildSessionFactory();
+        statistics = sessionFactory.getStatistics();
+        entityManager = sessionFactory.createEntityManager();
+        JpaRepositoryFactory factory = new JpaRepositoryFactory(entityManager);
+        shifts = factory.getRepository(ShiftRepository.class);
+        assignments = factory.getRepository(ShiftAssignmentRepository.class);
+        worker = UUID.randomUUID();
+        inTransaction(() -> {
+            entityManager.persist(new Roles("bar"));
+            entityManager.persist(Worker.builder().id(worker).name("w").role("floor").userId(UUID.randomUUID()).build());
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        entityManager.getTransaction().begin();
+        T result = work.get();
+        entityManager.getTransaction().commit();
+        return result;
+    }
+
+    private UUID shift(LocalDate date, String role, int assigned) {
+        UUID id = UUID.randomUUID();
+        inTransaction(() -> {
+            entityManager.persist(Shift.builder().id(id).date(date).requiredRole(role)
+                .startTime(date.atTime(8, 0)).endTime(date.atTime(16, 0)).capacity(assigned).build());
+            for (int i = 0; i < assigned; i++) {
+                entityManager.persist(ShiftAssignment.builder().id(UUID.randomUUID()).shiftId(id).shiftDate(date)
+                    .workerId(worker).assignedAt(LocalDateTime.now()).build());
+            }
+            return null;
+        });
+        return id;
+    }
+
+    @Test
+    void testRangeDeleteTakesOneStatementPerTable() {
+        for (int day = 0; day < 7; day++) {
+            shift(monday.plusDays(day), "floor", 3);
+            shift(monday.plusDays(day), "bar", 2);
+        }
+        UUID nextWeek = shift(monday.plusWeeks(1), "floor", 1);
+        statistics.clear();
+
+        int removedAssignments = inTransaction(() ->
+            assignments.deleteByShiftDateBetween(monday, monday.plusDays(6), "floor"));
+        int removedShifts = inTransaction(() -> shifts.deleteBetweenDates(monday, monday.plusDays(6), "floor"));
+
+        assertEquals(21, removedAssignments);
+        assertEquals(7, removedShifts);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(7, shifts.findIdsBetweenDates(monday, monday.plusDays(6), null).size());
+
+        // Without a role every shift in the range goes, whatever it needs
+        assertEquals(14, inTransaction(() -> assignments.deleteByShiftDateBetween(monday, monday.plusDays(6), null)));
+        assertEquals(7, inTransaction(() -> shifts.deleteBetweenDates(monday, monday.plusDays(6), null)));
+        assertEquals(Set.of(nextWeek), Set.copyOf(shifts.findIdsBetweenDates(monday, monday.plusWeeks(1), null)));
+        assertEquals(1, assignments.count());
+    }
+
+    @Test
+    void testSingleShiftDeletesReportAffectedRows() {
+        UUID shift = shift(monday, "floor", 3);
+        UUID other = UUID.randomUUID();
+
+        assertEquals(0, inTransaction(() -> assignments.deleteByShiftIdAndWorkerId(shift, other)));
+        assertEquals(3, inTransaction(() -> assignments.deleteByShiftIdAndWorkerId(shift, worker)));
+        assertEquals(0, inTransaction(() -> assignments.deleteByShiftId(shift)));
+        assertEquals(1, inTransaction(() -> shifts.deleteShiftById(shift)));
+        assertEquals(0, inTransaction(() -> shifts.deleteShiftById(shift)));
+    }
+}
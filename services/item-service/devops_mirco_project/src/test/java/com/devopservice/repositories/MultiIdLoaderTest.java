@@ -0,0 +1,95 @@
+package com.devopservice.repositories;
+
+import com.devopservice.cache.BoundedRegionFactory;
+import com.devopservice.entities.Roles;
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.ShiftAssignment;
+import com.devopservice.entities.Worker;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiIdLoaderTest {
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Roles.class)
+            .addAnnotatedClass(Worker.class)
+            .addAnnotatedClass(Shift.class)
+            .addAnnotatedClass(ShiftAssignment.class)
+            .setProperty(AvailableSettings.URL, "jdbc:h2:mem:multi-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true")
+            .setProperty(AvailableSettings.CACHE_REGION_FACTORY, BoundedRegionFactory.class.getName())
+            .setProperty(AvailableSettings.GENERATE_STATISTICS, "true")
+            .buildSessionFactory();
+        statistics = sessionFactory.getStatistics();
+        sessionFactory.inTransaction(session -> session.persist(new Roles("floor")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testLoadsShiftsInChunksAndReportsMisses() {
+        LocalDate date = LocalDate.of(2024, 5, 1);
+        List<UUID> ids = new ArrayList<>();
+        sessionFactory.inTransaction(session -> IntStream.range(0, 1200).forEach(i -> {
+            Shift shift = Shift.builder().id(UUID.randomUUID()).date(date).requiredRole("floor")
+                .startTime(date.atTime(8, 0)).endTime(date.atTime(16, 0)).capacity(1).build();
+            session.persist(shift);
+            ids.add(shift.getId());
+        }));
+        UUID unknown = UUID.randomUUID();
+        List<UUID> requested = new ArrayList<>(ids);
+        requested.add(1, unknown);
+        requested.add(ids.get(0));
+        statistics.clear();
+
+        Map<UUID, Shift> found = sessionFactory.fromTransaction(session -> MultiIdLoader.load(session, Shift.class, requested));
+
+        assertEquals(1200, found.size());
+        assertEquals(ids, List.copyOf(found.keySet()));
+        assertFalse(found.containsKey(unknown));
+        assertTrue(statistics.getPrepareStatementCount() <= (1200 + MultiIdLoader.CHUNK_SIZE - 1) / MultiIdLoader.CHUNK_SIZE,
+            "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testCachedWorkersCostNoQuery() {
+        List<UUID> ids = new ArrayList<>();
+        sessionFactory.inTransaction(session -> IntStream.range(0, 20).forEach(i -> {
+            Worker worker = Worker.builder().id(UUID.randomUUID()).name("w" + i).role("floor")
+                .userId(UUID.randomUUID()).build();
+            session.persist(worker);
+            ids.add(worker.getId());
+        }));
+        statistics.clear();
+
+        Map<UUID, Worker> found = sessionFactory.fromTransaction(session -> MultiIdLoader.load(session, Worker.class, ids));
+
+        assertEquals(20, found.size());
+        assertEquals("w3", found.get(ids.get(3)).getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(20, statistics.getSecondLevelCacheHitCount());
+    }
+}
@@ -0,0 +1,105 @@
+package com.devopservice.repositories;
+
+import com.devopservice.entities.Roles;
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.ShiftAssignment;
+import com.devopservice.entities.Worker;
+import com.devopservice.slots.ShiftSlots;
+import com.devopservice.support.SchedulerDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UnassignedShiftsTest {
+
+    private final LocalDate monday = LocalDate.of(2024, 5, 6);
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private ShiftRepository shifts;
+    private ShiftSlots slots;
+    private TransactionTemplate tx;
+
+    @BeforeAll
+    static void requirePostgres() {
+        SchedulerDatabase.assumeAvailable();
+    }
+
+    @BeforeEach
+    void setUp() {
+        SchedulerDatabase.Database database = SchedulerDatabase.migrated();
+        dataSource = database.dataSource(2);
+        slots = new ShiftSlots(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Roles.class)
+            .addAnnotatedClass(Worker.class)
+            .addAnnotatedClass(Shift.class)
+            .addAnnotatedClass(ShiftAssignment.class)
+            .setProperty(AvailableSettings.URL, database.url())
+            .setProperty(AvailableSettings.USER, database.username())
+            .setProperty(AvailableSettings.PASS, database.password())
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "validate")
+            .buildSessionFactory();
+        entityManager = sessionFactory.createEntityManager();
+        shifts = new JpaRepositoryFactory(entityManager).getRepository(ShiftRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    private UUID worker() {
+        UUID id = UUID.randomUUID();
+        entityManager.getTransaction().begin();
+        entityManager.persist(Worker.builder().id(id).name("w").role("floor").userId(UUID.randomUUID()).build());
+        entityManager.getTransaction().commit();
+        return id;
+    }
+
+    private UUID shift(int capacity, int taken) {
+        UUID id = UUID.randomUUID();
+        entityManager.getTransaction().begin();
+        entityManager.persist(Shift.builder().id(id).date(monday).requiredRole("floor")
+            .startTime(monday.atTime(8, 0)).endTime(monday.atTime(16, 0)).capacity(capacity).build());
+        entityManager.getTransaction().commit();
+        slots.create(id, monday, capacity);
+        for (int i = 0; i < taken; i++) {
+            UUID worker = worker();
+            assertTrue(tx.execute(status -> slots.claim(id, worker)).isPresent());
+        }
+        return id;
+    }
+
+    @Test
+    void testListsShiftsWithAFreeSeat() {
+        UUID open = shift(1, 0);
+        UUID partlyTaken = shift(3, 1);
+        shift(1, 1);
+        shift(2, 2);
+
+        Set<UUID> unassigned = shifts.findWithFreeSlot().stream().map(Shift::getId).collect(Collectors.toSet());
+
+        assertEquals(Set.of(open, partlyTaken), unassigned);
+    }
+}
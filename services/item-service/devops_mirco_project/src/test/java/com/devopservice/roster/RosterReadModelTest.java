@@ -0,0 +1,111 @@
+package com.devopservice.roster;
+
+import com.devopservice.dto.RosterDay;
+import com.devopservice.entities.Shift;
+import com.devopservice.entities.Worker;
+import com.devopservice.events.SchedulerChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RosterReadModelTest {
+
+    private final LocalDate day = LocalDate.of(2024, 5, 6);
+
+    private Shift shift(String role, int startHour) {
+        LocalDateTime start = day.atTime(startHour, 0);
+        return Shift.builder()
+                .id(UUID.randomUUID())
+                .date(day)
+                .requiredRole(role)
+                .startTime(start)
+                .endTime(start.plusHours(8))
+                .build();
+    }
+
+    @Test
+    void testAssignAndUnassignUpdatesOpenSlots() {
+        RosterReadModel roster = new RosterReadModel();
+        Shift morning = shift("floor", 6);
+        Shift evening = shift("floor", 14);
+        Worker worker = Worker.builder().id(UUID.randomUUID()).name("John Doe").role("floor").build();
+
+        roster.apply(SchedulerChangeEvent.shiftCreated(evening));
+        roster.apply(SchedulerChangeEvent.shiftCreated(morning));
+        roster.apply(SchedulerChangeEvent.shiftAssigned(morning.getId(), worker));
+
+        RosterDay rosterDay = roster.range(day, day).get(0);
+        assertEquals(morning.getId(), rosterDay.shifts().get(0).id());
+        assertEquals("John Doe", rosterDay.shifts().get(0).workers().get(0).name());
+        assertEquals(1, rosterDay.openSlotsByRole().get("floor"));
+
+        roster.apply(SchedulerChangeEvent.shiftUnassigned(morning.getId(), worker.getId()));
+        assertEquals(2, roster.range(day, day).get(0).openSlotsByRole().get("floor"));
+    }
+
+    @Test
+    void testRemovingLastShiftDropsTheDay() {
+        RosterReadModel roster = new RosterReadModel();
+        Shift shift = shift("manager", 9);
+        roster.apply(SchedulerChangeEvent.shiftCreated(shift));
+        roster.apply(SchedulerChangeEvent.shiftRemoved(shift.getId()));
+        assertTrue(roster.range(day.minusDays(1), day.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void testEventsDuringRebuildAreReplayed() {
+        RosterReadModel roster = new RosterReadModel();
+        Shift loaded = shift("floor", 6);
+        Shift createdMeanwhile = shift("floor", 14);
+
+        roster.beginRebuild();
+        roster.apply(SchedulerChangeEvent.shiftCreated(loaded));
+        roster.apply(SchedulerChangeEvent.shiftCreated(createdMeanwhile));
+
+        TreeMap<LocalDate, RosterDay> snapshot = new TreeMap<>();
+        snapshot.put(day, RosterReadModel.toDay(day, new ArrayList<>(List.of(new RosterDay.Entry(
+                loaded.getId(), "floor", loaded.getStartTime(), loaded.getEndTime(), 1, List.of())))));
+        roster.completeRebuild(snapshot);
+
+        assertEquals(2, roster.range(day, day).get(0).shifts().size());
+    }
+
+    @Test
+    void testReloadReplacesOnlyTheGivenDays() {
+        RosterReadModel roster = new RosterReadModel();
+        Shift stale = shift("floor", 6);
+        Shift otherDay = Shift.builder().id(UUID.randomUUID()).date(day.plusDays(1)).requiredRole("bar")
+                .startTime(day.plusDays(1).atTime(9, 0)).endTime(day.plusDays(1).atTime(17, 0)).build();
+        Shift createdElsewhere = shift("floor", 14);
+        roster.apply(SchedulerChangeEvent.shiftCreated(stale));
+        roster.apply(SchedulerChangeEvent.shiftCreated(otherDay));
+
+        roster.beginRebuild();
+        Shift createdMeanwhile = shift("manager", 10);
+        roster.apply(SchedulerChangeEvent.shiftCreated(createdMeanwhile));
+        TreeMap<LocalDate, RosterDay> loaded = new TreeMap<>();
+        loaded.put(day, RosterReadModel.toDay(day, new ArrayList<>(List.of(new RosterDay.Entry(
+                createdElsewhere.getId(), "floor", createdElsewhere.getStartTime(), createdElsewhere.getEndTime(), 1,
+                List.of())))));
+        roster.completeReload(List.of(day), loaded);
+
+        List<RosterDay.Entry> shifts = roster.range(day, day).get(0).shifts();
+        assertEquals(List.of(createdMeanwhile.getId(), createdElsewhere.getId()),
+                shifts.stream().map(RosterDay.Entry::id).toList());
+        assertEquals(Set.of(day, day.plusDays(1)), roster.datesOf(List.of(createdElsewhere.getId(), otherDay.getId(),
+                stale.getId())));
+
+        // Every shift of a reloaded day gone: the day goes too
+        roster.beginRebuild();
+        roster.completeReload(List.of(day.plusDays(1)), new TreeMap<>());
+        assertTrue(roster.range(day.plusDays(1), day.plusDays(1)).isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package com.devopservice.routing;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final AtomicBoolean replicaUsable = new AtomicBoolean(true);
+    private DataSource replica;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replica = database("replica");
+        DataSource routing = new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primary, replica, replicaUsable::get));
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(txManager);
+        readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplica() {
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+        assertEquals("primary", readWrite.execute(status -> whereAmI()));
+        assertEquals("primary", whereAmI());
+    }
+
+    @Test
+    void testFallsBackToPrimary() {
+        replicaUsable.set(false);
+        assertEquals("primary", readOnly.execute(status -> whereAmI()));
+
+        replicaUsable.set(true);
+        assertEquals("primary", DataSourceRoute.onPrimary(() -> readOnly.execute(status -> whereAmI())));
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+    }
+
+    @Test
+    void testLagGuard() {
+        ReplicaLagGuard behind = new ReplicaLagGuard(replica, "SELECT 7.5", Duration.ofSeconds(2));
+        behind.check();
+        assertFalse(behind.replicaUsable());
+        assertEquals(7.5, behind.lagSeconds());
+
+        ReplicaLagGuard current = new ReplicaLagGuard(replica, "SELECT 0.1", Duration.ofSeconds(2));
+        current.check();
+        assertTrue(current.replicaUsable());
+
+        ReplicaLagGuard broken = new ReplicaLagGuard(replica, "SELECT lag FROM missing", Duration.ofSeconds(2));
+        broken.check();
+        assertFalse(broken.replicaUsable());
+        assertEquals(-1, broken.lagSeconds());
+    }
+
+    @Test
+    void testReadYourWritesWindow() throws InterruptedException {
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMillis(50));
+        assertFalse(readYourWrites.isSticky("alice"));
+
+        readYourWrites.recordWrite("alice");
+        assertTrue(readYourWrites.isSticky("alice"));
+        assertFalse(readYourWrites.isSticky("bob"));
+
+        Thread.sleep(80);
+        assertFalse(readYourWrites.isSticky("alice"));
+    }
+
+    private String whereAmI() {
+        return jdbc.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(dataSource).execute(
+            "CREATE TABLE whoami(name VARCHAR(16)); INSERT INTO whoami VALUES ('" + name + "')");
+        return dataSource;
+    }
+}
@@ -0,0 +1,92 @@
+package com.devopservice.search;
+
+import com.devopservice.dto.WorkerDto;
+import com.devopservice.entities.Worker;
+import com.devopservice.events.SchedulerChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkerSearchIndexTest {
+
+    private final WorkerSearchIndex index = new WorkerSearchIndex();
+
+    private Worker add(String name, String role) {
+        Worker worker = Worker.builder().id(UUID.randomUUID()).name(name).role(role).userId(UUID.randomUUID()).build();
+        index.apply(SchedulerChangeEvent.workerCreated(worker));
+        return worker;
+    }
+
+    private List<String> names(List<WorkerDto> hits) {
+        return hits.stream().map(WorkerDto::getName).toList();
+    }
+
+    @Test
+    void testRanksWholeNameThenPrefixThenWordThenSubstring() {
+        add("Joanna Ansel", "floor");
+        add("Hannah Brown", "floor");
+        add("Anna Smith", "floor");
+        add("Ann", "manager");
+        add("Lee Ann", "floor");
+        add("Ann Lee", "floor");
+        add("Bob Stone", "floor");
+
+        assertEquals(List.of("Ann", "Ann Lee", "Anna Smith", "Lee Ann", "Joanna Ansel", "Hannah Brown"),
+            names(index.search("ann", null, 10)));
+        assertEquals(List.of("Ann"), names(index.search("ANN", null, 1)));
+        assertEquals(List.of("Lee Ann", "Ann Lee"), names(index.search("lee ann", "floor", 10)));
+        assertEquals("manager", index.search("ann", "manager", 10).get(0).getRole());
+        assertTrue(index.search("ann", "driver", 10).isEmpty());
+    }
+
+    @Test
+    void testShortTokensMatchWordStartsAndAccentsAreIgnored() {
+        Worker jose = add("José Álvarez-Núñez", "floor");
+        add("Rosa Park", "floor");
+
+        assertEquals(jose.getId(), index.search("alv jo", null, 10).get(0).getId());
+        assertEquals(List.of("José Álvarez-Núñez"), names(index.search("nunez", null, 10)));
+        assertEquals(List.of("José Álvarez-Núñez"), names(index.search("n", null, 10)));
+        // Two letters inside a word are too unselective to be worth a match
+        assertEquals(List.of("Rosa Park"), names(index.search("ro", null, 10)));
+        assertTrue(index.search("zzz", null, 10).isEmpty());
+        assertTrue(index.search("  -- ", null, 10).isEmpty());
+        assertEquals(List.of("José Álvarez-Núñez"), names(index.search("a", null, 10)));
+    }
+
+    @Test
+    void testTopKOverManyWorkers() {
+        for (int i = 0; i < 20_000; i++) {
+            add("Worker " + i, i % 2 == 0 ? "floor" : "manager");
+        }
+        add("Worker", "floor");
+
+        List<WorkerDto> hits = index.search("work", "manager", 3);
+        assertEquals(List.of("Worker 1", "Worker 3", "Worker 5"), names(hits));
+        assertEquals("Worker", index.search("worker", null, WorkerSearchIndex.MAX_LIMIT + 10).get(0).getName());
+        assertEquals(WorkerSearchIndex.MAX_LIMIT, index.search("w", null, 1000).size());
+        assertEquals(List.of("Worker 12345"), names(index.search("12345", null, 10)));
+    }
+
+    @Test
+    void testWorkersCreatedDuringRebuildAreKeptOnce() {
+        Worker before = Worker.builder().id(UUID.randomUUID()).name("Ada Lovelace").role("floor").build();
+        index.beginRebuild();
+        Worker during = add("Grace Hopper", "floor");
+
+        WorkerSearchIndex.Index snapshot = new WorkerSearchIndex.Index();
+        snapshot.add(before.getId(), before.getName(), before.getRole());
+        snapshot.add(during.getId(), during.getName(), during.getRole());
+        index.completeRebuild(snapshot);
+
+        assertEquals(2, index.size());
+        assertEquals(1, index.search("grace", null, 10).size());
+        assertEquals(before.getId(), index.search("lovelace", null, 10).get(0).getId());
+
+        add("Katherine Johnson", "floor");
+        assertEquals(3, index.size());
+    }
+}
@@ -0,0 +1,207 @@
+package com.devopservice.slots;
+
+import com.devopservice.support.SchedulerDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShiftSlotsTest {
+
+    private static final int THREADS = 300;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private ShiftSlots slots;
+    private TransactionTemplate tx;
+
+    @BeforeAll
+    static void requirePostgres() {
+        SchedulerDatabase.assumeAvailable();
+    }
+
+    @BeforeEach
+    void setUp() {
+        dataSource = SchedulerDatabase.migrated().dataSource(64);
+        jdbc = new JdbcTemplate(dataSource);
+        slots = new ShiftSlots(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void testConcurrentClaimsNeverOverAssign() throws Exception {
+        UUID shiftId = shift(5);
+        List<UUID> workers = workers(THREADS);
+
+        Set<Integer> taken = ConcurrentHashMap.newKeySet();
+        AtomicInteger full = new AtomicInteger();
+        hammer(i -> {
+            OptionalInt slot = tx.execute(status -> slots.claim(shiftId, workers.get(i)));
+            if (slot.isPresent()) {
+                assertTrue(taken.add(slot.getAsInt()), "seat handed out twice");
+            } else {
+                full.incrementAndGet();
+            }
+        });
+
+        assertEquals(Set.of(1, 2, 3, 4, 5), taken);
+        assertEquals(THREADS - 5, full.get());
+        assertEquals(5, count("SELECT COUNT(DISTINCT worker_id) FROM shift_slot WHERE shift_id = ?", shiftId));
+    }
+
+    @Test
+    void testSameWorkerClaimsOneSeat() throws Exception {
+        UUID shiftId = shift(20);
+        UUID workerId = workers(1).get(0);
+
+        AtomicInteger claimed = new AtomicInteger();
+        hammer(i -> {
+            try {
+                if (tx.execute(status -> slots.claim(shiftId, workerId)).isPresent()) {
+                    claimed.incrementAndGet();
+                }
+            } catch (RuntimeException rejected) {
+                // Duplicate or lock conflict; either way the claim must not land
+            }
+        });
+
+        assertEquals(1, claimed.get());
+        assertEquals(1, count("SELECT COUNT(*) FROM shift_slot WHERE shift_id = ? AND worker_id IS NOT NULL", shiftId));
+    }
+
+    @Test
+    void testReleaseFreesSeat() {
+        UUID shiftId = shift(1);
+        List<UUID> workers = workers(3);
+        UUID first = workers.get(0);
+
+        assertTrue(tx.execute(status -> slots.claim(shiftId, first)).isPresent());
+        assertTrue(tx.execute(status -> slots.claim(shiftId, workers.get(1))).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> tx.execute(status -> slots.claim(shiftId, first)));
+
+        assertEquals(Boolean.TRUE, tx.execute(status -> slots.release(shiftId, first)));
+        assertEquals(OptionalInt.of(1), tx.execute(status -> slots.claim(shiftId, workers.get(2))));
+    }
+
+    @Test
+    void testSeatHeldByAnInFlightClaimIsNotReportedFull() throws Exception {
+        UUID shiftId = shift(1);
+        List<UUID> workers = workers(3);
+
+        // The holder rolls back, say on the weekly hours cap: the waiting claim gets the seat
+        assertEquals(OptionalInt.of(1), claimBehindHolder(shiftId, workers.get(0), workers.get(1), false));
+        // The holder commits: now the shift is full
+        UUID other = shift(1);
+        assertEquals(OptionalInt.empty(), claimBehindHolder(other, workers.get(0), workers.get(2), true));
+    }
+
+    /** Claims for {@code waiter} while {@code holder}'s claim on the only seat is in flight, then ends the holder's transaction. */
+    private OptionalInt claimBehindHolder(UUID shiftId, UUID holder, UUID waiter, boolean commit) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        try {
+            Future<?> holding = pool.submit(() -> tx.executeWithoutResult(status -> {
+                assertTrue(slots.claim(shiftId, holder).isPresent());
+                held.countDown();
+                try {
+                    finish.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                if (!commit) {
+                    status.setRollbackOnly();
+                }
+            }));
+            assertTrue(held.await(10, TimeUnit.SECONDS));
+            Future<OptionalInt> waiting = pool.submit(() -> tx.execute(status -> slots.claim(shiftId, waiter)));
+            Thread.sleep(300);
+            assertFalse(waiting.isDone(), "answered while the seat was only held");
+            finish.countDown();
+            holding.get(10, TimeUnit.SECONDS);
+            return waiting.get(10, TimeUnit.SECONDS);
+        } finally {
+            finish.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private UUID shift(int capacity) {
+        UUID shiftId = UUID.randomUUID();
+        LocalDate today = LocalDate.now();
+        tx.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO shift (id, date, required_role, start_time, end_time, capacity) "
+                    + "VALUES (?, ?, 'floor', ?, ?, ?)",
+                shiftId, today, Timestamp.valueOf(today.atTime(8, 0)), Timestamp.valueOf(today.atTime(16, 0)), capacity);
+            slots.create(shiftId, today, capacity);
+        });
+        return shiftId;
+    }
+
+    private List<UUID> workers(int count) {
+        List<UUID> workers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID workerId = UUID.randomUUID();
+            jdbc.update("INSERT INTO worker (id, name, role, user_id) VALUES (?, ?, 'floor', ?)",
+                workerId, "w" + i, UUID.randomUUID());
+            workers.add(workerId);
+        }
+        return workers;
+    }
+
+    private void hammer(Claim claim) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                int n = i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    claim.run(n);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int count(String sql, UUID shiftId) {
+        return jdbc.queryForObject(sql, Integer.class, shiftId);
+    }
+
+    private interface Claim {
+        void run(int n) throws Exception;
+    }
+}
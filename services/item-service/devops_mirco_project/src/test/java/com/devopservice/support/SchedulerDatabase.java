@@ -0,0 +1,107 @@
+package com.devopservice.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assumptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The scheduler schema on a real Postgres, for tests that depend on what the
+ * migrations actually create: partitions, foreign keys, partial indexes,
+ * {@code SKIP LOCKED}. One embedded server per test JVM holds a template
+ * database migrated once with the service's own Flyway scripts, and every
+ * {@link #migrated()} call gets a fresh copy of it.
+ *
+ * <p>Postgres refuses to start as root, so tests that use it are skipped
+ * there (see {@link #assumeAvailable()}).
+ */
+public final class SchedulerDatabase {
+
+    private static final String USER = "postgres";
+    private static final String TEMPLATE = "scheduler_template";
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private static EmbeddedPostgres postgres;
+
+    private SchedulerDatabase() {
+    }
+
+    /** Where a database is; {@link #dataSource(int)} opens a pool on it. */
+    public record Database(String url, String username, String password) {
+
+        public HikariDataSource dataSource(int poolSize) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(url);
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setMaximumPoolSize(poolSize);
+            return dataSource;
+        }
+    }
+
+    /** Skips the calling test when no embedded Postgres can run here. */
+    public static void assumeAvailable() {
+        Assumptions.assumeFalse("root".equals(System.getProperty("user.name")),
+            "Embedded Postgres does not run as root");
+    }
+
+    /** A new database with every migration applied. */
+    public static Database migrated() {
+        return create(TEMPLATE);
+    }
+
+    /** A new, empty database, for code that runs the migrations itself. */
+    public static Database empty() {
+        return create("template0");
+    }
+
+    private static Database create(String template) {
+        EmbeddedPostgres server = server();
+        String name = "scheduler_" + DATABASES.incrementAndGet();
+        execute(server, "CREATE DATABASE " + name + " TEMPLATE " + template);
+        return new Database(server.getJdbcUrl(USER, name), USER, "");
+    }
+
+    private static synchronized EmbeddedPostgres server() {
+        assumeAvailable();
+        if (postgres == null) {
+            try {
+                // The slot and swap tests run a few hundred transactions at once
+                postgres = EmbeddedPostgres.builder().setServerConfig("max_connections", "400").start();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not start embedded Postgres", ex);
+            }
+            EmbeddedPostgres started = postgres;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (IOException ignored) {
+                    // The JVM is going away either way
+                }
+            }));
+            execute(postgres, "CREATE DATABASE " + TEMPLATE);
+            Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(USER, TEMPLATE), USER, "")
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        }
+        return postgres;
+    }
+
+    private static void execute(EmbeddedPostgres server, String sql) {
+        try (Connection connection = server.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(sql, ex);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.devopservice.swap;
+
+import com.devopservice.dto.SwapOffer;
+import com.devopservice.hours.HoursLedger;
+import com.devopservice.slots.ShiftSlots;
+import com.devopservice.support.SchedulerDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwapMarketTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+    private HoursLedger hoursLedger;
+    private SwapMarket market;
+    private final Queue<Object> events = new ConcurrentLinkedQueue<>();
+
+    @BeforeAll
+    static void requirePostgres() {
+        SchedulerDatabase.assumeAvailable();
+    }
+
+    @BeforeEach
+    void setUp() {
+        dataSource = SchedulerDatabase.migrated().dataSource(64);
+        jdbc = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        hoursLedger = new HoursLedger(dataSource, 48);
+        market = new SwapMarket(dataSource, new ShiftSlots(dataSource), events::add, hoursLedger);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void testAcceptExchangesWorkersAndSeats() {
+        Held alice = hire("floor", 0, 9);
+        Held bob = hire("floor", 1, 9);
+
+        SwapOffer offer = tx.execute(status -> market.offer(alice.assignment, alice.worker));
+        assertEquals(offer.id(), market.openOffers("floor", DAY, DAY.plusDays(7), 10).get(0).id());
+
+        SwapOffer accepted = tx.execute(status -> market.accept(offer.id(), bob.assignment, bob.worker));
+
+        assertEquals(SwapMarket.ACCEPTED, accepted.status());
+        assertEquals(bob.worker, workerOn(alice.assignment));
+        assertEquals(alice.worker, workerOn(bob.assignment));
+        assertEquals(bob.worker, seatHolder(alice.shift));
+        assertEquals(alice.worker, seatHolder(bob.shift));
+        assertTrue(market.openOffers("floor", DAY, DAY.plusDays(7), 10).isEmpty());
+        assertEquals(4, events.size());
+    }
+
+    @Test
+    void testRejectsRoleMismatchAndOverlap() {
+        Held floor = hire("floor", 0, 9);
+        Held manager = hire("manager", 1, 9);
+        Held busy = hire("floor", 2, 9);
+        assign(busy.worker, shift("floor", 0, 12));
+
+        SwapOffer offer = tx.execute(status -> market.offer(floor.assignment, floor.worker));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> tx.execute(status -> market.accept(offer.id(), manager.assignment, manager.worker)));
+        assertThrows(IllegalArgumentException.class,
+            () -> tx.execute(status -> market.accept(offer.id(), busy.assignment, busy.worker)));
+        assertEquals(floor.worker, workerOn(floor.assignment));
+        assertEquals(1, market.openOffers("floor", DAY, DAY, 10).size());
+    }
+
+    @Test
+    void testHundredsOfConcurrentAcceptsStayConsistent() throws Exception {
+        int pairs = 150;
+        int ring = 150;
+        List<Runnable> accepts = new ArrayList<>();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+
+        // Independent pairs: every one of these must go through
+        for (int i = 0; i < pairs; i++) {
+            Held offerer = hire("floor", i * 2, 9);
+            Held accepter = hire("floor", i * 2 + 1, 9);
+            UUID offerId = tx.execute(status -> market.offer(offerer.assignment, offerer.worker)).id();
+            accepts.add(() -> tx.execute(status -> market.accept(offerId, accepter.assignment, accepter.worker)));
+        }
+        // A ring where each accept gives away the next offer's assignment: heavy lock overlap
+        List<Held> members = new ArrayList<>();
+        for (int i = 0; i < ring; i++) {
+            members.add(hire("floor", pairs * 2 + i, 9));
+        }
+        List<UUID> ringOffers = new ArrayList<>();
+        for (Held member : members) {
+            ringOffers.add(tx.execute(status -> market.offer(member.assignment, member.worker)).id());
+        }
+        for (int i = 0; i < ring; i++) {
+            UUID offerId = ringOffers.get(i);
+            Held next = members.get((i + 1) % ring);
+            accepts.add(() -> tx.execute(status -> market.accept(offerId, next.assignment, next.worker)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(accepts.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (Runnable accept : accepts) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        accept.run();
+                        accepted.incrementAndGet();
+                    } catch (IllegalArgumentException | ResponseStatusException lost) {
+                        // Lost the race: the offer or the assignment changed hands first
+                    } catch (RuntimeException ex) {
+                        unexpected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, unexpected.get());
+        assertTrue(accepted.get() >= pairs);
+        assertEquals(accepted.get(), count("SELECT COUNT(*) FROM swap_offer WHERE status = 'ACCEPTED'"));
+        // Every worker still holds exactly one assignment, and every seat agrees with its assignment
+        assertEquals(0, count("SELECT COUNT(*) FROM (SELECT worker_id FROM shiftassignment GROUP BY worker_id HAVING COUNT(*) <> 1) x"));
+        assertEquals(count("SELECT COUNT(*) FROM worker"), count("SELECT COUNT(DISTINCT worker_id) FROM shiftassignment"));
+        assertEquals(0, count("""
+            SELECT COUNT(*) FROM shiftassignment a
+            LEFT JOIN shift_slot s ON s.shift_id = a.shift_id AND s.worker_id = a.worker_id
+            WHERE s.shift_id IS NULL
+            """));
+        // And the hours ledger moved with them: one eight hour shift booked per worker
+        assertEquals(count("SELECT COUNT(*) FROM worker") * 480, count("SELECT SUM(minutes) FROM worker_week_hours"));
+        assertEquals(0, count("SELECT COUNT(*) FROM worker_week_hours WHERE minutes NOT IN (0, 480)"));
+    }
+
+    private Held hire(String role, int dayOffset, int startHour) {
+        UUID worker = UUID.randomUUID();
+        jdbc.update("INSERT INTO worker (id, name, role, user_id) VALUES (?, ?, ?, ?)", worker, "w-" + worker, role,
+            UUID.randomUUID());
+        UUID shift = shift(role, dayOffset, startHour);
+        return new Held(worker, shift, assign(worker, shift));
+    }
+
+    private UUID shift(String role, int dayOffset, int startHour) {
+        UUID shift = UUID.randomUUID();
+        LocalDate date = DAY.plusDays(dayOffset);
+        jdbc.update("INSERT INTO shift (id, date, required_role, start_time, end_time) VALUES (?, ?, ?, ?, ?)",
+            shift, date, role, Timestamp.valueOf(date.atTime(startHour, 0)),
+            Timestamp.valueOf(date.atTime(startHour + 8, 0)));
+        return shift;
+    }
+
+    private UUID assign(UUID worker, UUID shift) {
+        UUID assignment = UUID.randomUUID();
+        jdbc.query("SELECT date, start_time, end_time FROM shift WHERE id = ?", rs -> {
+            LocalDate date = rs.getObject("date", LocalDate.class);
+            jdbc.update("INSERT INTO shiftassignment (id, shift_id, shift_date, worker_id) VALUES (?, ?, ?, ?)",
+                assignment, shift, date, worker);
+            jdbc.update("INSERT INTO shift_slot (shift_id, shift_date, slot_no, worker_id) VALUES (?, ?, 1, ?)",
+                shift, date, worker);
+            hoursLedger.assign(worker, date,
+                rs.getTimestamp("start_time").toLocalDateTime(), rs.getTimestamp("end_time").toLocalDateTime());
+        }, shift);
+        return assignment;
+    }
+
+    private UUID workerOn(UUID assignment) {
+        return jdbc.queryForObject("SELECT worker_id FROM shiftassignment WHERE id = ?", UUID.class, assignment);
+    }
+
+    private UUID seatHolder(UUID shift) {
+        return jdbc.queryForObject("SELECT worker_id FROM shift_slot WHERE shift_id = ?", UUID.class, shift);
+    }
+
+    private int count(String sql) {
+        return jdbc.queryForObject(sql, Integer.class);
+    }
+
+    private record Held(UUID worker, UUID shift, UUID assignment) {}
+}
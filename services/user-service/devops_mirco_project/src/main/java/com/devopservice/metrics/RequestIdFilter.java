@@ -0,0 +1,43 @@
+package com.devopservice.metrics;
+
+import com.devopservice.shared.RequestIds;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Puts the request ID ({@code X-Request-Id} from the gateway, or a fresh one)
+ * in the MDC and on the response, so the service's log lines for a request
+ * can be matched with the gateway's and the scheduler's.
+ */
+@Component
+public class RequestIdFilter extends OncePerRequestFilter implements Ordered {
+
+    static final String REQUEST_ID_HEADER = RequestIds.HEADER;
+    static final String REQUEST_ID_MDC = "requestId";
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String requestId = RequestIds.accept(request.getHeader(REQUEST_ID_HEADER));
+        MDC.put(REQUEST_ID_MDC, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID_MDC);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -102,4 +103,24 @@ class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accessToken").exists());
     }
+
+    @Test
+    void shouldReportServerTimingAndEchoRequestId() throws Exception {
+        String requestBody = """
+            {
+                "email": "timing@example.com",
+                "password": "password123"
+            }
+            """;
+
+        mockMvc.perform(post("/api/auth/register")
+                .header("X-Request-Id", "req-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("X-Request-Id", "req-42"))
+                .andExpect(header().string("Server-Timing", allOf(containsString("auth;"), containsString("app;"),
+                    containsString("db;desc=\""), containsString("ser;"),
+                    containsString("total;"))));
+    }
 }
@@ -0,0 +1,26 @@
+package com.devopservice.shared;
+
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code X-Request-Id} a request is logged under. The gateway and both
+ * services keep the caller's id when it is a plain short token and make a new
+ * one otherwise, so one request carries the same id through all three logs.
+ */
+public final class RequestIds {
+
+    public static final String HEADER = "X-Request-Id";
+
+    // Client-supplied ids end up in logs, so only short, plain ones are kept
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private RequestIds() {
+    }
+
+    /** The requested id if it is safe to log, else a fresh one. */
+    public static String accept(String requested) {
+        return requested != null && VALID.matcher(requested).matches()
+            ? requested : UUID.randomUUID().toString();
+    }
+}
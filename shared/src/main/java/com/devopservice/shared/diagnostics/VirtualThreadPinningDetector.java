@@ -0,0 +1,169 @@
+package com.devopservice.shared.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams JFR's {@code jdk.VirtualThreadPinned} events (JDK 21+) and groups
+ * them by the first frame outside the JDK, which is the {@code synchronized}
+ * block or native call in our code or a dependency that held a carrier
+ * thread. Each new site is logged once; totals are at {@code /actuator/pinning}.
+ */
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnProperty(prefix = "app.diagnostics.pinning", name = "enabled", havingValue = "true")
+public class VirtualThreadPinningDetector implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningDetector.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String OTHER_SITES = "(other)";
+    private static final int MAX_SITES = 100;
+
+    private final Duration threshold;
+    private final ConcurrentMap<String, Site> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+    private volatile boolean running;
+
+    public VirtualThreadPinningDetector(@Value("${app.diagnostics.pinning.threshold-ms:20}") long thresholdMs) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (Runtime.version().feature() < 21) {
+            log.info("Virtual thread pinning detection needs JDK 21+, running on {}", Runtime.version());
+        } else {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::record);
+            stream.startAsync();
+        }
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @ReadOperation
+    public Map<String, Object> pinning() {
+        List<Map<String, Object>> bySite = sites.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, Site> e) -> e.getValue().totalNanos.get()).reversed())
+            .map(e -> {
+                Map<String, Object> site = new LinkedHashMap<>();
+                site.put("site", e.getKey());
+                site.put("count", e.getValue().count.get());
+                site.put("totalMs", e.getValue().totalNanos.get() / 1_000_000);
+                site.put("maxMs", e.getValue().maxNanos.get() / 1_000_000);
+                return site;
+            })
+            .toList();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("active", stream != null);
+        body.put("thresholdMs", threshold.toMillis());
+        body.put("sites", bySite);
+        return body;
+    }
+
+    private void record(RecordedEvent event) {
+        List<StackTraceElement> frames = frames(event.getStackTrace());
+        record(site(frames), event.getDuration(), frames);
+    }
+
+    void record(String site, Duration duration, List<StackTraceElement> frames) {
+        if (!sites.containsKey(site) && sites.size() >= MAX_SITES) {
+            site = OTHER_SITES;
+        }
+        Site totals = sites.computeIfAbsent(site, key -> {
+            log.warn("Virtual thread pinned for {} ms at {}{}", duration.toMillis(), key, format(frames));
+            return new Site();
+        });
+        long nanos = duration.toNanos();
+        totals.count.incrementAndGet();
+        totals.totalNanos.addAndGet(nanos);
+        totals.maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /** JFR's frames as stack trace elements, native ones marked as such; null without a stack trace. */
+    static List<StackTraceElement> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        return stackTrace.getFrames().stream()
+            .map(frame -> new StackTraceElement(frame.getMethod().getType().getName(), frame.getMethod().getName(),
+                null, frame.isJavaFrame() ? frame.getLineNumber() : -2))
+            .toList();
+    }
+
+    static String site(List<StackTraceElement> frames) {
+        if (frames == null) {
+            return "(no stack trace)";
+        }
+        StackTraceElement top = null;
+        for (StackTraceElement frame : frames) {
+            if (frame.isNativeMethod()) {
+                continue;
+            }
+            top = top == null ? frame : top;
+            if (!isPlatformClass(frame.getClassName())) {
+                return frame(frame);
+            }
+        }
+        return top == null ? "(native)" : frame(top);
+    }
+
+    static boolean isPlatformClass(String className) {
+        return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.")
+            || className.startsWith("javax.");
+    }
+
+    private static String frame(StackTraceElement frame) {
+        return frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+    }
+
+    private static String format(List<StackTraceElement> frames) {
+        if (frames == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder();
+        for (StackTraceElement frame : frames) {
+            out.append("\n\tat ").append(frame(frame));
+        }
+        return out.toString();
+    }
+
+    private static final class Site {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,81 @@
+package com.devopservice.shared.timing;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Phase timings of the request on the current thread, rendered as a
+ * {@code Server-Timing} header: the filters up to the handler under the
+ * service's filter phase name ({@code auth} where Spring Security's chain
+ * dominates), {@code app} from the handler call until the body is written,
+ * {@code db} for the JDBC statements within it, {@code ser} for writing the
+ * body and {@code total} since the request reached the service. The gateway
+ * adds its own entries.
+ */
+final class ServerTiming {
+
+    static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+    private final String filterPhase;
+    private long handlerStart;
+    private long bodyStart;
+    private long statementNanos;
+    private int statements;
+
+    private ServerTiming(String filterPhase) {
+        this.filterPhase = filterPhase;
+    }
+
+    static ServerTiming start(String filterPhase) {
+        ServerTiming timing = new ServerTiming(filterPhase);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /** The current request's timings, or null outside a request thread. */
+    static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void handlerStarted() {
+        handlerStart = System.nanoTime();
+    }
+
+    void bodyStarted() {
+        if (bodyStart == 0) {
+            bodyStart = System.nanoTime();
+        }
+    }
+
+    void statementExecuted(long nanos) {
+        statementNanos += nanos;
+        statements++;
+    }
+
+    String header(long nowNanos) {
+        StringJoiner entries = new StringJoiner(", ");
+        if (handlerStart != 0) {
+            entries.add(entry(filterPhase, "filter chain", handlerStart - start));
+            entries.add(entry("app", "controller", (bodyStart != 0 ? bodyStart : nowNanos) - handlerStart));
+        }
+        if (statements > 0) {
+            entries.add(entry("db", statements + " statements", statementNanos));
+        }
+        if (bodyStart != 0) {
+            entries.add(entry("ser", "serialisation", nowNanos - bodyStart));
+        }
+        entries.add(entry("total", "service", nowNanos - start));
+        return entries.toString();
+    }
+
+    private static String entry(String name, String description, long nanos) {
+        return String.format(Locale.ROOT, "%s;desc=\"%s\";dur=%.1f", name, description, nanos / 1e6);
+    }
+}
@@ -0,0 +1,60 @@
+package com.devopservice.shared.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires {@link ServerTiming}: the filter, the handler-start mark and the
+ * statement timing around the application's {@code dataSource} bean. Both
+ * services pick this up through their component scan; per-service
+ * differences go through properties.
+ */
+@Configuration
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public ServerTimingFilter serverTimingFilter(@Value("${app.server-timing.filter-phase:filters}") String filterPhase) {
+        return new ServerTimingFilter(filterPhase);
+    }
+
+    /**
+     * Only the bean the application injects: the pools behind a routing
+     * {@code dataSource} are reached through it and would count twice.
+     */
+    @Bean
+    public static BeanPostProcessor statementTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                    ? new TimedDataSource(dataSource)
+                    : bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerStart());
+    }
+
+    static final class HandlerStart implements HandlerInterceptor {
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            ServerTiming timing = ServerTiming.current();
+            if (timing != null) {
+                timing.handlerStarted();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.devopservice.shared.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Times the request (see {@link ServerTiming}) and sets the
+ * {@code Server-Timing} header at the last moment it still can: just before
+ * the response commits. Bodies that fit the response buffer are fully
+ * serialised by then; for larger ones {@code ser} covers the first buffer.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter implements Ordered {
+
+    private final String filterPhase;
+
+    public ServerTimingFilter(String filterPhase) {
+        this.filterPhase = filterPhase;
+    }
+
+    @Override
+    public int getOrder() {
+        // Right after the request ID is set, so the filter phase covers every other filter
+        return Ordered.HIGHEST_PRECEDENCE + 3;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        TimedResponse timed = new TimedResponse(response, ServerTiming.start(filterPhase));
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            // Bodiless responses, and async ones whose body comes later, get it here
+            timed.writeHeader();
+            ServerTiming.end();
+        }
+    }
+
+    private static final class TimedResponse extends HttpServletResponseWrapper {
+        private final ServerTiming timing;
+        private boolean headerWritten;
+        private ServletOutputStream outputStream;
+
+        private TimedResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void writeHeader() {
+            if (!headerWritten) {
+                headerWritten = true;
+                if (!isCommitted()) {
+                    setHeader(ServerTiming.HEADER, timing.header(System.nanoTime()));
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new HeaderWritingStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            // Character output is for error pages and the like; no need to follow it byte by byte
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+
+        /** Writes the header before a flush or a write that would overflow the buffer, either of which commits. */
+        private final class HeaderWritingStream extends ServletOutputStream {
+            private final ServletOutputStream delegate;
+            private long written;
+
+            private HeaderWritingStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            private void beforeWrite(int length) {
+                written += length;
+                if (!headerWritten && written >= getBufferSize()) {
+                    writeHeader();
+                }
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                beforeWrite(1);
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                beforeWrite(len);
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writeHeader();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writeHeader();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                delegate.setWriteListener(listener);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.devopservice.shared.timing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds every JDBC statement run on a request thread to its {@code db} phase,
+ * whoever issues it: JdbcTemplate, Hibernate behind the repositories or plain
+ * JDBC. Only the execute calls are timed, so rows the driver fetches lazily
+ * afterwards are not; Postgres reads them all up front unless a fetch size
+ * is set.
+ */
+final class TimedDataSource extends DelegatingDataSource {
+
+    TimedDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private static Connection timed(Connection connection) {
+        return proxy(Connection.class, connection, (method, target, args) -> {
+            Object result = invoke(method, target, args);
+            // createStatement, prepareStatement and prepareCall, each typed by its return type
+            return result instanceof Statement statement && method.getReturnType().isInterface()
+                ? proxy(method.getReturnType(), statement, TimedDataSource::execute)
+                : result;
+        });
+    }
+
+    private static Object execute(Method method, Object statement, Object[] args) throws Throwable {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null || !method.getName().startsWith("execute")) {
+            return invoke(method, statement, args);
+        }
+        long start = System.nanoTime();
+        try {
+            return invoke(method, statement, args);
+        } finally {
+            timing.statementExecuted(System.nanoTime() - start);
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, Call call) {
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            // Spring matches connections by identity when binding them to a transaction
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> call.invoke(method, target, args);
+        };
+        return type.cast(Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object invoke(Method method, Object target, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,24 @@
+package com.devopservice.shared;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestIdsTest {
+
+    @Test
+    void testKeepsPlainIds() {
+        assertEquals("req-123", RequestIds.accept("req-123"));
+        assertEquals("a.b_C-9", RequestIds.accept("a.b_C-9"));
+    }
+
+    @Test
+    void testReplacesIdsUnsafeToLog() {
+        String forged = "abc\n2024-01-01 ERROR forged";
+        for (String requested : new String[] {null, "", forged, "x".repeat(65), "a b"}) {
+            String accepted = RequestIds.accept(requested);
+            assertNotEquals(requested, accepted);
+            assertEquals(36, accepted.length());
+        }
+    }
+}
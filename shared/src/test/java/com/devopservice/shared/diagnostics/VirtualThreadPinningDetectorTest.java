@@ -0,0 +1,135 @@
+package com.devopservice.shared.diagnostics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadPinningDetectorTest {
+
+    private final Object monitor = new Object();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(VirtualThreadPinningDetector.class);
+    private final ListAppender<ILoggingEvent> logged = new ListAppender<>();
+
+    @BeforeEach
+    void captureLog() {
+        logged.start();
+        logger.addAppender(logged);
+        logger.setAdditive(false);
+    }
+
+    @AfterEach
+    void releaseLog() {
+        logger.setAdditive(true);
+        logger.detachAppender(logged);
+    }
+
+    @Test
+    void testAggregatesBySiteAndCapsSites() {
+        VirtualThreadPinningDetector detector = new VirtualThreadPinningDetector(20);
+        detector.record("com.acme.Dao.save:42", Duration.ofMillis(30), null);
+        detector.record("com.acme.Dao.save:42", Duration.ofMillis(50), null);
+        for (int i = 0; i < 150; i++) {
+            detector.record("com.acme.Other.m" + i + ":1", Duration.ofMillis(25), null);
+        }
+
+        List<Map<String, Object>> sites = sites(detector);
+        assertEquals(101, sites.size());
+        Map<String, Object> other = sites.get(0);
+        assertEquals(VirtualThreadPinningDetector.OTHER_SITES, other.get("site"));
+        Map<String, Object> save = sites.stream()
+            .filter(site -> site.get("site").equals("com.acme.Dao.save:42")).findFirst().orElseThrow();
+        assertEquals(2L, save.get("count"));
+        assertEquals(80L, save.get("totalMs"));
+        assertEquals(50L, save.get("maxMs"));
+        // One warning per site, the overflow included
+        assertEquals(101, logged.list.stream().filter(event -> event.getLevel() == Level.WARN).count());
+
+        assertTrue(VirtualThreadPinningDetector.isPlatformClass("java.lang.VirtualThread"));
+        assertFalse(VirtualThreadPinningDetector.isPlatformClass("com.zaxxer.hikari.pool.HikariPool"));
+    }
+
+    @Test
+    void testGroupsByFirstFrameOutsideTheJdk() {
+        StackTraceElement park = new StackTraceElement("java.lang.VirtualThread", "parkOnCarrierThread", null, 687);
+        StackTraceElement sleep = new StackTraceElement("java.lang.Thread", "sleep", null, 509);
+        StackTraceElement save = new StackTraceElement("com.acme.Dao", "save", null, 42);
+        StackTraceElement nativeRead = new StackTraceElement("sun.nio.ch.SocketDispatcher", "read0", null, -2);
+
+        assertEquals("com.acme.Dao.save:42", VirtualThreadPinningDetector.site(List.of(park, sleep, save)));
+        assertEquals("java.lang.Thread.sleep:509", VirtualThreadPinningDetector.site(List.of(nativeRead, sleep, park)));
+        assertEquals("(native)", VirtualThreadPinningDetector.site(List.of(nativeRead)));
+        assertEquals("(no stack trace)", VirtualThreadPinningDetector.site(null));
+
+        VirtualThreadPinningDetector detector = new VirtualThreadPinningDetector(20);
+        detector.record(VirtualThreadPinningDetector.site(List.of(park, save)), Duration.ofMillis(30), List.of(park, save));
+        assertEquals("Virtual thread pinned for 30 ms at com.acme.Dao.save:42"
+                + "\n\tat java.lang.VirtualThread.parkOnCarrierThread:687\n\tat com.acme.Dao.save:42",
+            logged.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    void testStreamsOnlyWhereVirtualThreadsExist() {
+        VirtualThreadPinningDetector detector = new VirtualThreadPinningDetector(20);
+        detector.start();
+        try {
+            assertTrue(detector.isRunning());
+            assertEquals(Runtime.version().feature() >= 21, detector.pinning().get("active"));
+        } finally {
+            detector.stop();
+        }
+        assertFalse(detector.isRunning());
+    }
+
+    @Test
+    void testReportsSynchronizedBlockThatPinsVirtualThread() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need JDK 21");
+        VirtualThreadPinningDetector detector = new VirtualThreadPinningDetector(10);
+        detector.start();
+        try {
+            // Looked up reflectively so the test still compiles for a Java 17 target
+            ExecutorService virtualThreads = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            virtualThreads.submit(() -> sleepHoldingMonitor()).get();
+            virtualThreads.shutdown();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+            while (sites(detector).isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+        } finally {
+            detector.stop();
+        }
+
+        List<Map<String, Object>> sites = sites(detector);
+        assertFalse(sites.isEmpty());
+        assertTrue(sites.get(0).get("site").toString()
+            .startsWith(VirtualThreadPinningDetectorTest.class.getName() + ".sleepHoldingMonitor"));
+    }
+
+    private Void sleepHoldingMonitor() throws InterruptedException {
+        synchronized (monitor) {
+            Thread.sleep(100);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> sites(VirtualThreadPinningDetector detector) {
+        return (List<Map<String, Object>>) detector.pinning().get("sites");
+    }
+}
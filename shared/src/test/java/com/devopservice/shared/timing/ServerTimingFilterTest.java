@@ -0,0 +1,79 @@
+package com.devopservice.shared.timing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+public class ServerTimingFilterTest {
+
+    private static final JdbcTemplate JDBC = new JdbcTemplate(
+        new TimedDataSource(new DriverManagerDataSource("jdbc:h2:mem:server-timing;DB_CLOSE_DELAY=-1")));
+
+    @RestController
+    static class TimedController {
+        @GetMapping("/small")
+        List<String> small() {
+            ServerTiming.current().statementExecuted(2_000_000);
+            ServerTiming.current().statementExecuted(1_000_000);
+            return List.of("a", "b");
+        }
+
+        @GetMapping("/jdbc")
+        List<Integer> jdbc() {
+            return List.of(JDBC.queryForObject("SELECT 1", Integer.class),
+                JDBC.queryForObject("SELECT ?", Integer.class, 2));
+        }
+
+        @GetMapping("/large")
+        List<String> large() {
+            return Collections.nCopies(20_000, "shift");
+        }
+    }
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TimedController())
+        .addFilters(new ServerTimingFilter("filters"))
+        .addInterceptors(new ServerTimingConfig.HandlerStart())
+        .setControllerAdvice(new ServerTimingBodyAdvice())
+        .build();
+
+    @Test
+    void testReportsPhases() throws Exception {
+        String header = mockMvc.perform(get("/small")).andReturn().getResponse().getHeader(ServerTiming.HEADER);
+
+        assertNotNull(header);
+        assertTrue(header.startsWith("filters;desc=\"filter chain\";dur="), header);
+        assertTrue(header.contains("app;desc=\"controller\";dur="), header);
+        assertTrue(header.contains("db;desc=\"2 statements\";dur=3.0"), header);
+        assertTrue(header.contains("ser;desc=\"serialisation\";dur="), header);
+        assertTrue(header.contains("total;desc=\"service\";dur="), header);
+    }
+
+    @Test
+    void testTimesStatementsOnTheRequestThread() throws Exception {
+        String header = mockMvc.perform(get("/jdbc")).andReturn().getResponse().getHeader(ServerTiming.HEADER);
+
+        assertTrue(header.contains("db;desc=\"2 statements\""), header);
+        // Outside a request the statements run untimed
+        assertEquals(1, JDBC.queryForObject("SELECT 1", Integer.class));
+    }
+
+    @Test
+    void testHeaderSetBeforeALargeBodyCommits() throws Exception {
+        MvcResult result = mockMvc.perform(get("/large")).andReturn();
+
+        assertTrue(result.getResponse().getContentAsByteArray().length > result.getResponse().getBufferSize());
+        assertNotNull(result.getResponse().getHeader(ServerTiming.HEADER));
+        assertNull(ServerTiming.current());
+    }
+}